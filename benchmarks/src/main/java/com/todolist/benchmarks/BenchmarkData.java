@@ -0,0 +1,74 @@
+package main.java.com.todolist.benchmarks;
+
+import main.java.com.todolist.FileManager;
+import main.java.com.todolist.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Genera directorios de datos con tareas sinteticas para los benchmarks
+final class BenchmarkData {
+    private static final String[] CATEGORIES = {"Trabajo", "Personal", "Estudio", "Hogar", "Otros"};
+    private static final String[] WORDS = {"revisar", "enviar", "informe", "reunión", "comprar", "llamar",
+            "presupuesto", "cliente", "proyecto", "médico", "factura", "correo", "plan", "entrega"};
+
+    private BenchmarkData() {
+    }
+
+    static File createDirectory() throws IOException {
+        return Files.createTempDirectory("todolist-bench").toFile();
+    }
+
+    // Crea tasksPerMonth tareas en cada mes; una de cada tres queda completada
+    static List<Task> generate(FileManager fileManager, List<YearMonth> months, int tasksPerMonth, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(months.size() * tasksPerMonth);
+        for (YearMonth month : months) {
+            for (int i = 0; i < tasksPerMonth; i++) {
+                Task task = newTask(random, month);
+                if (i % 3 == 0) {
+                    task.markAsCompleted();
+                }
+                fileManager.saveTask(task);
+                tasks.add(task);
+            }
+        }
+        fileManager.flush().join();
+        return tasks;
+    }
+
+    static Task newTask(Random random, YearMonth month) {
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(10000);
+        StringBuilder description = new StringBuilder();
+        int words = 5 + random.nextInt(20);
+        for (int w = 0; w < words; w++) {
+            description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        LocalDate dueDate = month.atDay(1 + random.nextInt(month.lengthOfMonth()));
+        return new Task(title, description.toString().trim(), dueDate, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+    }
+
+    static List<YearMonth> monthsAround(YearMonth center) {
+        List<YearMonth> months = new ArrayList<>();
+        months.add(center.minusMonths(1));
+        months.add(center);
+        months.add(center.plusMonths(1));
+        return months;
+    }
+
+    static void deleteDirectory(File directory) throws IOException {
+        if (directory == null || !directory.exists()) return;
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
\ No newline at end of file
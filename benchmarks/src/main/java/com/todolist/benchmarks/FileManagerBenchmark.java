@@ -0,0 +1,105 @@
+package main.java.com.todolist.benchmarks;
+
+import main.java.com.todolist.FileManager;
+import main.java.com.todolist.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Rendimiento de las operaciones de FileManager sobre un mes con tasksPerMonth tareas.
+// Ejecutar con -prof gc para ver la tasa de asignacion.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileManagerBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int tasksPerMonth;
+
+    private File directory;
+    private FileManager fileManager;
+    private YearMonth month;
+    private List<Task> tasks;
+    private Random random;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkData.createDirectory();
+        month = YearMonth.now();
+        FileManager generator = new FileManager(directory);
+        tasks = BenchmarkData.generate(generator, BenchmarkData.monthsAround(month), tasksPerMonth, 42);
+        // Instancia nueva para partir del estado que veria la aplicacion al arrancar
+        fileManager = new FileManager(directory);
+        fileManager.getAvailableMonths();
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Iteration)
+    public void flushIteration() {
+        // Que el lote pendiente de una iteracion no se mezcle con la siguiente
+        fileManager.flush().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fileManager.flush().join();
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    private Task nextTask() {
+        Task task = tasks.get(next);
+        next = (next + 1) % tasks.size();
+        return task;
+    }
+
+    @Benchmark
+    public Task saveTask() {
+        Task task = BenchmarkData.newTask(random, month);
+        fileManager.saveTask(task);
+        return task;
+    }
+
+    @Benchmark
+    public List<Task> loadTasksForMonth() {
+        return fileManager.loadTasksForMonth(month);
+    }
+
+    @Benchmark
+    public List<Task> loadPendingTasksForMonth() {
+        return fileManager.loadTasksForMonth(month, false);
+    }
+
+    @Benchmark
+    public Task updateTaskStatus() {
+        Task task = nextTask();
+        if (task.isCompleted()) {
+            task.markAsPending();
+        } else {
+            task.markAsCompleted();
+        }
+        fileManager.updateTaskStatus(task);
+        return task;
+    }
+
+    // Recorre las tareas generadas; al dar la vuelta se borran tareas ya borradas,
+    // que siguen escribiendo su registro de borrado
+    @Benchmark
+    public Task deleteTask() {
+        Task task = nextTask();
+        fileManager.deleteTask(task);
+        return task;
+    }
+
+    @Benchmark
+    public List<YearMonth> getAvailableMonths() {
+        return fileManager.getAvailableMonths();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package main.java.com.todolist.benchmarks;
+
+import main.java.com.todolist.FileManager;
+import main.java.com.todolist.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Carga de un año completo repartida entre parallelism hilos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeQueryBenchmark {
+    @Param({"1000", "10000"})
+    public int tasksPerMonth;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private File directory;
+    private FileManager fileManager;
+    private List<YearMonth> year;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkData.createDirectory();
+        YearMonth first = YearMonth.now().minusMonths(11);
+        year = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            year.add(first.plusMonths(i));
+        }
+        BenchmarkData.generate(new FileManager(directory), year, tasksPerMonth, 42);
+
+        fileManager = new FileManager(directory);
+        fileManager.setLoadParallelism(parallelism);
+        from = first.atDay(1);
+        to = YearMonth.now().atEndOfMonth();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Map<YearMonth, List<Task>> loadYear() {
+        return fileManager.loadTasksForMonths(year);
+    }
+
+    @Benchmark
+    public List<Task> loadTasksDueBetween() {
+        return fileManager.loadTasksDueBetween(from, to);
+    }
+
+    @Benchmark
+    public List<Task> loadOverdueTasks() {
+        return fileManager.loadOverdueTasks(LocalDate.now());
+    }
+}
\ No newline at end of file
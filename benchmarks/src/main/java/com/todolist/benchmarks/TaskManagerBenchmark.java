@@ -0,0 +1,64 @@
+package main.java.com.todolist.benchmarks;
+
+import main.java.com.todolist.FileManager;
+import main.java.com.todolist.Task;
+import main.java.com.todolist.TaskManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Consultas y navegacion de TaskManager sobre tres meses con tasksPerMonth tareas cada uno.
+// cacheMonths = 0 desactiva la cache de meses y obliga a leer de disco en cada navegacion.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskManagerBenchmark {
+    private static final long CACHE_BYTES = 512L * 1024 * 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int tasksPerMonth;
+
+    @Param({"0", "12"})
+    public int cacheMonths;
+
+    private File directory;
+    private TaskManager taskManager;
+    private boolean forward;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkData.createDirectory();
+        BenchmarkData.generate(new FileManager(directory), BenchmarkData.monthsAround(YearMonth.now()), tasksPerMonth, 42);
+        taskManager = new TaskManager(directory, cacheMonths, CACHE_BYTES, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        taskManager.flush().join();
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public List<Task> getPendingTasks() {
+        return taskManager.getPendingTasks();
+    }
+
+    // Alterna entre el mes anterior y el actual
+    @Benchmark
+    public YearMonth navigateMonth() {
+        if (forward) {
+            taskManager.navigateToNextMonth();
+        } else {
+            taskManager.navigateToPreviousMonth();
+        }
+        forward = !forward;
+        return taskManager.getCurrentViewMonth();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package main.java.com.todolist;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Diccionario de categorias compartido por todo el proceso: cada nombre tiene un codigo de un byte
+// y una sola instancia. Esta acotado: pasados los MAX_NAMES nombres los nuevos quedan fuera
+// (codigo OTHER) y cada tarea conserva su propio String, asi nombres arbitrarios no lo hacen crecer.
+public final class CategoryDictionary {
+    static final byte NONE = 0;
+    static final byte OTHER = (byte) 0xff;
+    static final int MAX_NAMES = 254;
+
+    private static final Map<String, Byte> CODES = new ConcurrentHashMap<>();
+    // Nombre de cada codigo; se escribe antes de publicar el codigo en CODES
+    private static final String[] NAMES = new String[256];
+    private static int count;
+
+    private CategoryDictionary() {
+    }
+
+    // NONE para null, OTHER si el nombre no entra en el diccionario
+    static byte encode(String category) {
+        if (category == null) return NONE;
+        Byte code = CODES.get(category);
+        if (code != null) return code;
+        synchronized (CODES) {
+            code = CODES.get(category);
+            if (code != null) return code;
+            if (count == MAX_NAMES) return OTHER;
+            count++;
+            NAMES[count] = category;
+            CODES.put(category, (byte) count);
+            return (byte) count;
+        }
+    }
+
+    // null para NONE y OTHER: el nombre fuera del diccionario lo guarda quien tiene el codigo
+    static String decode(byte code) {
+        return NAMES[code & 0xff];
+    }
+
+    // La instancia compartida del nombre, o el mismo String si el diccionario esta lleno
+    static String intern(String category) {
+        byte code = encode(category);
+        return code == NONE || code == OTHER ? category : decode(code);
+    }
+
+    static int size() {
+        synchronized (CODES) {
+            return count;
+        }
+    }
+}
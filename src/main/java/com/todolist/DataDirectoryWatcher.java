@@ -0,0 +1,171 @@
+package main.java.com.todolist;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Vigila el directorio de datos (año, mes, to-do y done) y avisa que archivos cambiaron en cada mes.
+// Los eventos se acumulan hasta que hay una pausa, para aplicar una rafaga de cambios de una vez.
+// Un valor null en el mapa entregado significa que hay que revisar el mes completo.
+public class DataDirectoryWatcher implements AutoCloseable {
+    // Pausa sin eventos que cierra una rafaga, y espera maxima aunque sigan llegando
+    static final long QUIET_MILLIS = 150;
+    static final long MAX_DELAY_MILLIS = 600;
+
+    private final FileManager fileManager;
+    private final Path baseDirectory;
+    private final Consumer<Map<YearMonth, Set<Path>>> onChange;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    // Sello de cada mes al ultimo aviso, para acotar la revision tras un desborde
+    private final Map<YearMonth, Long> stamps = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public DataDirectoryWatcher(FileManager fileManager, Consumer<Map<YearMonth, Set<Path>>> onChange) throws IOException {
+        this.fileManager = fileManager;
+        this.baseDirectory = fileManager.getBaseDirectory().toPath().toAbsolutePath().normalize();
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        registerTree(baseDirectory);
+        for (YearMonth month : fileManager.scanMonthDirectories()) {
+            stamps.put(month, fileManager.monthStamp(month));
+        }
+        this.thread = new Thread(this::run, "data-watcher");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+
+    private void run() {
+        Map<YearMonth, Set<Path>> pending = new HashMap<>();
+        boolean overflow = false;
+        long firstEvent = 0;
+        try {
+            while (running) {
+                WatchKey key;
+                if (pending.isEmpty() && !overflow) {
+                    key = watchService.take();
+                    firstEvent = System.currentTimeMillis();
+                } else {
+                    long waited = System.currentTimeMillis() - firstEvent;
+                    key = waited < MAX_DELAY_MILLIS
+                            ? watchService.poll(Math.min(QUIET_MILLIS, MAX_DELAY_MILLIS - waited), TimeUnit.MILLISECONDS)
+                            : null;
+                }
+
+                if (key == null) {
+                    if (overflow) {
+                        rescan(pending);
+                        overflow = false;
+                    }
+                    dispatch(pending);
+                    pending = new HashMap<>();
+                    continue;
+                }
+
+                Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Se perdieron eventos: al cerrar la rafaga se comparan los sellos de los meses
+                        overflow = true;
+                        continue;
+                    }
+                    if (directory == null) continue;
+                    Path path = directory.resolve((Path) event.context());
+                    YearMonth month = fileManager.monthOf(path);
+
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                        // Directorio nuevo: pudo llenarse antes de registrarlo, se revisa entero
+                        registerTree(path);
+                        if (month != null) pending.put(month, null);
+                        continue;
+                    }
+                    if (month == null) continue;
+                    if (path.getParent().equals(directory) && fileManager.monthOf(directory) == null) {
+                        // Cambio en el directorio del mes mismo visto desde el año
+                        pending.put(month, null);
+                    } else if (!pending.containsKey(month) || pending.get(month) != null) {
+                        pending.computeIfAbsent(month, m -> new HashSet<>()).add(path);
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Cierre del vigilante
+        }
+    }
+
+    private void dispatch(Map<YearMonth, Set<Path>> changes) {
+        if (changes.isEmpty()) return;
+        for (YearMonth month : changes.keySet()) {
+            stamps.put(month, fileManager.monthStamp(month));
+        }
+        try {
+            onChange.accept(changes);
+        } catch (RuntimeException e) {
+            Metrics.error(e);
+        }
+    }
+
+    // Tras un desborde solo se revisan los meses cuyo sello cambio, y se registran directorios nuevos
+    void rescan(Map<YearMonth, Set<Path>> pending) {
+        registerTree(baseDirectory);
+        Set<YearMonth> onDisk = new HashSet<>(fileManager.scanMonthDirectories());
+        onDisk.addAll(stamps.keySet());
+        for (YearMonth month : onDisk) {
+            long stamp = fileManager.monthStamp(month);
+            Long previous = stamps.get(month);
+            if (previous == null || previous != stamp) {
+                pending.put(month, null);
+            }
+        }
+    }
+
+    private void registerTree(Path root) {
+        try (Stream<Path> tree = Files.walk(root, 3)) {
+            tree.filter(Files::isDirectory).forEach(this::register);
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+
+    private void register(Path directory) {
+        if (directories.containsValue(directory)) return;
+        try {
+            WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(key, directory);
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package main.java.com.todolist;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Descripciones largas guardadas fuera de los registros de tareas, en un archivo por mes.
+// El registro solo lleva el comienzo del texto (lo que muestra la tabla) y donde esta el resto;
+// el texto completo se lee al pedirlo y los ultimos usados quedan en una cache LRU.
+public class DescriptionStore {
+    static final String BLOB_FILE = "descriptions.blob";
+    // Las descripciones de hasta este largo se guardan dentro del registro
+    static final int PREVIEW_CHARS = 100;
+    private static final long DEFAULT_CACHE_BYTES =
+            Long.getLong("todolist.descriptions.cacheBytes", 4L * 1024 * 1024);
+    private static final Map<File, DescriptionStore> INSTANCES = new ConcurrentHashMap<>();
+
+    // Donde esta la descripcion completa de una tarea
+    public static final class Reference {
+        private final DescriptionStore store;
+        final YearMonth month;
+        final long offset;
+        final int length;
+        final String preview;
+
+        Reference(DescriptionStore store, YearMonth month, long offset, int length, String preview) {
+            this.store = store;
+            this.month = month;
+            this.offset = offset;
+            this.length = length;
+            this.preview = preview;
+        }
+
+        public String getPreview() {
+            return preview;
+        }
+
+        public String load() {
+            return store.read(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Reference)) return false;
+            Reference other = (Reference) o;
+            return store == other.store && month.equals(other.month) && offset == other.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(month, offset);
+        }
+    }
+
+    private final Function<YearMonth, File> blobFiles;
+    private final long maxCacheBytes;
+    // Textos encolados para escribir que todavia pueden no estar en disco
+    private final Map<Reference, String> pending = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Reference, String> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cacheBytes;
+
+    DescriptionStore(Function<YearMonth, File> blobFiles, long maxCacheBytes) {
+        this.blobFiles = blobFiles;
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    // Una instancia por directorio de datos, compartida por todos los que lo usan en el proceso
+    public static DescriptionStore forDirectory(File baseDirectory) {
+        return INSTANCES.computeIfAbsent(baseDirectory.getAbsoluteFile(), base -> new DescriptionStore(
+                month -> new File(FileManager.getMonthYearPath(baseDirectory, month), BLOB_FILE), DEFAULT_CACHE_BYTES));
+    }
+
+    File getBlobFile(YearMonth month) {
+        return blobFiles.apply(month);
+    }
+
+    static boolean fitsInline(String description) {
+        return description == null || description.length() <= PREVIEW_CHARS;
+    }
+
+    static String preview(String description) {
+        int end = PREVIEW_CHARS;
+        // No cortar un par sustituto por la mitad
+        if (Character.isHighSurrogate(description.charAt(end - 1))) end--;
+        return description.substring(0, end);
+    }
+
+    Reference reference(YearMonth month, long offset, int length, String preview) {
+        return new Reference(this, month, offset, length, preview);
+    }
+
+    // Registra un texto recien encolado; se lee de memoria hasta que el lote es durable
+    void written(Reference reference, String description) {
+        pending.put(reference, description);
+        remember(reference, description);
+    }
+
+    void durable(Reference reference) {
+        pending.remove(reference);
+    }
+
+    String read(Reference reference) {
+        String description = pending.get(reference);
+        if (description != null) return description;
+        synchronized (this) {
+            description = cache.get(reference);
+        }
+        if (description != null) return description;
+
+        try {
+            description = readBlob(reference);
+        } catch (IOException e) {
+            // No se devuelve el comienzo en su lugar: al editar se guardaria el texto recortado
+            Metrics.error(e);
+            throw new UncheckedIOException(e);
+        }
+        remember(reference, description);
+        return description;
+    }
+
+    private String readBlob(Reference reference) throws IOException {
+        File blob = getBlobFile(reference.month);
+        try (FileChannel channel = FileChannel.open(blob.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(reference.length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, reference.offset + buffer.position()) < 0) {
+                    throw new IOException("Descripcion incompleta en " + blob + " en " + reference.offset);
+                }
+            }
+            Metrics.count(Metrics.Counter.BYTES_READ, reference.length);
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private synchronized void remember(Reference reference, String description) {
+        long size = 2L * description.length();
+        if (size > maxCacheBytes) return;
+        String previous = cache.put(reference, description);
+        if (previous != null) {
+            cacheBytes -= 2L * previous.length();
+        }
+        cacheBytes += size;
+
+        Iterator<Map.Entry<Reference, String>> iterator = cache.entrySet().iterator();
+        while (cacheBytes > maxCacheBytes && iterator.hasNext()) {
+            cacheBytes -= 2L * iterator.next().getValue().length();
+            iterator.remove();
+        }
+    }
+
+    public synchronized long getCacheBytes() {
+        return cacheBytes;
+    }
+}
\ No newline at end of file
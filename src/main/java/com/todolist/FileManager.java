@@ -1,109 +1,771 @@
 package main.java.com.todolist;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 public class FileManager {
-    private static final String BASE_DIR = "data";
+    static final String BASE_DIR = "data";
     private static final String TODO_DIR = "to-do";
     private static final String DONE_DIR = "done";
+    private static final String SEGMENT_FILE = "tasks.log";
+    private static final String MANIFEST_FILE = "manifest.dat";
+    // Hilos para cargar varios meses a la vez (-Dtodolist.loadParallelism)
+    private static final int DEFAULT_LOAD_PARALLELISM =
+            Integer.getInteger("todolist.loadParallelism", Runtime.getRuntime().availableProcessors());
+    // Compactacion: proporcion de datos muertos que la dispara (-Dtodolist.compaction.deadRatio),
+    // minimo de bytes muertos para que valga la pena y ritmo de E/S (-Dtodolist.compaction.bytesPerSecond)
+    private static final double COMPACTION_DEAD_RATIO =
+            Double.parseDouble(System.getProperty("todolist.compaction.deadRatio", "0.5"));
+    private static final long COMPACTION_MIN_DEAD_BYTES = 64 * 1024;
+    private static final long COMPACTION_BYTES_PER_SECOND =
+            Long.getLong("todolist.compaction.bytesPerSecond", 8L * 1024 * 1024);
+    private static final int COMPACTION_CHUNK = 64 * 1024;
+    private static final String COMPACTION_SUFFIX = ".compact";
+    // Franjas de locks por mes: meses consecutivos caen en franjas distintas
+    private static final int MONTH_LOCK_STRIPES = 32;
+    // Meses con mas antiguedad que esta se guardan comprimidos; 0 desactiva el archivado automatico
+    private static final int ARCHIVE_AGE_MONTHS = Integer.getInteger("todolist.archive.ageMonths", 12);
+
+    // Orden de los resultados de las consultas por rango
+    static final Comparator<Task> DUE_DATE_ORDER = Comparator.comparingInt(Task::getDueDay)
+            .thenComparingInt(Task::getCreationDay)
+            .thenComparing(Task::getTitle);
+    // Orden de los registros de un segmento compactado; sin vencimiento al final
+    private static final Comparator<Task> COMPACTION_ORDER =
+            Comparator.comparingInt((Task task) -> task.getDueDay() != Task.NO_DATE ? task.getDueDay() : Integer.MAX_VALUE)
+                    .thenComparingInt(Task::getCreationDay)
+                    .thenComparing(Task::getTitle);
+
+    // Tipos de registro del segmento mensual
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_DELETE_KEY = 2;
+    private static final byte RECORD_DELETE = 3;
+
+    public enum StorageMode {
+        // Un archivo .task por tarea en data/<año>/<MM_Mes>/{to-do,done}
+        LEGACY,
+        // Un único archivo de registros por mes, solo de anexado
+        SEGMENT
+    }
+
+    public enum ReadMode {
+        // Lectura secuencial con streams
+        STREAM,
+        // Segmento mapeado en memoria con FileChannel.map
+        MAPPED
+    }
+
+    // Ubicacion en disco de una tarea guardada o cargada
+    static final class TaskLocation {
+        final YearMonth month;
+        final boolean completed;
+        final File file;
+        // Posicion del registro en el segmento (-1 en modo LEGACY)
+        final long offset;
+        // Bytes del registro en el segmento, con su cabecera (0 fuera de un segmento)
+        final int length;
+
+        TaskLocation(YearMonth month, boolean completed, File file, long offset, int length) {
+            this.month = month;
+            this.completed = completed;
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    // Donde quedo el ultimo registro vigente de una tarea al leer un segmento
+    private static final class RecordSpan {
+        final long offset;
+        final int length;
+
+        RecordSpan(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    // Cambios encontrados al revisar archivos modificados por fuera de la aplicacion
+    static final class ExternalChanges {
+        final List<Task> changed = new ArrayList<>();
+        final Set<UUID> removed = new HashSet<>();
+        // No se pudo aplicar de forma incremental: hay que volver a leer el mes entero
+        boolean reload;
+
+        boolean isEmpty() {
+            return !reload && changed.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private final File baseDirectory;
+    private final StorageMode storageMode;
+    private final ReadMode readMode;
+    private final WriteBatcher writeBatcher;
+    // Indice ID -> ubicacion, para borrar y actualizar sin recorrer directorios
+    private final Map<UUID, TaskLocation> index = new ConcurrentHashMap<>();
+    private final Map<YearMonth, File> segmentFiles = new ConcurrentHashMap<>();
+    private final Map<YearMonth, MonthArchive> archives = new ConcurrentHashMap<>();
+    // Hasta donde se leyo o escribio cada segmento; lo que haya despues lo agrego otro proceso
+    private final Map<File, Long> segmentEnds = new ConcurrentHashMap<>();
+    // Bytes de registros reemplazados o borrados en cada segmento (exacto al leerlo, estimado al escribir)
+    private final Map<File, Long> deadBytes = new ConcurrentHashMap<>();
+    private final Set<YearMonth> compactionScheduled = ConcurrentHashMap.newKeySet();
+    private volatile ForkJoinPool loadPool;
+    private final MonthManifest manifest;
+    private final Journal journal;
+    private final DescriptionStore descriptions;
+    private final AtomicBoolean manifestSaveScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile int loadParallelism = DEFAULT_LOAD_PARALLELISM;
+    // Escrituras de un mes exclusivas entre si y con las lecturas de ese mes; meses distintos no se esperan
+    private final ReadWriteLock[] monthLocks = new ReadWriteLock[MONTH_LOCK_STRIPES];
+
+    // Guarda los manifiestos fuera del hilo de escritura de segmentos
+    private static final Executor MANIFEST_WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "manifest-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Un solo mes se compacta a la vez, con prioridad baja
+    private static final Executor COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "segment-compactor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
 
     public FileManager() {
+        this(StorageMode.SEGMENT);
+    }
+
+    public FileManager(File baseDirectory) {
+        this(baseDirectory, StorageMode.SEGMENT, ReadMode.MAPPED, WriteBatcher.getDefault());
+    }
+
+    public FileManager(StorageMode storageMode) {
+        this(storageMode, ReadMode.MAPPED);
+    }
+
+    public FileManager(StorageMode storageMode, ReadMode readMode) {
+        this(storageMode, readMode, WriteBatcher.getDefault());
+    }
+
+    public FileManager(StorageMode storageMode, ReadMode readMode, WriteBatcher writeBatcher) {
+        this(new File(BASE_DIR), storageMode, readMode, writeBatcher);
+    }
+
+    public FileManager(File baseDirectory, StorageMode storageMode, ReadMode readMode, WriteBatcher writeBatcher) {
+        this.baseDirectory = baseDirectory;
+        this.storageMode = storageMode;
+        this.readMode = readMode;
+        this.writeBatcher = writeBatcher;
+        for (int i = 0; i < monthLocks.length; i++) {
+            monthLocks[i] = new ReentrantReadWriteLock();
+        }
         createBaseDirectory();
+        this.journal = new Journal(baseDirectory, writeBatcher);
+        this.descriptions = DescriptionStore.forDirectory(baseDirectory);
+        Set<YearMonth> recovered = recoverFromJournal();
+        if (storageMode == StorageMode.SEGMENT) {
+            migrateLegacyData();
+        }
+        this.manifest = new MonthManifest(new File(baseDirectory, MANIFEST_FILE));
+        if (!manifest.load()) {
+            // Sin manifiesto: los meses salen de los directorios y se cuentan cuando se piden
+            for (YearMonth yearMonth : scanMonthDirectories()) {
+                manifest.markStale(yearMonth);
+            }
+            saveManifest();
+        }
+        // Los meses reparados se vuelven a contar cuando se piden
+        for (YearMonth yearMonth : recovered) {
+            manifest.markStale(yearMonth);
+        }
+    }
+
+    // Escribe lo encolado, guarda el manifiesto y libera los hilos de carga. El WriteBatcher no se
+    // cierra porque puede ser el compartido; quien lo creo lo cierra.
+    public void close() {
+        closed = true;
+        try {
+            flush().join();
+        } catch (CompletionException e) {
+            // El diario conserva lo que no llego a disco y se recupera en el proximo arranque
+            Metrics.error(e.getCause());
+        }
+        if (manifest.isDirty()) saveManifest();
+        ForkJoinPool pool;
+        synchronized (this) {
+            pool = loadPool;
+            loadPool = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public File getBaseDirectory() {
+        return baseDirectory;
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    public ReadMode getReadMode() {
+        return readMode;
     }
 
     private void createBaseDirectory() {
-        File baseDir = new File(BASE_DIR);
-        if (!baseDir.exists()) {
-            baseDir.mkdirs();
+        if (!baseDirectory.exists()) {
+            baseDirectory.mkdirs();
         }
     }
 
     private String getMonthYearPath(YearMonth yearMonth) {
+        return getMonthYearPath(baseDirectory, yearMonth);
+    }
+
+    static String getMonthYearPath(File baseDirectory, YearMonth yearMonth) {
         int year = yearMonth.getYear();
         int month = yearMonth.getMonthValue();
         String monthName = yearMonth.getMonth().toString().toLowerCase();
         monthName = monthName.substring(0, 1).toUpperCase() + monthName.substring(1);
 
-        return String.format("%s/%d/%02d_%s", BASE_DIR, year, month, monthName);
+        return String.format("%s/%d/%02d_%s", baseDirectory.getPath(), year, month, monthName);
+    }
+
+    static YearMonth getTaskMonth(Task task) {
+        LocalDate taskDate = task.getDueDate() != null ? task.getDueDate() : task.getCreationDate();
+        return YearMonth.from(taskDate);
     }
 
     private String getTaskFileName(Task task) {
         //Crear un nombre de archivo seguro para la tarea
         String safeTitle = task.getTitle().replaceAll("[^a-zA-z0-9\\s]", "_");
-        String dateStr = task.getCreationDate().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        return String.format("%s_%s.task", dateStr, safeTitle);
+        String dateStr = task.getCreationDate().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        return String.format("%s_%s_%s.task", dateStr, safeTitle, task.getId());
+    }
+
+    File getSegmentFile(YearMonth yearMonth) {
+        // Se llama en cada escritura: evita formatear la ruta cada vez
+        return segmentFiles.computeIfAbsent(yearMonth, month -> new File(getMonthYearPath(month), SEGMENT_FILE));
+    }
+
+    private MonthArchive getArchive(YearMonth yearMonth) {
+        return archives.computeIfAbsent(yearMonth, month -> new MonthArchive(new File(getMonthYearPath(month), MonthArchive.FILE_NAME)));
     }
 
     public void saveTask(Task task) {
+        long start = Metrics.start();
         try {
-            LocalDate taskDate = task.getDueDate() != null ? task.getDueDate() : task.getCreationDate();
-            YearMonth yearMonth = YearMonth.from(taskDate);
+            writeTask(task);
+        } finally {
+            Metrics.record(Metrics.Operation.SAVE_TASK, start);
+        }
+    }
 
-            String basePath = getMonthYearPath(yearMonth);
-            String subDir = task.isCompleted() ? DONE_DIR : TODO_DIR;
-            String fullPath = String.format("%s/%s", basePath, subDir);
+    private void writeTask(Task task) {
+        YearMonth yearMonth = getTaskMonth(task);
+        Lock lock = lockMonth(yearMonth);
+        try {
+            countMove(index.get(task.getId()), task);
+            if (storageMode == StorageMode.SEGMENT) {
+                appendPut(yearMonth, task);
+            } else {
+                writeTaskFile(yearMonth, task);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private File getTaskFile(YearMonth yearMonth, Task task) {
+        String subDir = task.isCompleted() ? DONE_DIR : TODO_DIR;
+        return new File(String.format("%s/%s", getMonthYearPath(yearMonth), subDir), getTaskFileName(task));
+    }
+
+    private void writeTaskFile(YearMonth yearMonth, Task task) {
+        try {
+            File file = getTaskFile(yearMonth, task);
 
             //Crear directorio si no existen
-            File directory = new File(fullPath);
+            File directory = file.getParentFile();
             if (!directory.exists()) {
                 directory.mkdirs();
             }
 
-            //Guardar la tarea
-            String filePath = String.format("%s/%s", fullPath, getTaskFileName(task));
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath))) {
-                oos.writeObject(task);
+            //Guardar la tarea en un temporal y reemplazar de forma atomica: nunca queda un archivo a medias
+            File temp = new File(directory, file.getName() + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(temp)) {
+                fos.write(TaskCodec.encodeInline(task));
+                fos.getFD().sync();
             }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index.put(task.getId(), new TaskLocation(yearMonth, task.isCompleted(), file, -1, 0));
 
         } catch (IOException e) {
-            e.printStackTrace();
+            Metrics.error(e);
         }
     }
 
     public void updateTaskStatus(Task task) {
-        // Primero elimiar la tarea de su ubicacion actual
-        deleteTask(task);
-        // Luego guardarla en la nueva ubicacion segun su estado
-        saveTask(task);
+        long start = Metrics.start();
+        try {
+            rewriteTask(task);
+        } finally {
+            Metrics.record(Metrics.Operation.UPDATE_TASK_STATUS, start);
+        }
+    }
+
+    private void rewriteTask(Task task) {
+        YearMonth yearMonth = getTaskMonth(task);
+        // Se bloquean el mes nuevo y el anterior; si la tarea se movio mientras tanto se reintenta
+        while (true) {
+            TaskLocation previous = index.get(task.getId());
+            YearMonth previousMonth = previous != null ? previous.month : yearMonth;
+            Lock[] locks = lockMonths(yearMonth, previousMonth);
+            try {
+                if (index.get(task.getId()) != previous) continue;
+
+                if (storageMode == StorageMode.SEGMENT) {
+                    // El nuevo registro reemplaza al anterior al reproducir el segmento
+                    if (previous != null) {
+                        countMove(previous, task);
+                    } else {
+                        // No se sabe donde estaba: se vuelve a contar el mes cuando haga falta
+                        markMonthStale(yearMonth);
+                    }
+                    appendPut(yearMonth, task);
+                    // Si cambio de mes, el registro viejo queda en otro segmento
+                    if (previous != null && !previous.month.equals(yearMonth)) {
+                        appendDelete(previous.month, task, previous);
+                    }
+                    return;
+                }
+
+                replaceTaskFile(yearMonth, task, previous);
+                return;
+            } finally {
+                unlock(locks);
+            }
+        }
+    }
+
+    // Primero se guarda la tarea en su nueva ubicacion y despues se borra la anterior.
+    // El reemplazo se anota en el diario para terminarlo si se corta entre los dos pasos.
+    private void replaceTaskFile(YearMonth yearMonth, Task task, TaskLocation previous) {
+        File oldFile = previous != null ? previous.file : findLegacyTaskFile(yearMonth, task);
+        File newFile = getTaskFile(yearMonth, task);
+        boolean replacing = oldFile != null && !oldFile.equals(newFile);
+        if (previous == null) {
+            markMonthStale(yearMonth);
+        }
+
+        synchronized (journal) {
+            if (replacing) {
+                try {
+                    journal.appendNow(journal.replaceFile(relativePath(oldFile), relativePath(newFile)));
+                } catch (IOException e) {
+                    Metrics.error(e);
+                }
+            }
+            writeTask(task);
+            if (replacing && newFile.exists()) {
+                oldFile.delete();
+            }
+        }
+        journal.checkpointIfFull();
+    }
+
+    private String relativePath(File file) {
+        return baseDirectory.toPath().relativize(file.toPath()).toString();
     }
 
     public void deleteTask(Task task) {
+        long start = Metrics.start();
         try {
-            LocalDate taskDate = task.getDueDate() != null ? task.getDueDate() : task.getCreationDate();
-            YearMonth yearMonth = YearMonth.from(taskDate);
+            removeTask(task);
+        } finally {
+            Metrics.record(Metrics.Operation.DELETE_TASK, start);
+        }
+    }
+
+    private void removeTask(Task task) {
+        while (true) {
+            TaskLocation location = index.get(task.getId());
+            Lock lock = lockMonth(location != null ? location.month : getTaskMonth(task));
+            try {
+                // La tarea se movio de mes mientras se esperaba el lock
+                if (index.get(task.getId()) != location) continue;
+                removeTask(task, location);
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void removeTask(Task task, TaskLocation location) {
+        index.remove(task.getId());
+        if (location != null) {
+            manifest.adjust(location.month, location.completed, -1);
+            scheduleManifestSave();
+        } else {
+            markMonthStale(getTaskMonth(task));
+        }
+
+        if (storageMode == StorageMode.SEGMENT) {
+            YearMonth yearMonth = location != null ? location.month : getTaskMonth(task);
+            appendDelete(yearMonth, task, location);
+            return;
+        }
+
+        if (location != null) {
+            location.file.delete();
+            return;
+        }
+
+        File file = findLegacyTaskFile(getTaskMonth(task), task);
+        if (file != null) {
+            file.delete();
+        }
+    }
 
+    private File findLegacyTaskFile(YearMonth yearMonth, Task task) {
+        try {
             String basePath = getMonthYearPath(yearMonth);
-            String subDir = task.isCompleted() ? DONE_DIR : TODO_DIR;
-            String fullPath = String.format("$s/%s", basePath, subDir);
+            // La tarea puede haber cambiado de estado antes de llamar a este metodo
+            for (String subDir : new String[]{TODO_DIR, DONE_DIR}) {
+                String fullPath = String.format("%s/%s", basePath, subDir);
+                File file = findLegacyTaskFile(new File(fullPath), task);
+                if (file != null) {
+                    return file;
+                }
+            }
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+        return null;
+    }
 
-            File directory = new File(fullPath);
-            if (directory.exists()) {
-                File[] files = directory.listFiles((dir, name) -> name.endsWith(".task"));
-                if (files != null) {
-                    for (File file : files) {
-                        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                            Task savedTask = (Task) ois.readObject();
-                            if (savedTask.getTitle().equals(task.getTitle()) && savedTask.getCreationDate().equals(task.getCreationDate())) {
-                                file.delete();
-                                break;
-                            }
-                        } catch (ClassNotFoundException e) {
-                            e.printStackTrace();
-                        }
+    private File findLegacyTaskFile(File directory, Task task) throws IOException {
+        if (!directory.exists()) return null;
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".task"));
+        if (files == null) return null;
+
+        for (File file : files) {
+            Task savedTask = readTaskFile(file);
+            if (savedTask.getId().equals(task.getId())) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    // Todas las tareas del mes (pendientes y completadas) con una sola lectura
+    public List<Task> loadTasksForMonth(YearMonth yearMonth) {
+        long start = Metrics.start();
+        try {
+            return readMonth(yearMonth);
+        } finally {
+            Metrics.record(Metrics.Operation.LOAD_MONTH, start);
+        }
+    }
+
+    private List<Task> readMonth(YearMonth yearMonth) {
+        Lock lock = monthLock(yearMonth).readLock();
+        lock.lock();
+        try {
+            List<Task> tasks;
+            if (storageMode == StorageMode.SEGMENT) {
+                tasks = new ArrayList<>(readSegment(yearMonth).values());
+            } else {
+                tasks = loadLegacyTasks(yearMonth, false);
+                tasks.addAll(loadLegacyTasks(yearMonth, true));
+            }
+            countMonth(yearMonth, tasks);
+            return tasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Task> loadTasksForMonth(YearMonth yearMonth, boolean completed) {
+        long start = Metrics.start();
+        try {
+            return readMonth(yearMonth, completed);
+        } finally {
+            Metrics.record(Metrics.Operation.LOAD_MONTH, start);
+        }
+    }
+
+    private List<Task> readMonth(YearMonth yearMonth, boolean completed) {
+        Lock lock = monthLock(yearMonth).readLock();
+        lock.lock();
+        try {
+            if (storageMode == StorageMode.SEGMENT) {
+                List<Task> tasks = new ArrayList<>();
+                for (Task task : readSegment(yearMonth).values()) {
+                    if (task.isCompleted() == completed) {
+                        tasks.add(task);
                     }
                 }
+                return tasks;
+            }
+            return loadLegacyTasks(yearMonth, completed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Consultas sobre varios meses ---
+
+    public int getLoadParallelism() {
+        return loadParallelism;
+    }
+
+    public synchronized void setLoadParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism debe ser al menos 1");
+        }
+        ForkJoinPool previous = loadPool;
+        loadParallelism = parallelism;
+        loadPool = null;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    private ForkJoinPool loadPool() {
+        ForkJoinPool pool = loadPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (loadPool == null) {
+                    loadPool = new ForkJoinPool(loadParallelism);
+                }
+                pool = loadPool;
+            }
+        }
+        return pool;
+    }
+
+    // Carga varios meses en paralelo; el mapa conserva el orden de months
+    public Map<YearMonth, List<Task>> loadTasksForMonths(List<YearMonth> months) {
+        ForkJoinPool pool = loadPool();
+        List<ForkJoinTask<List<Task>>> loads = new ArrayList<>(months.size());
+        for (YearMonth month : months) {
+            loads.add(pool.submit(() -> loadTasksForMonth(month)));
+        }
+
+        Map<YearMonth, List<Task>> result = new LinkedHashMap<>();
+        for (int i = 0; i < months.size(); i++) {
+            result.put(months.get(i), loads.get(i).join());
+        }
+        return result;
+    }
+
+    // Tareas con vencimiento entre from y to (inclusivas), ordenadas por fecha de vencimiento
+    public List<Task> loadTasksDueBetween(LocalDate from, LocalDate to) {
+        long start = Metrics.start();
+        try {
+            return selectDue(loadTasksForMonths(monthsBetween(from, to)).values(), from, to, false);
+        } finally {
+            Metrics.record(Metrics.Operation.LOAD_RANGE, start);
+        }
+    }
+
+    // Tareas pendientes con vencimiento anterior a today, de todos los meses
+    public List<Task> loadOverdueTasks(LocalDate today) {
+        long start = Metrics.start();
+        try {
+            return selectDue(loadTasksForMonths(monthsUntil(getAvailableMonths(), today)).values(),
+                    LocalDate.MIN, today.minusDays(1), true);
+        } finally {
+            Metrics.record(Metrics.Operation.LOAD_RANGE, start);
+        }
+    }
+
+    static List<YearMonth> monthsBetween(LocalDate from, LocalDate to) {
+        List<YearMonth> months = new ArrayList<>();
+        YearMonth last = YearMonth.from(to);
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    // Meses disponibles hasta el de today inclusive, en orden
+    static List<YearMonth> monthsUntil(List<YearMonth> available, LocalDate today) {
+        YearMonth last = YearMonth.from(today);
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month : available) {
+            if (!month.isAfter(last)) {
+                months.add(month);
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    // Las tareas con vencimiento estan guardadas en el mes de vencimiento, asi que basta
+    // ordenar cada mes y concatenarlos en orden para obtener el resultado mezclado
+    static List<Task> selectDue(Iterable<List<Task>> months, LocalDate from, LocalDate to, boolean pendingOnly) {
+        List<Task> result = new ArrayList<>();
+        // Se compara en dias, sin crear un LocalDate por tarea
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        for (List<Task> monthTasks : months) {
+            List<Task> selected = new ArrayList<>();
+            for (Task task : monthTasks) {
+                int dueDay = task.getDueDay();
+                if (dueDay == Task.NO_DATE || dueDay < fromDay || dueDay > toDay) continue;
+                if (pendingOnly && task.isCompleted()) continue;
+                selected.add(task);
             }
+            selected.sort(DUE_DATE_ORDER);
+            result.addAll(selected);
+        }
+        return result;
+    }
+
+    // --- Importacion y exportacion masivas ---
+
+    // Anexa una tarea importada por el camino de escritura en lotes, sin guardarla en el indice en memoria.
+    // El mes queda pendiente de recontar porque la tarea podia existir ya.
+    public void importTask(Task task) {
+        YearMonth yearMonth = getTaskMonth(task);
+        if (storageMode != StorageMode.SEGMENT) {
+            writeTask(task);
+            markMonthStale(yearMonth);
+            return;
+        }
+        Lock lock = lockMonth(yearMonth);
+        try {
+            appendRecord(yearMonth, RECORD_PUT, encodeForSegment(yearMonth, task));
         } catch (IOException e) {
-            e.printStackTrace();
+            Metrics.error(e);
+        } finally {
+            lock.unlock();
         }
+        markMonthStale(yearMonth);
     }
 
-    public List<Task> loadTasksForMonth(YearMonth yearMonth, boolean completed) {
+    // Recorre las tareas vivas del mes en orden de escritura sin cargar el mes completo en memoria:
+    // una primera pasada solo lee los IDs y la segunda decodifica los registros vigentes.
+    public void forEachTask(YearMonth yearMonth, Consumer<Task> action) throws IOException {
+        if (storageMode != StorageMode.SEGMENT) {
+            for (boolean completed : new boolean[]{false, true}) {
+                File directory = new File(getMonthYearPath(yearMonth), completed ? DONE_DIR : TODO_DIR);
+                File[] files = directory.listFiles((dir, name) -> name.endsWith(".task"));
+                if (files == null) continue;
+                for (File file : files) {
+                    action.accept(readTaskFile(file));
+                }
+            }
+            return;
+        }
+
+        if (getArchive(yearMonth).exists()) {
+            // Los meses archivados son de solo lectura y se leen completos
+            for (Task task : loadTasksForMonth(yearMonth)) {
+                action.accept(task);
+            }
+            return;
+        }
+
+        File segment = getSegmentFile(yearMonth);
+        flushPendingWrites();
+        if (!segment.exists()) return;
+
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) return;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Metrics.count(Metrics.Counter.FILES_SCANNED, 1);
+            Metrics.count(Metrics.Counter.BYTES_READ, size);
+
+            Map<UUID, Integer> liveOffsets = new HashMap<>();
+            while (buffer.remaining() >= 4) {
+                int offset = buffer.position();
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) break;
+
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                byte type = record.get();
+                if (type == RECORD_PUT) {
+                    UUID id = TaskCodec.peekId(record);
+                    if (id == null) {
+                        id = TaskCodec.decode(record, descriptions).getId();
+                    }
+                    liveOffsets.put(id, offset);
+                } else if (type == RECORD_DELETE) {
+                    liveOffsets.remove(new UUID(record.getLong(), record.getLong()));
+                } else if (type == RECORD_DELETE_KEY) {
+                    liveOffsets.remove(readDeleteKey(record));
+                }
+            }
+
+            buffer.position(0);
+            while (buffer.remaining() >= 4) {
+                int offset = buffer.position();
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) break;
+
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                if (record.get() != RECORD_PUT) continue;
+
+                UUID id = TaskCodec.peekId(record);
+                if (id != null && !Integer.valueOf(offset).equals(liveOffsets.get(id))) continue;
+
+                Task task = TaskCodec.decode(record, descriptions);
+                Metrics.count(Metrics.Counter.TASKS_DECODED, 1);
+                if (Integer.valueOf(offset).equals(liveOffsets.get(task.getId()))) {
+                    action.accept(task);
+                }
+            }
+        }
+    }
+
+    private List<Task> loadLegacyTasks(YearMonth yearMonth, boolean completed) {
         List<Task> tasks = new ArrayList<>();
 
         try {
@@ -116,34 +778,1017 @@ public class FileManager {
                 File[] files = directory.listFiles((dir, name) -> name.endsWith(".task"));
                 if (files != null) {
                     for (File file : files) {
-                        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                            Task task = (Task) ois.readObject();
-                            tasks.add(task);
-                        } catch (ClassNotFoundException e) {
-                            e.printStackTrace();
-                        }
-                         }
+                        Task task = readTaskFile(file);
+                        tasks.add(task);
+                        index.put(task.getId(), new TaskLocation(yearMonth, completed, file, -1, 0));
+                    }
                 }
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            Metrics.error(e);
         }
 
         return tasks;
     }
 
+    private Task readTaskFile(File file) throws IOException {
+        byte[] data = Files.readAllBytes(file.toPath());
+        Metrics.count(Metrics.Counter.FILES_SCANNED, 1);
+        Metrics.count(Metrics.Counter.BYTES_READ, data.length);
+        Metrics.count(Metrics.Counter.TASKS_DECODED, 1);
+        // TaskCodec reconoce tambien los archivos escritos con ObjectOutputStream
+        return TaskCodec.decode(data, descriptions);
+    }
+
+    TaskLocation getTaskLocation(UUID id) {
+        return index.get(id);
+    }
+
+    // --- Locks por mes ---
+
+    private ReadWriteLock monthLock(YearMonth yearMonth) {
+        return monthLocks[stripe(yearMonth)];
+    }
+
+    private static int stripe(YearMonth yearMonth) {
+        return Math.floorMod(yearMonth.getYear() * 12 + yearMonth.getMonthValue(), MONTH_LOCK_STRIPES);
+    }
+
+    private Lock lockMonth(YearMonth yearMonth) {
+        Lock lock = monthLock(yearMonth).writeLock();
+        lock.lock();
+        return lock;
+    }
+
+    // Dos meses se bloquean siempre en orden de franja para no interbloquearse
+    private Lock[] lockMonths(YearMonth first, YearMonth second) {
+        int a = stripe(first);
+        int b = stripe(second);
+        if (a == b) {
+            return new Lock[]{lockMonth(first)};
+        }
+        YearMonth low = a < b ? first : second;
+        YearMonth high = a < b ? second : first;
+        return new Lock[]{lockMonth(low), lockMonth(high)};
+    }
+
+    private static void unlock(Lock[] locks) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    // --- Segmento mensual: registros [longitud int][tipo byte][datos] ---
+
+    private void appendPut(YearMonth yearMonth, Task task) {
+        try {
+            byte[] payload = encodeForSegment(yearMonth, task);
+            File segment = getSegmentFile(yearMonth);
+            long offset = appendRecord(yearMonth, RECORD_PUT, payload);
+            TaskLocation previous = index.put(task.getId(),
+                    new TaskLocation(yearMonth, task.isCompleted(), segment, offset, payload.length + 5));
+            if (previous != null && segment.equals(previous.file)) {
+                // El registro anterior queda muerto
+                addDeadBytes(yearMonth, segment, previous.length);
+            }
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+
+    // Las descripciones largas van al archivo de descripciones del mes y el registro solo lleva su comienzo
+    private byte[] encodeForSegment(YearMonth yearMonth, Task task) {
+        DescriptionStore.Reference reference = task.getDescriptionReference();
+        if (reference != null && reference.month.equals(yearMonth)) {
+            // Ya esta guardada en este mes (por ejemplo al cambiar solo el estado)
+            return TaskCodec.encode(task, reference);
+        }
+        String description = task.getDescription();
+        if (DescriptionStore.fitsInline(description) || !yearMonth.equals(getTaskMonth(task))) {
+            return TaskCodec.encodeInline(task);
+        }
+
+        byte[] body = description.getBytes(StandardCharsets.UTF_8);
+        File blob = descriptions.getBlobFile(yearMonth);
+        long offset = writeBatcher.submit(blob, body, journal.getFile(),
+                position -> journal.blobWrite(yearMonth, position, body));
+        reference = descriptions.reference(yearMonth, offset, body.length, DescriptionStore.preview(description));
+        descriptions.written(reference, description);
+        DescriptionStore.Reference written = reference;
+        writeBatcher.whenDurable().thenRun(() -> descriptions.durable(written));
+        task.setDescriptionReference(reference);
+        return TaskCodec.encode(task, reference);
+    }
+
+    // previous es donde estaba la tarea, si se conoce: su registro queda muerto junto con el borrado
+    private void appendDelete(YearMonth yearMonth, Task task, TaskLocation previous) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream dos = new DataOutputStream(buffer)) {
+                dos.writeLong(task.getId().getMostSignificantBits());
+                dos.writeLong(task.getId().getLeastSignificantBits());
+            }
+            appendRecord(yearMonth, RECORD_DELETE, buffer.toByteArray());
+            File segment = getSegmentFile(yearMonth);
+            int previousLength = previous != null && segment.equals(previous.file) ? previous.length : 0;
+            addDeadBytes(yearMonth, segment, previousLength + buffer.size() + 5);
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+
+    private long appendRecord(YearMonth yearMonth, byte type, byte[] payload) throws IOException {
+        // El directorio del mes lo crea WriteBatcher al escribir el lote
+        File segment = getSegmentFile(yearMonth);
+
+        // Un solo write por registro para no dejar cabeceras sueltas
+        byte[] bytes = ByteBuffer.allocate(payload.length + 5)
+                .putInt(payload.length + 1)
+                .put(type)
+                .put(payload)
+                .array();
+
+        // La posicion se reserva al encolar, asi el indice es valido antes de que el lote llegue a disco.
+        // El diario anota que bytes van en esa posicion para reparar el segmento si el lote se corta.
+        long offset = writeBatcher.submit(segment, bytes, journal.getFile(),
+                position -> journal.segmentWrite(yearMonth, position, bytes));
+        // Si alguien escribio en el medio, el hueco se lee al aplicar los cambios externos
+        segmentEnds.computeIfPresent(segment, (file, end) -> end == offset ? offset + bytes.length : end);
+        journal.checkpointIfFull();
+        return offset;
+    }
+
+    // Fuerza la escritura de lo encolado; se completa cuando es durable segun la politica configurada
+    public CompletableFuture<Void> flush() {
+        return writeBatcher.flush().thenRun(() -> {
+            saveManifest();
+            journal.checkpoint();
+        });
+    }
+
+    // Se completa cuando lo encolado hasta ahora es durable, sin adelantar el lote
+    public CompletableFuture<Void> awaitDurable() {
+        return writeBatcher.whenDurable();
+    }
+
+    private void flushPendingWrites() {
+        if (writeBatcher.hasPending()) {
+            writeBatcher.flush().join();
+        }
+    }
+
+    private Map<UUID, Task> readSegment(YearMonth yearMonth) {
+        Map<UUID, Task> live = new LinkedHashMap<>();
+        Map<UUID, RecordSpan> spans = new HashMap<>();
+        File segment = getSegmentFile(yearMonth);
+        // Leer tambien lo que todavia esta en el lote de escritura
+        flushPendingWrites();
+        // En un mes archivado el segmento solo tiene los cambios posteriores al archivo
+        readArchive(yearMonth, live);
+        if (!segment.exists()) {
+            segmentEnds.put(segment, 0L);
+            return live;
+        }
+
+        Metrics.count(Metrics.Counter.FILES_SCANNED, 1);
+        Metrics.count(Metrics.Counter.BYTES_READ, segment.length());
+        try {
+            long end = readMode == ReadMode.MAPPED
+                    ? readMappedSegment(segment, live, spans)
+                    : readStreamSegment(segment, live, spans);
+            segmentEnds.put(segment, end);
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+
+        MonthArchive archive = getArchive(yearMonth);
+        for (Task task : live.values()) {
+            RecordSpan span = spans.get(task.getId());
+            index.put(task.getId(), span != null
+                    ? new TaskLocation(yearMonth, task.isCompleted(), segment, span.offset, span.length)
+                    : new TaskLocation(yearMonth, task.isCompleted(), archive.getFile(), -1, 0));
+        }
+        scheduleCompactionIfNeeded(yearMonth, segment);
+        return live;
+    }
+
+    private void readArchive(YearMonth yearMonth, Map<UUID, Task> live) {
+        MonthArchive archive = getArchive(yearMonth);
+        if (!archive.exists()) return;
+        try {
+            for (Task task : archive.readAll(descriptions)) {
+                live.put(task.getId(), task);
+                index.put(task.getId(), new TaskLocation(yearMonth, task.isCompleted(), archive.getFile(), -1, 0));
+            }
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+
+    // Devuelven la posicion siguiente al ultimo registro completo
+    private long readStreamSegment(File segment, Map<UUID, Task> live, Map<UUID, RecordSpan> spans) throws IOException {
+        long remaining = segment.length();
+        long offset = 0;
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            while (remaining >= 4) {
+                int length = dis.readInt();
+                remaining -= 4;
+                // Registro incompleto al final (escritura interrumpida): se ignora
+                if (length <= 0 || length > remaining) break;
+
+                byte[] record = new byte[length];
+                dis.readFully(record);
+                remaining -= length;
+                applyRecord(live, spans, ByteBuffer.wrap(record), offset);
+                offset += 4 + length;
+            }
+        }
+        return offset;
+    }
+
+    private long readMappedSegment(File segment, Map<UUID, Task> live, Map<UUID, RecordSpan> spans) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) return 0;
+
+            // Los registros se decodifican directamente sobre el buffer mapeado, sin copias intermedias
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (buffer.remaining() >= 4) {
+                int offset = buffer.position();
+                int length = buffer.getInt();
+                // Registro incompleto al final (escritura interrumpida): se ignora
+                if (length <= 0 || length > buffer.remaining()) break;
+
+                applyRecord(live, spans, buffer.slice(buffer.position(), length), offset);
+                buffer.position(buffer.position() + length);
+            }
+
+            // Bytes muertos exactos: todo lo que no es un registro vigente (en modo STREAM solo se estiman al escribir)
+            long liveBytes = 0;
+            for (RecordSpan span : spans.values()) {
+                liveBytes += span.length;
+            }
+            deadBytes.put(segment, buffer.position() - liveBytes);
+            return buffer.position();
+        }
+    }
+
+    private void applyRecord(Map<UUID, Task> live, Map<UUID, RecordSpan> spans, ByteBuffer record, long offset) throws IOException {
+        int length = 4 + record.remaining();
+        byte type = record.get();
+        if (type == RECORD_PUT) {
+            Task task = TaskCodec.decode(record, descriptions);
+            Metrics.count(Metrics.Counter.TASKS_DECODED, 1);
+            // Reinsertar para conservar el orden de la ultima escritura
+            live.remove(task.getId());
+            live.put(task.getId(), task);
+            spans.put(task.getId(), new RecordSpan(offset, length));
+        } else if (type == RECORD_DELETE) {
+            UUID id = new UUID(record.getLong(), record.getLong());
+            live.remove(id);
+            spans.remove(id);
+        } else if (type == RECORD_DELETE_KEY) {
+            UUID id = readDeleteKey(record);
+            live.remove(id);
+            spans.remove(id);
+        }
+    }
+
+    // Borrados escritos antes de los IDs: clave "fechaCreacion|titulo"
+    private static UUID readDeleteKey(ByteBuffer record) throws IOException {
+        byte[] data = new byte[record.remaining()];
+        record.get(data);
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data))) {
+            String key = dis.readUTF();
+            int separator = key.indexOf('|');
+            return Task.legacyId(LocalDate.parse(key.substring(0, separator)), key.substring(separator + 1));
+        }
+    }
+
+    // --- Recuperacion desde el diario ---
+
+    // Devuelve los meses que hubo que reparar
+    private Set<YearMonth> recoverFromJournal() {
+        Set<YearMonth> repaired = new HashSet<>();
+        if (!journal.claimRecovery()) return repaired;
+        try {
+            journal.replay(new Journal.Target() {
+                @Override
+                public void segmentWrite(YearMonth month, long offset, int length, int checksum) throws IOException {
+                    if (replayWrite(getSegmentFile(month), offset, length, checksum)) {
+                        repaired.add(month);
+                    }
+                }
+
+                @Override
+                public void blobWrite(YearMonth month, long offset, int length, int checksum) throws IOException {
+                    replayWrite(descriptions.getBlobFile(month), offset, length, checksum);
+                }
+
+                @Override
+                public void replaceFile(String from, String to) {
+                    // El reemplazo se completa solo si la tarea nueva llego a guardarse
+                    File oldFile = new File(baseDirectory, from);
+                    if (new File(baseDirectory, to).exists() && !from.equals(to) && oldFile.delete()) {
+                        YearMonth month = monthOf(oldFile.toPath());
+                        if (month != null) {
+                            repaired.add(month);
+                        }
+                    }
+                }
+            });
+            journal.discard();
+        } catch (IOException e) {
+            // Se conserva el diario para intentarlo en el proximo arranque
+            Metrics.error(e);
+        }
+        return repaired;
+    }
+
+    // Revisa una escritura anotada. Si sus bytes estan completos y coinciden con el checksum no se toca
+    // nada; si no, el archivo se corta donde empezaba (lo que seguia del mismo lote tampoco se confirmo).
+    // Un archivo que ya no existe (mes archivado) no se vuelve a crear. Devuelve true si corto el archivo.
+    boolean replayWrite(File file, long offset, int length, int checksum) throws IOException {
+        if (!file.exists()) return false;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size <= offset) return false;
+            if (size >= offset + length) {
+                ByteBuffer existing = ByteBuffer.allocate(length);
+                while (existing.hasRemaining()) {
+                    if (channel.read(existing, offset + existing.position()) < 0) break;
+                }
+                if (!existing.hasRemaining() && Journal.checksum(existing.array(), 0, length) == checksum) return false;
+            }
+            channel.truncate(offset);
+            channel.force(false);
+        }
+        writeBatcher.forget(file);
+        return true;
+    }
+
+    // --- Migracion del formato antiguo (un archivo por tarea) ---
+
+    private void migrateLegacyData() {
+        for (YearMonth yearMonth : scanMonthDirectories()) {
+            for (boolean completed : new boolean[]{false, true}) {
+                File directory = new File(getMonthYearPath(yearMonth), completed ? DONE_DIR : TODO_DIR);
+                if (!directory.exists()) continue;
+
+                File[] files = directory.listFiles((dir, name) -> name.endsWith(".task"));
+                if (files != null) {
+                    List<File> migrated = new ArrayList<>();
+                    for (File file : files) {
+                        try {
+                            appendPut(yearMonth, readTaskFile(file));
+                            migrated.add(file);
+                        } catch (IOException e) {
+                            // Conservar el archivo si no se pudo migrar
+                            Metrics.error(e);
+                        }
+                    }
+                    // Los archivos viejos se borran solo cuando el segmento ya es durable
+                    writeBatcher.flush().join();
+                    for (File file : migrated) {
+                        file.delete();
+                    }
+                }
+                // Solo se elimina si quedo vacio
+                directory.delete();
+            }
+        }
+    }
+
+    // --- Compactacion de segmentos ---
+
+    long getDeadBytes(YearMonth yearMonth) {
+        return deadBytes.getOrDefault(getSegmentFile(yearMonth), 0L);
+    }
+
+    private void addDeadBytes(YearMonth yearMonth, File segment, long bytes) {
+        deadBytes.merge(segment, bytes, Long::sum);
+        scheduleCompactionIfNeeded(yearMonth, segment);
+    }
+
+    // Encola la compactacion del mes si la estimacion de datos muertos pasa el umbral
+    private void scheduleCompactionIfNeeded(YearMonth yearMonth, File segment) {
+        long dead = deadBytes.getOrDefault(segment, 0L);
+        if (dead < COMPACTION_MIN_DEAD_BYTES) return;
+        Long end = segmentEnds.get(segment);
+        if (end != null && dead < end * COMPACTION_DEAD_RATIO) return;
+
+        if (compactionScheduled.add(yearMonth)) {
+            COMPACTOR.execute(() -> {
+                compactionScheduled.remove(yearMonth);
+                if (closed) return;
+                compactMonth(yearMonth, false);
+            });
+        }
+    }
+
+    // Reescribe el segmento del mes solo con los registros vigentes, ordenados por vencimiento.
+    // Devuelve false si no habia suficientes datos muertos (y force es false) o no se pudo.
+    public boolean compactMonth(YearMonth yearMonth, boolean force) {
+        if (storageMode != StorageMode.SEGMENT) return false;
+        // Los borrados de tareas archivadas tienen que quedar: se vuelve a archivar el mes completo
+        if (getArchive(yearMonth).exists()) {
+            return archiveMonth(yearMonth);
+        }
+        long start = Metrics.start();
+        try {
+            return rewriteSegment(yearMonth, force);
+        } catch (IOException e) {
+            Metrics.error(e);
+            return false;
+        } finally {
+            Metrics.record(Metrics.Operation.COMPACT_MONTH, start);
+        }
+    }
+
+    private boolean rewriteSegment(YearMonth yearMonth, boolean force) throws IOException {
+        File segment = getSegmentFile(yearMonth);
+        File temp = new File(segment.getPath() + COMPACTION_SUFFIX);
+        writeBatcher.whenDurable().join();
+        if (!segment.exists()) return false;
+
+        // Primera fase sin locks: lectores y escritores siguen trabajando sobre el segmento actual
+        long scannedEnd;
+        Map<UUID, Long> newOffsets = new HashMap<>();
+        long compactedSize = 0;
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) return false;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            RateLimiter limiter = new RateLimiter();
+            limiter.acquire(size);
+
+            // Ultimo registro de cada tarea viva
+            Map<UUID, Integer> liveOffsets = new LinkedHashMap<>();
+            while (buffer.remaining() >= 4) {
+                int offset = buffer.position();
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) break;
+
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                byte type = record.get();
+                if (type == RECORD_PUT) {
+                    UUID id = TaskCodec.peekId(record);
+                    if (id == null) {
+                        id = TaskCodec.decode(record, descriptions).getId();
+                    }
+                    liveOffsets.put(id, offset);
+                } else if (type == RECORD_DELETE) {
+                    liveOffsets.remove(new UUID(record.getLong(), record.getLong()));
+                } else if (type == RECORD_DELETE_KEY) {
+                    liveOffsets.remove(readDeleteKey(record));
+                }
+            }
+            scannedEnd = buffer.position();
+
+            long liveBytes = 0;
+            for (int offset : liveOffsets.values()) {
+                liveBytes += 4 + buffer.getInt(offset);
+            }
+            deadBytes.put(segment, scannedEnd - liveBytes);
+            if (!force && (scannedEnd - liveBytes < COMPACTION_MIN_DEAD_BYTES
+                    || scannedEnd - liveBytes < scannedEnd * COMPACTION_DEAD_RATIO)) {
+                return false;
+            }
+
+            // Orden de vencimiento: los meses se leen y se consultan por fecha
+            List<Task> tasks = new ArrayList<>(liveOffsets.size());
+            Map<UUID, Integer> recordOffsets = new HashMap<>(liveOffsets.size() * 2);
+            for (Map.Entry<UUID, Integer> entry : liveOffsets.entrySet()) {
+                int offset = entry.getValue();
+                ByteBuffer record = buffer.slice(offset + 5, buffer.getInt(offset) - 1);
+                tasks.add(TaskCodec.decode(record, descriptions));
+                recordOffsets.put(entry.getKey(), offset);
+            }
+            tasks.sort(COMPACTION_ORDER);
+
+            // Los registros se copian tal cual, sin volver a codificarlos
+            try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer chunk = ByteBuffer.allocate(COMPACTION_CHUNK);
+                for (Task task : tasks) {
+                    int offset = recordOffsets.get(task.getId());
+                    ByteBuffer frame = buffer.slice(offset, 4 + buffer.getInt(offset));
+                    newOffsets.put(task.getId(), compactedSize);
+                    compactedSize += frame.remaining();
+                    if (frame.remaining() > chunk.remaining()) {
+                        writeChunk(out, chunk, limiter);
+                    }
+                    if (frame.remaining() > chunk.capacity()) {
+                        limiter.acquire(frame.remaining());
+                        while (frame.hasRemaining()) out.write(frame);
+                    } else {
+                        chunk.put(frame);
+                    }
+                }
+                writeChunk(out, chunk, limiter);
+                out.force(false);
+            }
+        }
+
+        // Segunda fase con el lock del mes: se copia lo escrito mientras tanto y se reemplaza el archivo.
+        // Los lectores que ya tenian el segmento viejo abierto lo siguen leyendo completo.
+        Lock lock = lockMonth(yearMonth);
+        try {
+            // Las posiciones anotadas en el diario dejan de valer al reemplazar el segmento: el diario
+            // se retira antes del reemplazo, asi un corte despues no las reaplica sobre el segmento nuevo
+            try {
+                journal.retire();
+            } catch (IOException e) {
+                temp.delete();
+                throw e;
+            }
+            long currentEnd = segment.length();
+            if (currentEnd < scannedEnd) {
+                // Reemplazado por fuera mientras tanto
+                temp.delete();
+                return false;
+            }
+            try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 FileChannel in = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+                long position = scannedEnd;
+                while (position < currentEnd) {
+                    position += in.transferTo(position, currentEnd - position, out);
+                }
+                out.force(false);
+            }
+            Files.move(temp.toPath(), segment.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Las posiciones posteriores a la fase uno solo se desplazan
+            long shift = compactedSize - scannedEnd;
+            for (Map.Entry<UUID, TaskLocation> entry : index.entrySet()) {
+                TaskLocation location = entry.getValue();
+                if (!segment.equals(location.file)) continue;
+                long offset = location.offset >= scannedEnd ? location.offset + shift : newOffsets.getOrDefault(entry.getKey(), -1L);
+                entry.setValue(new TaskLocation(location.month, location.completed, location.file, offset, location.length));
+            }
+            segmentEnds.computeIfPresent(segment, (file, end) -> end >= scannedEnd ? end + shift : null);
+            deadBytes.put(segment, 0L);
+            // WriteBatcher calcula las proximas posiciones con el tamaño nuevo
+            writeBatcher.forget(segment);
+            Metrics.count(Metrics.Counter.BYTES_RECLAIMED, -shift);
+        } finally {
+            lock.unlock();
+        }
+        manifest.setLastModified(yearMonth, monthStamp(yearMonth));
+        scheduleManifestSave();
+        return true;
+    }
+
+    private static void writeChunk(FileChannel out, ByteBuffer chunk, RateLimiter limiter) throws IOException {
+        chunk.flip();
+        limiter.acquire(chunk.remaining());
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    // Limita el ritmo de E/S de la compactacion para no competir con la aplicacion
+    private static final class RateLimiter {
+        private final long startNanos = System.nanoTime();
+        private long bytes;
+
+        void acquire(long count) {
+            bytes += count;
+            long dueNanos = bytes * 1_000_000_000L / COMPACTION_BYTES_PER_SECOND;
+            long aheadNanos = dueNanos - (System.nanoTime() - startNanos);
+            if (aheadNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(aheadNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // --- Archivo comprimido de meses viejos ---
+
+    // Archiva los meses con mas antiguedad que la configurada que todavia tienen segmento
+    public int archiveOldMonths() {
+        if (ARCHIVE_AGE_MONTHS <= 0) return 0;
+        return archiveMonthsBefore(YearMonth.now().minusMonths(ARCHIVE_AGE_MONTHS));
+    }
+
+    public int archiveMonthsBefore(YearMonth limit) {
+        if (storageMode != StorageMode.SEGMENT) return 0;
+        int archived = 0;
+        for (YearMonth yearMonth : getAvailableMonths()) {
+            if (yearMonth.isBefore(limit) && getSegmentFile(yearMonth).exists() && archiveMonth(yearMonth)) {
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    // Junta el archivo anterior (si habia) y el segmento en un archivo nuevo y borra el segmento.
+    // Si se corta antes de borrarlo, el segmento se sigue aplicando sobre el archivo con el mismo resultado.
+    public boolean archiveMonth(YearMonth yearMonth) {
+        if (storageMode != StorageMode.SEGMENT) return false;
+        long start = Metrics.start();
+        MonthArchive archive = getArchive(yearMonth);
+        Lock lock = lockMonth(yearMonth);
+        try {
+            File segment = getSegmentFile(yearMonth);
+            if (!segment.exists()) return false;
+            long previousBytes = segment.length() + archive.getFile().length();
+
+            // Aqui un error de lectura cancela el archivado: no se puede reemplazar el archivo con datos parciales
+            Map<UUID, Task> live = new LinkedHashMap<>();
+            if (archive.exists()) {
+                for (Task task : archive.readAll(descriptions)) {
+                    live.put(task.getId(), task);
+                }
+            }
+            flushPendingWrites();
+            if (readMode == ReadMode.MAPPED) {
+                readMappedSegment(segment, live, new HashMap<>());
+            } else {
+                readStreamSegment(segment, live, new HashMap<>());
+            }
+            List<Task> tasks = new ArrayList<>(live.values());
+            tasks.sort(COMPACTION_ORDER);
+            archive.write(tasks);
+
+            // Las posiciones anotadas en el diario dejan de valer al borrar el segmento
+            journal.retire();
+            segment.delete();
+            segmentEnds.remove(segment);
+            deadBytes.remove(segment);
+            writeBatcher.forget(segment);
+            for (Task task : tasks) {
+                index.put(task.getId(), new TaskLocation(yearMonth, task.isCompleted(), archive.getFile(), -1, 0));
+            }
+            Metrics.count(Metrics.Counter.BYTES_RECLAIMED, previousBytes - archive.getFile().length());
+        } catch (IOException e) {
+            Metrics.error(e);
+            return false;
+        } finally {
+            lock.unlock();
+            Metrics.record(Metrics.Operation.ARCHIVE_MONTH, start);
+        }
+        manifest.setLastModified(yearMonth, monthStamp(yearMonth));
+        scheduleManifestSave();
+        return true;
+    }
+
+    // Lee una sola tarea de donde se vio por ultima vez; en un mes archivado solo se descomprime su bloque.
+    // null si ya no esta ahi.
+    Task readTask(UUID id) {
+        TaskLocation location = index.get(id);
+        if (location == null) return null;
+        Lock lock = monthLock(location.month).readLock();
+        lock.lock();
+        try {
+            if (index.get(id) != location) return null;
+            if (location.offset < 0) {
+                MonthArchive archive = getArchive(location.month);
+                if (location.file.equals(archive.getFile())) {
+                    return archive.read(id, descriptions);
+                }
+                return location.file.exists() ? readTaskFile(location.file) : null;
+            }
+
+            flushPendingWrites();
+            try (FileChannel channel = FileChannel.open(location.file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(4);
+                if (channel.read(header, location.offset) < 4) return null;
+                ByteBuffer record = ByteBuffer.allocate(header.flip().getInt());
+                while (record.hasRemaining() && channel.read(record, location.offset + 4 + record.position()) > 0) {
+                    // leer el registro completo
+                }
+                record.flip();
+                if (record.remaining() == 0 || record.get() != RECORD_PUT) return null;
+                Metrics.count(Metrics.Counter.TASKS_DECODED, 1);
+                return TaskCodec.decode(record, descriptions);
+            }
+        } catch (IOException e) {
+            Metrics.error(e);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Cambios hechos por fuera de la aplicacion ---
+
+    // Mes al que pertenece una ruta dentro de data/<año>/<MM_Mes>/..., o null si no esta en un mes
+    YearMonth monthOf(Path path) {
+        Path relative;
+        try {
+            relative = baseDirectory.toPath().toAbsolutePath().normalize().relativize(path.toAbsolutePath().normalize());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (relative.getNameCount() < 2) return null;
+        try {
+            int year = Integer.parseInt(relative.getName(0).toString());
+            int month = Integer.parseInt(relative.getName(1).toString().substring(0, 2));
+            return YearMonth.of(year, month);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Aplica solo los archivos indicados del mes; paths null revisa el mes completo.
+    // En modo SEGMENT se lee la cola del segmento desde donde se dejo y los .task dejados en
+    // to-do/done se incorporan al segmento, como en la migracion. En modo LEGACY se releen
+    // los archivos creados o modificados y los borrados se buscan en el indice.
+    ExternalChanges applyExternalChanges(YearMonth yearMonth, Collection<Path> paths) {
+        ExternalChanges changes = new ExternalChanges();
+        if (storageMode == StorageMode.SEGMENT) {
+            // Cada tarea se escribe con el lock de su propio mes
+            ingestTaskFiles(yearMonth, paths, changes);
+        }
+        Lock lock = lockMonth(yearMonth);
+        try {
+            if (storageMode == StorageMode.SEGMENT) {
+                readSegmentTail(yearMonth, changes);
+            } else {
+                applyLegacyChanges(yearMonth, paths, changes);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!changes.isEmpty()) {
+            markMonthStale(yearMonth);
+        }
+        return changes;
+    }
+
+    private void ingestTaskFiles(YearMonth yearMonth, Collection<Path> paths, ExternalChanges changes) {
+        List<File> ingested = new ArrayList<>();
+        for (File file : taskFiles(yearMonth, paths)) {
+            try {
+                Task task = readTaskFile(file);
+                writeTask(task);
+                changes.changed.add(task);
+                ingested.add(file);
+            } catch (IOException e) {
+                // Archivo a medio copiar: se vuelve a intentar con el siguiente evento
+            }
+        }
+        if (!ingested.isEmpty()) {
+            writeBatcher.flush().join();
+            for (File file : ingested) {
+                file.delete();
+            }
+        }
+    }
+
+    private void readSegmentTail(YearMonth yearMonth, ExternalChanges changes) {
+        File segment = getSegmentFile(yearMonth);
+        // Lo propio ya encolado tiene que estar en disco antes de comparar tamaños
+        writeBatcher.whenDurable().join();
+        Long end = segmentEnds.get(segment);
+        long size = segment.length();
+        if (end == null || size < end) {
+            // Mes nunca leido, o segmento reemplazado o truncado
+            if (end != null || size > 0) {
+                segmentEnds.remove(segment);
+                writeBatcher.forget(segment);
+                changes.reload = true;
+            }
+            return;
+        }
+        if (size == end) return;
+
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - end));
+            while (buffer.hasRemaining() && channel.read(buffer, end + buffer.position()) > 0) {
+                // leer hasta el tamaño visto
+            }
+            buffer.flip();
+            Metrics.count(Metrics.Counter.BYTES_READ, buffer.limit());
+
+            Map<UUID, Task> live = new LinkedHashMap<>();
+            Map<UUID, RecordSpan> spans = new HashMap<>();
+            while (buffer.remaining() >= 4) {
+                long offset = end + buffer.position();
+                int length = buffer.getInt();
+                // Registro todavia incompleto: se lee con el proximo evento
+                if (length <= 0 || length > buffer.remaining()) {
+                    buffer.position(buffer.position() - 4);
+                    break;
+                }
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                byte type = record.get(0);
+                if (type == RECORD_PUT) {
+                    applyRecord(live, spans, record, offset);
+                } else {
+                    UUID id = type == RECORD_DELETE
+                            ? new UUID(record.getLong(1), record.getLong(9))
+                            : readDeleteKey(record.position(1));
+                    live.remove(id);
+                    changes.removed.add(id);
+                    index.remove(id);
+                }
+            }
+            for (Task task : live.values()) {
+                changes.removed.remove(task.getId());
+                changes.changed.add(task);
+                RecordSpan span = spans.get(task.getId());
+                index.put(task.getId(), new TaskLocation(yearMonth, task.isCompleted(), segment, span.offset, span.length));
+            }
+            segmentEnds.put(segment, end + buffer.position());
+            // Las proximas escrituras propias van despues de lo agregado por fuera
+            writeBatcher.forget(segment);
+            writeBatcher.forget(descriptions.getBlobFile(yearMonth));
+        } catch (IOException e) {
+            Metrics.error(e);
+            changes.reload = true;
+        }
+    }
+
+    private void applyLegacyChanges(YearMonth yearMonth, Collection<Path> paths, ExternalChanges changes) {
+        Map<Path, UUID> known = new HashMap<>();
+        for (Map.Entry<UUID, TaskLocation> entry : index.entrySet()) {
+            if (entry.getValue().month.equals(yearMonth)) {
+                known.put(entry.getValue().file.toPath().toAbsolutePath().normalize(), entry.getKey());
+            }
+        }
+
+        Set<Path> candidates = new HashSet<>();
+        if (paths == null) {
+            candidates.addAll(known.keySet());
+            for (File file : taskFiles(yearMonth, null)) {
+                candidates.add(file.toPath().toAbsolutePath().normalize());
+            }
+        } else {
+            for (Path path : paths) {
+                candidates.add(path.toAbsolutePath().normalize());
+            }
+        }
+        for (Path normalized : candidates) {
+            File file = normalized.toFile();
+            if (!file.getName().endsWith(".task")) continue;
+
+            if (file.isFile()) {
+                try {
+                    Task task = readTaskFile(file);
+                    boolean completed = file.getParentFile().getName().equals(DONE_DIR);
+                    index.put(task.getId(), new TaskLocation(yearMonth, completed, file, -1, 0));
+                    changes.changed.add(task);
+                } catch (IOException e) {
+                    // Archivo a medio copiar: se vuelve a intentar con el siguiente evento
+                }
+            } else {
+                UUID id = known.get(normalized);
+                // Si la tarea ya esta en otro archivo (cambio de estado) no se borra
+                if (id != null && index.get(id) != null && index.get(id).file.toPath().toAbsolutePath().normalize().equals(normalized)) {
+                    index.remove(id);
+                    changes.removed.add(id);
+                }
+            }
+        }
+        for (Task task : changes.changed) {
+            changes.removed.remove(task.getId());
+        }
+    }
+
+    // .task de to-do y done: los indicados, o todos si paths es null
+    private List<File> taskFiles(YearMonth yearMonth, Collection<Path> paths) {
+        List<File> files = new ArrayList<>();
+        if (paths == null) {
+            for (String subDir : new String[]{TODO_DIR, DONE_DIR}) {
+                File[] found = new File(getMonthYearPath(yearMonth), subDir).listFiles((dir, name) -> name.endsWith(".task"));
+                if (found != null) {
+                    files.addAll(List.of(found));
+                }
+            }
+            return files;
+        }
+        for (Path path : paths) {
+            File file = path.toFile();
+            if (file.getName().endsWith(".task") && file.isFile()) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    // --- Manifiesto de meses ---
+
+    // Meses con datos, en orden, segun el manifiesto (sin recorrer directorios)
     public List<YearMonth> getAvailableMonths() {
+        long start = Metrics.start();
+        try {
+            return manifest.getMonths();
+        } finally {
+            Metrics.record(Metrics.Operation.AVAILABLE_MONTHS, start);
+        }
+    }
+
+    // Pendientes y completadas de cada mes; solo se leen los meses cuyo conteo no es fiable
+    public List<MonthManifest.MonthSummary> getMonthSummaries() {
+        for (YearMonth yearMonth : manifest.getStaleMonths()) {
+            readMonth(yearMonth);
+        }
+        return manifest.getSummaries();
+    }
+
+    public MonthManifest.MonthSummary getMonthSummary(YearMonth yearMonth) {
+        if (manifest.getStaleMonths().contains(yearMonth)) {
+            readMonth(yearMonth);
+        }
+        return manifest.getSummary(yearMonth);
+    }
+
+    // Compara el manifiesto con los directorios y vuelve a contar los meses modificados por fuera
+    public void validateManifest() {
+        List<YearMonth> onDisk = scanMonthDirectories();
+        for (YearMonth yearMonth : manifest.getMonths()) {
+            if (!onDisk.contains(yearMonth)) {
+                manifest.remove(yearMonth);
+            }
+        }
+        for (YearMonth yearMonth : onDisk) {
+            if (!manifest.contains(yearMonth) || manifest.getSummary(yearMonth).getLastModified() != monthStamp(yearMonth)) {
+                manifest.markStale(yearMonth);
+            }
+        }
+        getMonthSummaries();
+        if (manifest.isDirty()) {
+            saveManifest();
+        }
+    }
+
+    private void countMove(TaskLocation previous, Task task) {
+        if (previous != null) {
+            manifest.adjust(previous.month, previous.completed, -1);
+        }
+        manifest.adjust(getTaskMonth(task), task.isCompleted(), 1);
+        scheduleManifestSave();
+    }
+
+    private void markMonthStale(YearMonth yearMonth) {
+        manifest.markStale(yearMonth);
+        scheduleManifestSave();
+    }
+
+    // Conteo exacto tras leer el mes completo
+    private void countMonth(YearMonth yearMonth, List<Task> tasks) {
+        if (tasks.isEmpty() && !new File(getMonthYearPath(yearMonth)).exists()) {
+            manifest.remove(yearMonth);
+            return;
+        }
+        int completed = 0;
+        for (Task task : tasks) {
+            if (task.isCompleted()) completed++;
+        }
+        manifest.set(yearMonth, tasks.size() - completed, completed, monthStamp(yearMonth));
+    }
+
+    // Fecha de modificacion de los archivos del mes
+    long monthStamp(YearMonth yearMonth) {
+        if (storageMode == StorageMode.SEGMENT) {
+            return Math.max(getSegmentFile(yearMonth).lastModified(), getArchive(yearMonth).getFile().lastModified());
+        }
+        String basePath = getMonthYearPath(yearMonth);
+        return Math.max(new File(basePath, TODO_DIR).lastModified(), new File(basePath, DONE_DIR).lastModified());
+    }
+
+    // Un solo guardado pendiente a la vez, cuando lo encolado ya llego a disco
+    private void scheduleManifestSave() {
+        if (manifestSaveScheduled.compareAndSet(false, true)) {
+            writeBatcher.whenDurable().thenRunAsync(() -> {
+                manifestSaveScheduled.set(false);
+                // Despues de close() el manifiesto ya se guardo y el directorio puede no existir
+                if (!closed) saveManifest();
+            }, MANIFEST_WRITER);
+        }
+    }
+
+    private void saveManifest() {
+        synchronized (manifest) {
+            for (YearMonth yearMonth : manifest.drainTouched()) {
+                manifest.setLastModified(yearMonth, monthStamp(yearMonth));
+            }
+            manifest.save();
+        }
+    }
+
+    List<YearMonth> scanMonthDirectories() {
         List<YearMonth> months = new ArrayList<>();
-        File baseDir = new File(BASE_DIR);
+        File baseDir = baseDirectory;
         
         if (baseDir.exists()) {
             File[] yearDirs = baseDir.listFiles(File::isDirectory);
             if (yearDirs != null) {
+                Metrics.count(Metrics.Counter.FILES_SCANNED, yearDirs.length);
                 for (File yearDir : yearDirs) {
                     try {
                         int year = Integer.parseInt(yearDir.getName());
                         File[] monthDirs = yearDir.listFiles(File::isDirectory);
                         if (monthDirs != null) {
+                            Metrics.count(Metrics.Counter.FILES_SCANNED, monthDirs.length);
                             for (File monthDir : monthDirs) {
                                 try {
                                     String monthDirName = monthDir.getName();
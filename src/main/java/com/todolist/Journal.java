@@ -0,0 +1,289 @@
+package main.java.com.todolist;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+// Diario de escritura anticipada: cada escritura se anota aqui antes de llegar a su archivo final.
+// Registros [longitud int][crc32c int][tipo byte][datos]; un registro cortado o con checksum
+// invalido marca el final del diario. De cada escritura se anota solo donde va, su largo y el
+// checksum de sus bytes (unos 30 bytes por escritura), no una segunda copia de los datos.
+// Al arrancar se revisa cada escritura anotada: si los bytes en su posicion no coinciden (un lote
+// cortado) el archivo se corta ahi. Esas escrituras nunca se confirmaron como durables, y cortar
+// dos veces en el mismo lugar no cambia nada. Cuando lo anotado ya es durable el diario se rota y
+// se borra, asi la recuperacion depende del tamaño del diario y no del de los datos.
+public class Journal {
+    static final String FILE_NAME = "journal.log";
+    private static final String ROTATED_PREFIX = "journal-";
+    private static final String LOCK_FILE = "journal.lock";
+    private static final long CHECKPOINT_BYTES = 1024 * 1024;
+    // Directorios cuyo diario ya reaplico este proceso, con el lock que lo impide a otros procesos
+    private static final Map<File, FileLock> OWNED = new ConcurrentHashMap<>();
+
+    // Version anterior con los bytes completos; se siguen leyendo y se revisan igual que los nuevos
+    private static final byte SEGMENT_WRITE = 1;
+    // Un archivo de tarea reemplaza a otro (modo LEGACY): el viejo se borra si el nuevo ya existe
+    private static final byte REPLACE_FILE = 2;
+    // Un registro escrito al final del segmento de un mes: posicion, largo y checksum
+    private static final byte SEGMENT_CHECK = 3;
+    // Una descripcion escrita al final del archivo de descripciones de un mes: posicion, largo y checksum
+    private static final byte BLOB_CHECK = 4;
+
+    // Destino de la reaplicacion
+    interface Target {
+        void segmentWrite(YearMonth month, long offset, int length, int checksum) throws IOException;
+
+        void replaceFile(String from, String to) throws IOException;
+
+        void blobWrite(YearMonth month, long offset, int length, int checksum) throws IOException;
+    }
+
+    private final File directory;
+    private final File file;
+    private final WriteBatcher writeBatcher;
+    private final AtomicLong bytesSinceCheckpoint = new AtomicLong();
+
+    public Journal(File directory, WriteBatcher writeBatcher) {
+        this.directory = directory;
+        this.file = new File(directory, FILE_NAME);
+        this.writeBatcher = writeBatcher;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // --- Registros ---
+
+    byte[] segmentWrite(YearMonth month, long offset, byte[] frame) {
+        return monthWrite(SEGMENT_CHECK, month, offset, frame);
+    }
+
+    byte[] blobWrite(YearMonth month, long offset, byte[] data) {
+        return monthWrite(BLOB_CHECK, month, offset, data);
+    }
+
+    private byte[] monthWrite(byte type, YearMonth month, long offset, byte[] data) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 4 + 1 + 8 + 4 + 4)
+                .put(type)
+                .putInt(month.getYear())
+                .put((byte) month.getMonthValue())
+                .putLong(offset)
+                .putInt(data.length)
+                .putInt(checksum(data, 0, data.length));
+        return frame(payload.array());
+    }
+
+    static int checksum(byte[] data, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+
+    byte[] replaceFile(String from, String to) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream dos = new DataOutputStream(buffer)) {
+                dos.writeByte(REPLACE_FILE);
+                dos.writeUTF(from);
+                dos.writeUTF(to);
+            }
+            return frame(buffer.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] frame(byte[] payload) {
+        bytesSinceCheckpoint.addAndGet(payload.length + 8);
+        return ByteBuffer.allocate(payload.length + 8)
+                .putInt(payload.length)
+                .putInt(checksum(payload, 0, payload.length))
+                .put(payload)
+                .array();
+    }
+
+    // Anota un registro y espera a que sea durable, para operaciones que no pasan por WriteBatcher
+    synchronized void appendNow(byte[] record) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    // --- Puntos de control ---
+
+    public void checkpointIfFull() {
+        if (bytesSinceCheckpoint.get() >= CHECKPOINT_BYTES) {
+            checkpoint();
+        }
+    }
+
+    // Las nuevas anotaciones van a un diario vacio; el anterior se borra cuando todo lo encolado es durable
+    public void checkpoint() {
+        File rotated;
+        synchronized (this) {
+            if (!file.exists()) return;
+            try {
+                rotated = rotate();
+            } catch (IOException e) {
+                Metrics.error(e);
+                return;
+            }
+        }
+        writeBatcher.whenDurable().thenRun(rotated::delete);
+    }
+
+    // Como checkpoint, pero los diarios con anotaciones anteriores se borran antes de volver.
+    // Se llama con el lock del mes tomado antes de reemplazar o borrar su segmento: despues del
+    // reemplazo ningun registro anotado puede reaplicarse con posiciones del archivo viejo.
+    // Si lo encolado no se pudo escribir lanza la excepcion y los diarios se conservan.
+    public void retire() throws IOException {
+        List<File> retired;
+        synchronized (this) {
+            if (file.exists()) {
+                rotate();
+            }
+            // Solo los rotados hasta aca: los que roten despues pueden tener anotaciones nuevas
+            retired = rotatedFiles();
+        }
+        try {
+            writeBatcher.flush().join();
+        } catch (CompletionException e) {
+            throw new IOException("No se pudo escribir lo encolado antes de retirar el diario", e.getCause());
+        }
+        for (File journal : retired) {
+            Files.deleteIfExists(journal.toPath());
+        }
+    }
+
+    private File rotate() throws IOException {
+        File rotated = new File(directory, String.format("%s%019d.log", ROTATED_PREFIX, System.nanoTime()));
+        Files.move(file.toPath(), rotated.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        bytesSinceCheckpoint.set(0);
+        return rotated;
+    }
+
+    // --- Recuperacion ---
+
+    // Solo se reaplica una vez por proceso y si ningun otro proceso tiene el directorio abierto:
+    // las anotaciones de una instancia viva no son restos de un corte
+    boolean claimRecovery() {
+        File key = directory.getAbsoluteFile();
+        if (OWNED.containsKey(key)) return false;
+        synchronized (OWNED) {
+            if (OWNED.containsKey(key)) return false;
+            try {
+                FileChannel channel = FileChannel.open(new File(directory, LOCK_FILE).toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    channel.close();
+                    return false;
+                }
+                // El lock se conserva hasta que termina el proceso
+                OWNED.put(key, lock);
+                return true;
+            } catch (IOException e) {
+                Metrics.error(e);
+                return false;
+            }
+        }
+    }
+
+    // Reaplica en orden todos los diarios que quedaron y devuelve cuantos registros habia
+    public synchronized int replay(Target target) throws IOException {
+        int replayed = 0;
+        for (File journal : journalFiles()) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journal.toPath()));
+            Metrics.count(Metrics.Counter.FILES_SCANNED, 1);
+            Metrics.count(Metrics.Counter.BYTES_READ, buffer.limit());
+            while (buffer.remaining() >= 8) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                // Escritura interrumpida: lo que sigue nunca se confirmo como durable
+                if (length <= 0 || length > buffer.remaining()) break;
+                if (checksum(buffer.array(), buffer.position(), length) != checksum) break;
+
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                apply(record, target);
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private static void apply(ByteBuffer record, Target target) throws IOException {
+        byte type = record.get();
+        if (type == SEGMENT_CHECK || type == BLOB_CHECK || type == SEGMENT_WRITE) {
+            YearMonth month = YearMonth.of(record.getInt(), record.get());
+            long offset = record.getLong();
+            int length;
+            int checksum;
+            if (type == SEGMENT_WRITE) {
+                length = record.remaining();
+                checksum = checksum(record.array(), record.arrayOffset() + record.position(), length);
+            } else {
+                length = record.getInt();
+                checksum = record.getInt();
+            }
+            if (type == BLOB_CHECK) {
+                target.blobWrite(month, offset, length, checksum);
+            } else {
+                target.segmentWrite(month, offset, length, checksum);
+            }
+        } else if (type == REPLACE_FILE) {
+            byte[] data = new byte[record.remaining()];
+            record.get(data);
+            try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data))) {
+                target.replaceFile(dis.readUTF(), dis.readUTF());
+            }
+        }
+    }
+
+    // Borra los diarios ya reaplicados; llamar cuando lo reaplicado es durable
+    public synchronized void discard() {
+        for (File journal : journalFiles()) {
+            journal.delete();
+        }
+        bytesSinceCheckpoint.set(0);
+    }
+
+    // Diarios rotados en orden y el actual al final
+    private List<File> journalFiles() {
+        List<File> files = rotatedFiles();
+        if (file.exists()) {
+            files.add(file);
+        }
+        return files;
+    }
+
+    private List<File> rotatedFiles() {
+        File[] rotated = directory.listFiles((dir, name) -> name.startsWith(ROTATED_PREFIX) && name.endsWith(".log"));
+        List<File> files = new ArrayList<>();
+        if (rotated != null) {
+            Arrays.sort(rotated);
+            files.addAll(Arrays.asList(rotated));
+        }
+        return files;
+    }
+}
\ No newline at end of file
@@ -4,6 +4,14 @@ import javax.swing.*;
 
 public class Main {
     public static void main(String[] args) {
+        // Con argumentos se ejecuta sin interfaz grafica (importar/exportar)
+        if (args.length > 0) {
+            System.exit(TaskCli.run(args));
+        }
+        
+        // Metricas por JMX (y volcado periodico si se configuro)
+        Metrics.install();
+        
         // Establecer Look and Feel del sistema
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -14,6 +22,8 @@ public class Main {
         // Ejecutar la aplicación en el Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             TodoListApp app = new TodoListApp();
+            // Un solo hook para toda la aplicacion: guarda lo pendiente al cerrar la ventana o con System.exit
+            Runtime.getRuntime().addShutdownHook(new Thread(app::close, "todolist-shutdown"));
             app.setVisible(true);
         });
     }
@@ -0,0 +1,317 @@
+package main.java.com.todolist;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores e histogramas de latencia del almacenamiento y de la interfaz.
+// Se activan con -Dtodolist.metrics=true o desde JMX; desactivadas, cada medicion solo lee un campo volatile.
+public final class Metrics {
+    private static final String ENABLED_PROPERTY = "todolist.metrics";
+    private static final String LOG_SECONDS_PROPERTY = "todolist.metrics.logSeconds";
+    private static final String OBJECT_NAME = "main.java.com.todolist:type=Metrics";
+
+    public enum Operation {
+        SAVE_TASK,
+        UPDATE_TASK_STATUS,
+        DELETE_TASK,
+        LOAD_MONTH,
+        AVAILABLE_MONTHS,
+        LOAD_RANGE,
+        LOAD_CURRENT_MONTH,
+        REFRESH_TABLE,
+        COMPACT_MONTH,
+        // Desde que arranca la JVM hasta el primer cuadro de la ventana
+        FIRST_FRAME,
+        ARCHIVE_MONTH
+    }
+
+    public enum Counter {
+        FILES_SCANNED,
+        BYTES_READ,
+        TASKS_DECODED,
+        ERRORS,
+        BYTES_RECLAIMED,
+        REMINDERS_FIRED
+    }
+
+    // Histograma con cubetas de potencias de dos en nanosegundos
+    private static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[64];
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets[63 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        // Limite superior de la cubeta donde cae el percentil
+        long percentileNanos(long[] counts, long total, double percentile) {
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return i == 63 ? Long.MAX_VALUE : (2L << i) - 1;
+                }
+            }
+            return 0;
+        }
+
+        LatencyStats snapshot() {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return new LatencyStats(0, 0, 0, 0, 0);
+            }
+            long max = maxNanos.get();
+            return new LatencyStats(total,
+                    totalNanos.sum() / total / 1000,
+                    Math.min(percentileNanos(counts, total, 0.50), max) / 1000,
+                    Math.min(percentileNanos(counts, total, 0.99), max) / 1000,
+                    max / 1000);
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+    }
+
+    public static class LatencyStats {
+        private final long count;
+        private final long meanMicros;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        @ConstructorProperties({"count", "meanMicros", "p50Micros", "p99Micros", "maxMicros"})
+        public LatencyStats(long count, long meanMicros, long p50Micros, long p99Micros, long maxMicros) {
+            this.count = count;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMeanMicros() {
+            return meanMicros;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d media=%dus p50=%dus p99=%dus max=%dus", count, meanMicros, p50Micros, p99Micros, maxMicros);
+        }
+    }
+
+    private static class MBean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return Metrics.getCounters();
+        }
+
+        @Override
+        public Map<String, LatencyStats> getLatencies() {
+            return Metrics.getLatencies();
+        }
+
+        @Override
+        public String dump() {
+            return Metrics.dump();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private static final Histogram[] latencies = new Histogram[Operation.values().length];
+    private static boolean installed;
+    private static ScheduledExecutorService logExecutor;
+
+    static {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    // Registra el MBean y, si se configuro todolist.metrics.logSeconds, el volcado periodico
+    public static synchronized void install() {
+        if (installed) return;
+        installed = true;
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MBean(), name);
+            }
+        } catch (JMException e) {
+            error(e);
+        }
+
+        long logSeconds = Long.getLong(LOG_SECONDS_PROPERTY, 0L);
+        if (logSeconds > 0) {
+            startLogging(logSeconds);
+        }
+    }
+
+    public static synchronized void startLogging(long periodSeconds) {
+        if (logExecutor != null) return;
+        enabled = true;
+        logExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logExecutor.scheduleAtFixedRate(() -> System.out.println(dump()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    // --- Medicion ---
+
+    // Devuelve 0 si las metricas estan desactivadas; record ignora ese valor
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void record(Operation operation, long start) {
+        if (start != 0) {
+            latencies[operation.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    // Para duraciones que empiezan antes de que la aplicacion pueda medir (el arranque del proceso)
+    public static void recordSinceJvmStart(Operation operation) {
+        if (enabled) {
+            latencies[operation.ordinal()].record(ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000);
+        }
+    }
+
+    public static void count(Counter counter, long amount) {
+        if (enabled) {
+            counters[counter.ordinal()].add(amount);
+        }
+    }
+
+    // Los errores se cuentan siempre, esten o no activadas las metricas
+    public static void error(Throwable e) {
+        counters[Counter.ERRORS.ordinal()].increment();
+        e.printStackTrace();
+    }
+
+    // --- Consulta ---
+
+    public static long getCounter(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    public static LatencyStats getLatency(Operation operation) {
+        return latencies[operation.ordinal()].snapshot();
+    }
+
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            values.put(counter.name(), getCounter(counter));
+        }
+        return values;
+    }
+
+    public static Map<String, LatencyStats> getLatencies() {
+        Map<String, LatencyStats> values = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            values.put(operation.name(), getLatency(operation));
+        }
+        return values;
+    }
+
+    public static String dump() {
+        StringBuilder builder = new StringBuilder("[metrics]");
+        for (Map.Entry<String, Long> counter : getCounters().entrySet()) {
+            builder.append(' ').append(counter.getKey()).append('=').append(counter.getValue());
+        }
+        for (Map.Entry<String, LatencyStats> latency : getLatencies().entrySet()) {
+            if (latency.getValue().getCount() > 0) {
+                builder.append("\n  ").append(latency.getKey()).append(": ").append(latency.getValue());
+            }
+        }
+        return builder.toString();
+    }
+
+    public static void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        for (Histogram histogram : latencies) {
+            histogram.reset();
+        }
+    }
+}
\ No newline at end of file
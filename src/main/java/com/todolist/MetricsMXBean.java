@@ -0,0 +1,18 @@
+package main.java.com.todolist;
+
+import java.util.Map;
+
+// Vista JMX de Metrics (main.java.com.todolist:type=Metrics)
+public interface MetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    Map<String, Long> getCounters();
+
+    Map<String, Metrics.LatencyStats> getLatencies();
+
+    String dump();
+
+    void reset();
+}
\ No newline at end of file
@@ -0,0 +1,239 @@
+package main.java.com.todolist;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Archivo comprimido de solo lectura con todas las tareas de un mes viejo.
+// [magic][version][bloques deflate][indice][posicion del indice long][magic]
+// Cada bloque descomprimido es una secuencia de [longitud int][tarea TaskCodec] de hasta BLOCK_BYTES.
+// El indice dice donde esta cada bloque y en que bloque y posicion esta cada tarea,
+// asi una tarea se lee descomprimiendo solo su bloque.
+public class MonthArchive {
+    static final String FILE_NAME = "archive.dat";
+    private static final int FILE_MAGIC = 0x54415243; // "TARC"
+    private static final byte FILE_VERSION = 1;
+    private static final int BLOCK_BYTES = 64 * 1024;
+    private static final int FOOTER_BYTES = 8 + 4;
+
+    private static final class Block {
+        final long offset;
+        final int compressedLength;
+        final int rawLength;
+
+        Block(long offset, int compressedLength, int rawLength) {
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+            this.rawLength = rawLength;
+        }
+    }
+
+    // Posicion de una tarea: bloque y desplazamiento dentro del bloque descomprimido
+    private static final class Entry {
+        final int block;
+        final int offset;
+
+        Entry(int block, int offset) {
+            this.block = block;
+            this.offset = offset;
+        }
+    }
+
+    private final File file;
+
+    public MonthArchive(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    // --- Escritura ---
+
+    // Reemplaza el archivo de forma atomica; las tareas se guardan en el orden recibido
+    public void write(List<Task> tasks) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        List<Block> blocks = new ArrayList<>();
+        Map<UUID, Entry> entries = new HashMap<>(tasks.size() * 2);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (FileOutputStream fos = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeByte(FILE_VERSION);
+            long position = 5;
+
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(BLOCK_BYTES + 1024);
+            DataOutputStream rawOut = new DataOutputStream(raw);
+            for (Task task : tasks) {
+                byte[] data = TaskCodec.encode(task);
+                if (raw.size() > 0 && raw.size() + 4 + data.length > BLOCK_BYTES) {
+                    position += writeBlock(out, deflater, raw.toByteArray(), position, blocks);
+                    raw.reset();
+                }
+                entries.put(task.getId(), new Entry(blocks.size(), raw.size()));
+                rawOut.writeInt(data.length);
+                rawOut.write(data);
+            }
+            if (raw.size() > 0) {
+                position += writeBlock(out, deflater, raw.toByteArray(), position, blocks);
+            }
+
+            long indexOffset = position;
+            out.writeInt(blocks.size());
+            for (Block block : blocks) {
+                out.writeLong(block.offset);
+                out.writeInt(block.compressedLength);
+                out.writeInt(block.rawLength);
+            }
+            out.writeInt(entries.size());
+            for (Map.Entry<UUID, Entry> entry : entries.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue().block);
+                out.writeInt(entry.getValue().offset);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(FILE_MAGIC);
+            out.flush();
+            fos.getFD().sync();
+        } finally {
+            deflater.end();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int writeBlock(DataOutputStream out, Deflater deflater, byte[] raw, long position,
+                                  List<Block> blocks) throws IOException {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] buffer = new byte[raw.length + 64];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        out.write(buffer, 0, length);
+        blocks.add(new Block(position, length, raw.length));
+        return length;
+    }
+
+    // --- Lectura ---
+
+    public List<Task> readAll(DescriptionStore descriptions) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<Block> blocks = new ArrayList<>();
+            int count = readIndex(channel, blocks, null);
+            List<Task> tasks = new ArrayList<>(count);
+            for (Block block : blocks) {
+                ByteBuffer raw = inflate(channel, block);
+                while (raw.remaining() >= 4) {
+                    int length = raw.getInt();
+                    tasks.add(TaskCodec.decode(raw.slice(raw.position(), length), descriptions));
+                    raw.position(raw.position() + length);
+                }
+            }
+            Metrics.count(Metrics.Counter.TASKS_DECODED, tasks.size());
+            return tasks;
+        }
+    }
+
+    // Una sola tarea, descomprimiendo solo su bloque; null si no esta
+    public Task read(UUID id, DescriptionStore descriptions) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<Block> blocks = new ArrayList<>();
+            Map<UUID, Entry> entries = new HashMap<>();
+            readIndex(channel, blocks, entries);
+            Entry entry = entries.get(id);
+            if (entry == null) return null;
+
+            ByteBuffer raw = inflate(channel, blocks.get(entry.block));
+            int length = raw.getInt(entry.offset);
+            Metrics.count(Metrics.Counter.TASKS_DECODED, 1);
+            return TaskCodec.decode(raw.slice(entry.offset + 4, length), descriptions);
+        }
+    }
+
+    // Devuelve la cantidad de tareas; entries null no carga las posiciones
+    private int readIndex(FileChannel channel, List<Block> blocks, Map<UUID, Entry> entries) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = readFully(channel, 0, 5);
+        if (size < 5 + FOOTER_BYTES || header.getInt() != FILE_MAGIC || header.get() != FILE_VERSION) {
+            throw new IOException("Archivo de mes invalido: " + file);
+        }
+        ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+        long indexOffset = footer.getLong();
+        if (footer.getInt() != FILE_MAGIC || indexOffset < 5 || indexOffset > size - FOOTER_BYTES) {
+            throw new IOException("Archivo de mes incompleto: " + file);
+        }
+
+        ByteBuffer index = readFully(channel, indexOffset, (int) (size - FOOTER_BYTES - indexOffset));
+        Metrics.count(Metrics.Counter.FILES_SCANNED, 1);
+        int blockCount = index.getInt();
+        for (int i = 0; i < blockCount; i++) {
+            blocks.add(new Block(index.getLong(), index.getInt(), index.getInt()));
+        }
+        int count = index.getInt();
+        if (entries != null) {
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(index.getLong(), index.getLong());
+                entries.put(id, new Entry(index.getInt(), index.getInt()));
+            }
+        }
+        return count;
+    }
+
+    private ByteBuffer inflate(FileChannel channel, Block block) throws IOException {
+        ByteBuffer compressed = readFully(channel, block.offset, block.compressedLength);
+        byte[] raw = new byte[block.rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array(), 0, block.compressedLength);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IOException("Bloque dañado en " + file + " en " + block.offset);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque dañado en " + file + " en " + block.offset, e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        Metrics.count(Metrics.Counter.BYTES_READ, length);
+        buffer.flip();
+        return buffer;
+    }
+}
\ No newline at end of file
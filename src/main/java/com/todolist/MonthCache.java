@@ -0,0 +1,167 @@
+package main.java.com.todolist;
+
+import java.lang.ref.WeakReference;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Cache LRU de meses ya cargados, acotada por numero de meses y por tamaño estimado.
+// Cada mes se guarda por columnas (TaskColumns); las tareas se arman al pedir el mes y la lista
+// armada se comparte (de solo lectura) mientras siga en uso y el mes no cambie.
+public class MonthCache {
+    private static class Entry {
+        final TaskColumns columns;
+        long estimatedBytes;
+        // Ultima lista armada del mes: mientras alguien la use (la vista) se devuelve la misma,
+        // sin armar otra vez las tareas. Se descarta con cualquier cambio del mes.
+        WeakReference<List<Task>> materialized;
+
+        // Quien guarda el mes ya no modifica la lista: si la sigue usando, get() devuelve esas tareas
+        Entry(List<Task> tasks) {
+            this.columns = new TaskColumns(tasks);
+            this.estimatedBytes = columns.estimatedBytes();
+            this.materialized = new WeakReference<>(tasks);
+        }
+    }
+
+    private final int maxMonths;
+    private final long maxBytes;
+    private final LinkedHashMap<YearMonth, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Se incrementa con cada escritura de un mes, para descartar cargas en segundo plano desactualizadas
+    private final Map<YearMonth, Long> generations = new HashMap<>();
+    private long totalBytes;
+
+    public MonthCache(int maxMonths, long maxBytes) {
+        this.maxMonths = maxMonths;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized List<Task> get(YearMonth yearMonth) {
+        Entry entry = entries.get(yearMonth);
+        if (entry == null) return null;
+        List<Task> tasks = entry.materialized != null ? entry.materialized.get() : null;
+        if (tasks == null) {
+            tasks = entry.columns.toList();
+            entry.materialized = new WeakReference<>(tasks);
+        }
+        return Collections.unmodifiableList(tasks);
+    }
+
+    // Tareas del mes con vencimiento entre fromDay y toDay; null si el mes no esta en cache
+    public synchronized List<Task> selectDue(YearMonth yearMonth, long fromDay, long toDay, boolean pendingOnly) {
+        Entry entry = entries.get(yearMonth);
+        return entry != null ? entry.columns.selectDue(fromDay, toDay, pendingOnly) : null;
+    }
+
+    public synchronized boolean contains(YearMonth yearMonth) {
+        return entries.containsKey(yearMonth);
+    }
+
+    public synchronized long getGeneration(YearMonth yearMonth) {
+        return generations.getOrDefault(yearMonth, 0L);
+    }
+
+    public synchronized void put(YearMonth yearMonth, List<Task> tasks) {
+        // maxMonths = 0 desactiva la cache: cada lectura del mes va a disco
+        if (maxMonths <= 0) return;
+        Entry previous = entries.put(yearMonth, new Entry(tasks));
+        if (previous != null) {
+            totalBytes -= previous.estimatedBytes;
+        }
+        totalBytes += entries.get(yearMonth).estimatedBytes;
+        evict();
+    }
+
+    // Guarda un mes leido en segundo plano solo si nadie lo modifico mientras tanto
+    public synchronized boolean putIfUnchanged(YearMonth yearMonth, List<Task> tasks, long generation) {
+        if (getGeneration(yearMonth) != generation) return false;
+        put(yearMonth, tasks);
+        return true;
+    }
+
+    public synchronized void taskAdded(YearMonth yearMonth, Task task) {
+        bumpGeneration(yearMonth);
+        Entry entry = entries.get(yearMonth);
+        if (entry != null) {
+            entry.columns.add(task);
+            entry.materialized = null;
+            resized(entry);
+            evict();
+        }
+    }
+
+    public synchronized void taskUpdated(YearMonth yearMonth, Task task) {
+        bumpGeneration(yearMonth);
+        Entry entry = entries.get(yearMonth);
+        if (entry != null && entry.columns.update(task)) {
+            entry.materialized = null;
+            resized(entry);
+        }
+    }
+
+    // Reemplaza la tarea con el mismo ID o la agrega si el mes no la tenia
+    public synchronized void taskChanged(YearMonth yearMonth, Task task) {
+        Entry entry = entries.get(yearMonth);
+        if (entry != null && entry.columns.contains(task.getId())) {
+            taskUpdated(yearMonth, task);
+            return;
+        }
+        taskAdded(yearMonth, task);
+    }
+
+    // Busca una tarea en un mes en cache sin armar las demas
+    public synchronized Task find(YearMonth yearMonth, UUID id) {
+        Entry entry = entries.get(yearMonth);
+        return entry != null ? entry.columns.find(id) : null;
+    }
+
+    public synchronized void taskRemoved(YearMonth yearMonth, UUID id) {
+        bumpGeneration(yearMonth);
+        Entry entry = entries.get(yearMonth);
+        if (entry != null && entry.columns.remove(id)) {
+            entry.materialized = null;
+            resized(entry);
+        }
+    }
+
+    public synchronized void invalidate(YearMonth yearMonth) {
+        bumpGeneration(yearMonth);
+        Entry entry = entries.remove(yearMonth);
+        if (entry != null) {
+            totalBytes -= entry.estimatedBytes;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return totalBytes;
+    }
+
+    private void bumpGeneration(YearMonth yearMonth) {
+        generations.merge(yearMonth, 1L, Long::sum);
+    }
+
+    private void resized(Entry entry) {
+        long size = entry.columns.estimatedBytes();
+        totalBytes += size - entry.estimatedBytes;
+        entry.estimatedBytes = size;
+    }
+
+    private void evict() {
+        // Con cache activada siempre se conserva al menos el mes mas reciente
+        Iterator<Map.Entry<YearMonth, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > 1 && (entries.size() > maxMonths || totalBytes > maxBytes)) {
+            Map.Entry<YearMonth, Entry> eldest = iterator.next();
+            totalBytes -= eldest.getValue().estimatedBytes;
+            iterator.remove();
+        }
+    }
+}
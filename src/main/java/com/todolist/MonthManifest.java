@@ -0,0 +1,227 @@
+package main.java.com.todolist;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Resumen persistente de los meses con datos: tareas pendientes y completadas de cada mes
+// y la fecha de modificacion de sus archivos. Evita recorrer los directorios para listar meses.
+public class MonthManifest {
+    private static final int FILE_MAGIC = 0x544d414e; // "TMAN"
+    private static final byte FILE_VERSION = 1;
+
+    public static class MonthSummary {
+        private final YearMonth month;
+        private final int pending;
+        private final int completed;
+        private final long lastModified;
+
+        MonthSummary(YearMonth month, int pending, int completed, long lastModified) {
+            this.month = month;
+            this.pending = pending;
+            this.completed = completed;
+            this.lastModified = lastModified;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public int getPending() {
+            return pending;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public int getTotal() {
+            return pending + completed;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private static final class Entry {
+        int pending;
+        int completed;
+        long lastModified;
+        // Los contadores no son fiables hasta volver a contar el mes
+        boolean stale;
+    }
+
+    private final File file;
+    private final TreeMap<YearMonth, Entry> months = new TreeMap<>();
+    // Meses modificados desde el ultimo guardado, para actualizar su fecha
+    private final Set<YearMonth> touched = new HashSet<>();
+    private boolean dirty;
+
+    public MonthManifest(File file) {
+        this.file = file;
+    }
+
+    public synchronized List<YearMonth> getMonths() {
+        return new ArrayList<>(months.keySet());
+    }
+
+    public synchronized boolean contains(YearMonth month) {
+        return months.containsKey(month);
+    }
+
+    public synchronized List<MonthSummary> getSummaries() {
+        List<MonthSummary> summaries = new ArrayList<>(months.size());
+        for (Map.Entry<YearMonth, Entry> entry : months.entrySet()) {
+            Entry value = entry.getValue();
+            summaries.add(new MonthSummary(entry.getKey(), value.pending, value.completed, value.lastModified));
+        }
+        return summaries;
+    }
+
+    public synchronized MonthSummary getSummary(YearMonth month) {
+        Entry entry = months.get(month);
+        if (entry == null) return new MonthSummary(month, 0, 0, 0);
+        return new MonthSummary(month, entry.pending, entry.completed, entry.lastModified);
+    }
+
+    public synchronized List<YearMonth> getStaleMonths() {
+        List<YearMonth> stale = new ArrayList<>();
+        for (Map.Entry<YearMonth, Entry> entry : months.entrySet()) {
+            if (entry.getValue().stale) {
+                stale.add(entry.getKey());
+            }
+        }
+        return stale;
+    }
+
+    // --- Actualizacion ---
+
+    public synchronized void adjust(YearMonth month, boolean completed, int delta) {
+        Entry entry = months.computeIfAbsent(month, m -> new Entry());
+        if (completed) {
+            entry.completed = Math.max(0, entry.completed + delta);
+        } else {
+            entry.pending = Math.max(0, entry.pending + delta);
+        }
+        touched.add(month);
+        dirty = true;
+    }
+
+    // Conteo exacto tras leer el mes completo
+    public synchronized void set(YearMonth month, int pending, int completed, long lastModified) {
+        Entry entry = months.computeIfAbsent(month, m -> new Entry());
+        if (!entry.stale && entry.pending == pending && entry.completed == completed && entry.lastModified == lastModified) {
+            return;
+        }
+        entry.pending = pending;
+        entry.completed = completed;
+        entry.lastModified = lastModified;
+        entry.stale = false;
+        dirty = true;
+    }
+
+    public synchronized void markStale(YearMonth month) {
+        months.computeIfAbsent(month, m -> new Entry()).stale = true;
+        touched.add(month);
+        dirty = true;
+    }
+
+    public synchronized void remove(YearMonth month) {
+        if (months.remove(month) != null) {
+            touched.remove(month);
+            dirty = true;
+        }
+    }
+
+    public synchronized void clear() {
+        months.clear();
+        touched.clear();
+        dirty = true;
+    }
+
+    // Devuelve y limpia los meses modificados desde la ultima llamada
+    synchronized Set<YearMonth> drainTouched() {
+        Set<YearMonth> drained = new HashSet<>(touched);
+        touched.clear();
+        return drained;
+    }
+
+    synchronized void setLastModified(YearMonth month, long lastModified) {
+        Entry entry = months.get(month);
+        if (entry != null && entry.lastModified != lastModified) {
+            entry.lastModified = lastModified;
+            dirty = true;
+        }
+    }
+
+    // --- Persistencia ---
+
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    public boolean load() {
+        if (!file.exists()) return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readByte() != FILE_VERSION) return false;
+
+            synchronized (this) {
+                months.clear();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    YearMonth month = YearMonth.of(in.readInt(), in.readByte());
+                    Entry entry = new Entry();
+                    entry.pending = in.readInt();
+                    entry.completed = in.readInt();
+                    entry.lastModified = in.readLong();
+                    entry.stale = in.readBoolean();
+                    months.put(month, entry);
+                }
+                touched.clear();
+                dirty = false;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Un manifiesto dañado se reconstruye desde los datos
+            Metrics.error(e);
+            synchronized (this) {
+                months.clear();
+            }
+            return false;
+        }
+    }
+
+    public synchronized void save() {
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeByte(FILE_VERSION);
+                out.writeInt(months.size());
+                for (Map.Entry<YearMonth, Entry> entry : months.entrySet()) {
+                    Entry value = entry.getValue();
+                    out.writeInt(entry.getKey().getYear());
+                    out.writeByte(entry.getKey().getMonthValue());
+                    out.writeInt(value.pending);
+                    out.writeInt(value.completed);
+                    out.writeLong(value.lastModified);
+                    out.writeBoolean(value.stale);
+                }
+            }
+            // Reemplazo atomico para no dejar un manifiesto a medio escribir
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+}
\ No newline at end of file
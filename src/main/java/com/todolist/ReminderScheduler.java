@@ -0,0 +1,431 @@
+package main.java.com.todolist;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Recordatorios de vencimiento de las tareas pendientes de todos los meses.
+// Los avisos se guardan en una rueda de tiempo con una casilla por dia: programar, mover o quitar
+// un aviso es O(1) y al cambiar el dia solo se recorre su casilla. Todo el estado vive en un unico
+// hilo; los eventos del TaskManager solo encolan el cambio en ese hilo.
+// El ultimo dia procesado se guarda al cerrar: al volver a arrancar, los avisos de ese dia o antes
+// de las tareas que ya existian se dieron en la ejecucion anterior y no se repiten.
+public class ReminderScheduler implements TaskListener {
+    static final String FILE_NAME = "reminders.dat";
+    // Dias de anticipacion del aviso "vence pronto"
+    private static final int LEAD_DAYS = Integer.getInteger("todolist.reminders.leadDays", 1);
+    // Potencia de dos: la casilla de un dia es epochDay & (WHEEL_DAYS - 1)
+    private static final int WHEEL_DAYS = 512;
+    private static final long TICK_SECONDS = 60;
+    // Los avisos que caen juntos (por ejemplo en la carga inicial) se entregan en un solo lote
+    private static final long DELIVERY_DELAY_MILLIS = 200;
+
+    public enum Kind {
+        DUE_SOON,
+        OVERDUE
+    }
+
+    public static class Reminder {
+        private final UUID id;
+        private final String title;
+        private final LocalDate dueDate;
+        private final Kind kind;
+
+        Reminder(UUID id, String title, LocalDate dueDate, Kind kind) {
+            this.id = id;
+            this.title = title;
+            this.dueDate = dueDate;
+            this.kind = kind;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public LocalDate getDueDate() {
+            return dueDate;
+        }
+
+        public YearMonth getMonth() {
+            return YearMonth.from(dueDate);
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        public String toString() {
+            String status = kind == Kind.OVERDUE ? "[Vencida]" : "[Vence pronto]";
+            return String.format("%s %s (%02d/%02d/%d)", status, title,
+                dueDate.getDayOfMonth(), dueDate.getMonthValue(), dueDate.getYear());
+        }
+    }
+
+    public interface Listener {
+        // Se llama desde el hilo de recordatorios
+        void remindersDue(List<Reminder> reminders);
+    }
+
+    // Nodo de la lista doblemente enlazada de una casilla
+    private static final class Entry {
+        final UUID id;
+        String title;
+        long dueDay;
+        long fireDay;
+        // Proximo aviso; null si ya se dio el de vencida
+        Kind next;
+        // Ultimo aviso dado; null si todavia no se dio ninguno
+        Kind fired;
+        Entry previous;
+        Entry following;
+        boolean linked;
+
+        Entry(UUID id, String title, long dueDay) {
+            this.id = id;
+            this.title = title;
+            this.dueDay = dueDay;
+        }
+    }
+
+    private final Clock clock;
+    // null: no se recuerda nada entre ejecuciones
+    private final File stateFile;
+    // Ultimo dia procesado por la ejecucion anterior
+    private final long previousDay;
+    private final ScheduledExecutorService executor;
+    private final Entry[] wheel = new Entry[WHEEL_DAYS];
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private List<Reminder> undelivered = new ArrayList<>();
+    private boolean deliveryScheduled;
+    // Ultimo dia procesado
+    private long today;
+    // IDs con eventos durante la carga inicial: la carga, que puede haber leido antes, no los pisa
+    private Set<UUID> touched = new HashSet<>();
+
+    public ReminderScheduler() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public ReminderScheduler(Clock clock) {
+        this(clock, null);
+    }
+
+    public ReminderScheduler(Clock clock, File stateFile) {
+        this.clock = clock;
+        this.stateFile = stateFile;
+        this.previousDay = loadPreviousDay();
+        this.today = LocalDate.now(clock).toEpochDay();
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Revisar a menudo cubre tambien los cambios de hora y la suspension del equipo
+        executor.scheduleWithFixedDelay(this::advance, TICK_SECONDS, TICK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Detiene el hilo de recordatorios y guarda el ultimo dia procesado
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        saveDay();
+    }
+
+    // Revisa el cambio de dia ya, sin esperar al proximo tick
+    CompletableFuture<Void> advanceNow() {
+        return CompletableFuture.runAsync(this::advance, executor);
+    }
+
+    private long loadPreviousDay() {
+        if (stateFile == null || !stateFile.exists()) return Long.MIN_VALUE;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(stateFile))) {
+            return in.readLong();
+        } catch (IOException e) {
+            // Sin el dia anterior se vuelven a dar los avisos: mejor repetidos que perdidos
+            Metrics.error(e);
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private void saveDay() {
+        if (stateFile == null) return;
+        File temp = new File(stateFile.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+                out.writeLong(today);
+            }
+            Files.move(temp.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+
+    // --- Alimentacion ---
+
+    // Tareas leidas en la carga inicial; no reemplazan a las que ya llegaron por eventos
+    public void seed(List<Task> tasks) {
+        List<Entry> seeded = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Entry entry = toEntry(task);
+            if (entry != null) seeded.add(entry);
+        }
+        executor.execute(() -> {
+            for (Entry entry : seeded) {
+                if (!entries.containsKey(entry.id) && !touched.contains(entry.id)) {
+                    schedule(entry, true);
+                }
+            }
+            deliverLater();
+        });
+    }
+
+    public void seedingFinished() {
+        executor.execute(() -> touched = null);
+    }
+
+    public void schedule(Task task) {
+        schedule(task, false);
+    }
+
+    // stored: la tarea se leyo de disco y pudo recibir sus avisos en la ejecucion anterior
+    private void schedule(Task task, boolean stored) {
+        // Los campos se leen aca: la tarea puede cambiar antes de que corra el hilo de recordatorios
+        Entry entry = toEntry(task);
+        UUID id = task.getId();
+        executor.execute(() -> {
+            if (touched != null) touched.add(id);
+            if (entry == null) {
+                unschedule(id);
+            } else {
+                schedule(entry, stored);
+                deliverLater();
+            }
+        });
+    }
+
+    public void remove(UUID id) {
+        executor.execute(() -> {
+            if (touched != null) touched.add(id);
+            unschedule(id);
+        });
+    }
+
+    // Solo las tareas pendientes con vencimiento tienen recordatorio
+    private static Entry toEntry(Task task) {
+        if (task.isCompleted() || task.getDueDay() == Task.NO_DATE) return null;
+        return new Entry(task.getId(), task.getTitle(), task.getDueDay());
+    }
+
+    // --- TaskListener ---
+
+    @Override
+    public void taskAdded(Task task) {
+        schedule(task);
+    }
+
+    @Override
+    public void taskUpdated(Task task) {
+        schedule(task);
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        remove(task.getId());
+    }
+
+    @Override
+    public void monthLoaded(YearMonth month, List<Task> tasks) {
+        // El mes recien leido es el estado actual de sus tareas
+        for (Task task : tasks) {
+            schedule(task, true);
+        }
+    }
+
+    // --- Consultas ---
+
+    // Tareas que ya recibieron aviso y siguen pendientes, ordenadas por vencimiento
+    public CompletableFuture<List<Reminder>> getActiveReminders() {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Reminder> active = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                if (entry.fired != null) {
+                    active.add(toReminder(entry, entry.fired));
+                }
+            }
+            active.sort((a, b) -> a.dueDate.compareTo(b.dueDate));
+            return active;
+        }, executor);
+    }
+
+    public CompletableFuture<Integer> size() {
+        return CompletableFuture.supplyAsync(entries::size, executor);
+    }
+
+    // --- Rueda de tiempo (solo desde el hilo de recordatorios) ---
+
+    private void schedule(Entry update, boolean stored) {
+        Entry entry = entries.get(update.id);
+        if (entry != null && entry.dueDay == update.dueDay) {
+            // Mismo vencimiento: no se repiten los avisos ya dados
+            entry.title = update.title;
+            return;
+        }
+        if (entry != null) {
+            unlink(entry);
+        }
+        entries.put(update.id, update);
+        update.next = Kind.DUE_SOON;
+        update.fireDay = update.dueDay - LEAD_DAYS;
+        place(update, stored);
+    }
+
+    private void unschedule(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    // Los avisos que ya corresponden se dan en el acto; los demas van a la casilla de su dia
+    private void place(Entry entry, boolean stored) {
+        // Los que la ejecucion anterior ya dio quedan como dados, sin volver a entregarlos
+        long given = stored ? Math.min(previousDay, today) : Long.MIN_VALUE;
+        while (entry.next != null && entry.fireDay <= given) {
+            fire(entry, given, false);
+        }
+        while (entry.next != null && entry.fireDay <= today) {
+            fire(entry, today, true);
+        }
+        if (entry.next != null) {
+            link(entry);
+        }
+    }
+
+    // day: dia en que corresponde el aviso
+    private void fire(Entry entry, long day, boolean deliver) {
+        Kind kind = entry.dueDay < day ? Kind.OVERDUE : entry.next;
+        if (deliver) {
+            undelivered.add(toReminder(entry, kind));
+            Metrics.count(Metrics.Counter.REMINDERS_FIRED, 1);
+        }
+        entry.fired = kind;
+        if (kind == Kind.DUE_SOON) {
+            entry.next = Kind.OVERDUE;
+            entry.fireDay = entry.dueDay + 1;
+        } else {
+            entry.next = null;
+        }
+    }
+
+    private void advance() {
+        long now = LocalDate.now(clock).toEpochDay();
+        if (now <= today) return;
+
+        long last = today;
+        today = now;
+        // Si pasaron mas dias que casillas (equipo suspendido mucho tiempo) se recorre la rueda una vez
+        long days = Math.min(now - last, WHEEL_DAYS);
+        for (long day = now - days + 1; day <= now; day++) {
+            Entry entry = wheel[slot(day)];
+            while (entry != null) {
+                Entry following = entry.following;
+                if (entry.fireDay <= now) {
+                    unlink(entry);
+                    place(entry, false);
+                }
+                entry = following;
+            }
+        }
+        deliverLater();
+    }
+
+    private static int slot(long day) {
+        return (int) (day & (WHEEL_DAYS - 1));
+    }
+
+    private void link(Entry entry) {
+        int slot = slot(entry.fireDay);
+        Entry head = wheel[slot];
+        entry.previous = null;
+        entry.following = head;
+        if (head != null) head.previous = entry;
+        wheel[slot] = entry;
+        entry.linked = true;
+    }
+
+    private void unlink(Entry entry) {
+        if (!entry.linked) return;
+        if (entry.previous != null) {
+            entry.previous.following = entry.following;
+        } else {
+            wheel[slot(entry.fireDay)] = entry.following;
+        }
+        if (entry.following != null) {
+            entry.following.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.following = null;
+        entry.linked = false;
+    }
+
+    private static Reminder toReminder(Entry entry, Kind kind) {
+        return new Reminder(entry.id, entry.title, LocalDate.ofEpochDay(entry.dueDay), kind);
+    }
+
+    // --- Entrega ---
+
+    private void deliverLater() {
+        if (undelivered.isEmpty() || deliveryScheduled) return;
+        deliveryScheduled = true;
+        executor.schedule(this::deliver, DELIVERY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void deliver() {
+        deliveryScheduled = false;
+        if (undelivered.isEmpty()) return;
+        List<Reminder> batch = Collections.unmodifiableList(undelivered);
+        undelivered = new ArrayList<>();
+        for (Listener listener : listeners) {
+            try {
+                listener.remindersDue(batch);
+            } catch (RuntimeException e) {
+                Metrics.error(e);
+            }
+        }
+    }
+}
\ No newline at end of file
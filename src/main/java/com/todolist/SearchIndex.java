@@ -0,0 +1,434 @@
+package main.java.com.todolist;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+// Indice invertido de titulo y descripcion de todas las tareas, de todos los meses.
+// Los terminos se normalizan sin acentos ni mayusculas y las busquedas aceptan prefijos.
+// Las descripciones guardadas aparte se indexan primero por su comienzo y se leen completas
+// en otro hilo, para no hacer E/S en los eventos del TaskManager.
+public class SearchIndex implements TaskListener {
+    private static final int FILE_MAGIC = 0x54494458; // "TIDX"
+    // Version 2: textos con su largo en bytes UTF-8 (writeUTF no admite mas de 64 KB)
+    private static final byte FILE_VERSION = 2;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static class Result {
+        private final UUID id;
+        private final String title;
+        private final YearMonth month;
+        private final boolean completed;
+        private final int score;
+
+        Result(UUID id, String title, YearMonth month, boolean completed, int score) {
+            this.id = id;
+            this.title = title;
+            this.month = month;
+            this.completed = completed;
+            this.score = score;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            String status = completed ? "[✓]" : "[ ]";
+            return String.format("%s %s (%02d/%d)", status, title, month.getMonthValue(), month.getYear());
+        }
+    }
+
+    private static class Document {
+        final String title;
+        final YearMonth month;
+        final boolean completed;
+        // Peso de cada termino en esta tarea
+        final Map<String, Integer> terms;
+
+        Document(String title, YearMonth month, boolean completed, Map<String, Integer> terms) {
+            this.title = title;
+            this.month = month;
+            this.completed = completed;
+            this.terms = terms;
+        }
+    }
+
+    private final File file;
+    // Hilo donde se leen las descripciones guardadas aparte
+    private final Executor loader;
+    private final Map<UUID, Document> documents = new HashMap<>();
+    // termino -> (ID -> peso)
+    private final TreeMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    // Ultima version de cada tarea cuya descripcion falta leer; las lecturas viejas se descartan
+    private final Map<UUID, Task> deferred = new HashMap<>();
+    // Cuenta los cambios: save() solo limpia dirty si no hubo cambios mientras escribia
+    private long modifications;
+    private boolean dirty;
+    // Serializa los guardados, que escriben fuera del monitor
+    private final Object saveLock = new Object();
+
+    public SearchIndex(File file, Executor loader) {
+        this.file = file;
+        this.loader = loader;
+    }
+
+    // --- Normalizacion ---
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // --- Actualizacion ---
+
+    // No lee de disco: si la descripcion esta guardada aparte se indexa su comienzo y el resto despues
+    public void index(Task task) {
+        if (task.isDescriptionLoaded()) {
+            index(task, task.getDescription());
+            return;
+        }
+        synchronized (this) {
+            deferred.put(task.getId(), task);
+            index(task, task.getDescriptionPreview());
+        }
+        loader.execute(() -> indexDeferred(task));
+    }
+
+    private void indexDeferred(Task task) {
+        synchronized (this) {
+            if (deferred.get(task.getId()) != task) return;
+        }
+        String description;
+        try {
+            description = task.getDescription();
+        } catch (UncheckedIOException e) {
+            // Queda indexado el comienzo de la descripcion
+            Metrics.error(e);
+            synchronized (this) {
+                deferred.remove(task.getId(), task);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (deferred.remove(task.getId(), task)) {
+                index(task, description);
+            }
+        }
+    }
+
+    private synchronized void index(Task task, String description) {
+        if (task.isDescriptionLoaded()) {
+            deferred.remove(task.getId());
+        }
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : tokenize(task.getTitle())) {
+            terms.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(description)) {
+            terms.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+
+        Document document = new Document(task.getTitle(), FileManager.getTaskMonth(task), task.isCompleted(), terms);
+        Document previous = documents.get(task.getId());
+        if (previous != null && previous.completed == document.completed && previous.month.equals(document.month)
+                && previous.title.equals(document.title) && previous.terms.equals(document.terms)) {
+            return;
+        }
+        removeDocument(task.getId());
+        put(task.getId(), document);
+    }
+
+    // Usado al reconstruir, que ya corre en segundo plano y lee la descripcion en el acto.
+    // No pisa lo que ya actualizaron los eventos del TaskManager.
+    public void indexIfAbsent(Task task) {
+        synchronized (this) {
+            if (documents.containsKey(task.getId())) return;
+        }
+        String description;
+        try {
+            description = task.getDescription();
+        } catch (UncheckedIOException e) {
+            Metrics.error(e);
+            description = task.getDescriptionPreview();
+        }
+        synchronized (this) {
+            if (!documents.containsKey(task.getId())) {
+                index(task, description);
+            }
+        }
+    }
+
+    public synchronized void remove(UUID id) {
+        deferred.remove(id);
+        removeDocument(id);
+    }
+
+    private void removeDocument(UUID id) {
+        Document document = documents.remove(id);
+        if (document == null) return;
+
+        for (String term : document.terms.keySet()) {
+            Map<UUID, Integer> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        changed();
+    }
+
+    private void put(UUID id, Document document) {
+        documents.put(id, document);
+        for (Map.Entry<String, Integer> term : document.terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(id, term.getValue());
+        }
+        changed();
+    }
+
+    private void changed() {
+        modifications++;
+        dirty = true;
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        postings.clear();
+        deferred.clear();
+        changed();
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    // --- Consultas ---
+
+    // Todas las palabras de la consulta deben aparecer, como palabra completa o como prefijo.
+    // Las coincidencias en el titulo y las palabras completas puntuan mas.
+    public synchronized List<Result> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) return new ArrayList<>();
+
+        Map<UUID, Integer> scores = null;
+        for (String token : queryTokens) {
+            Map<UUID, Integer> tokenScores = new HashMap<>();
+            NavigableMap<String, Map<UUID, Integer>> matches = postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<UUID, Integer>> match : matches.entrySet()) {
+                boolean exact = match.getKey().equals(token);
+                for (Map.Entry<UUID, Integer> posting : match.getValue().entrySet()) {
+                    if (scores != null && !scores.containsKey(posting.getKey())) continue;
+                    int score = exact ? posting.getValue() * 2 : posting.getValue();
+                    tokenScores.merge(posting.getKey(), score, Math::max);
+                }
+            }
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<UUID, Integer> combined = new HashMap<>();
+                for (Map.Entry<UUID, Integer> entry : tokenScores.entrySet()) {
+                    combined.put(entry.getKey(), scores.get(entry.getKey()) + entry.getValue());
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) break;
+        }
+
+        List<Result> results = new ArrayList<>(scores.size());
+        for (Map.Entry<UUID, Integer> entry : scores.entrySet()) {
+            Document document = documents.get(entry.getKey());
+            results.add(new Result(entry.getKey(), document.title, document.month, document.completed, entry.getValue()));
+        }
+        // Mayor puntuacion primero; a igualdad, pendientes y luego los meses mas recientes
+        results.sort((a, b) -> {
+            if (a.score != b.score) return Integer.compare(b.score, a.score);
+            if (a.completed != b.completed) return a.completed ? 1 : -1;
+            return b.month.compareTo(a.month);
+        });
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    // --- TaskListener: el indice se actualiza con cada cambio del TaskManager ---
+
+    @Override
+    public void taskAdded(Task task) {
+        index(task);
+    }
+
+    @Override
+    public void taskUpdated(Task task) {
+        index(task);
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        remove(task.getId());
+    }
+
+    @Override
+    public void monthLoaded(YearMonth month, List<Task> tasks) {
+        // Corrige entradas desactualizadas (por ejemplo si el indice no se guardo antes de un cierre).
+        // Las descripciones cambian siempre con un evento de actualizacion: si lo demas coincide no se
+        // vuelve a indexar, asi no se leen las descripciones guardadas aparte.
+        for (Task task : tasks) {
+            if (!task.isDescriptionLoaded() && isCurrent(task)) continue;
+            index(task);
+        }
+    }
+
+    private synchronized boolean isCurrent(Task task) {
+        Document document = documents.get(task.getId());
+        return document != null && document.completed == task.isCompleted()
+                && document.month.equals(FileManager.getTaskMonth(task)) && document.title.equals(task.getTitle());
+    }
+
+    // --- Persistencia ---
+
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    public boolean load() {
+        if (!file.exists()) return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) return false;
+            byte version = in.readByte();
+            if (version != 1 && version != FILE_VERSION) return false;
+
+            synchronized (this) {
+                documents.clear();
+                postings.clear();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    UUID id = new UUID(in.readLong(), in.readLong());
+                    String title = readText(in, version);
+                    YearMonth month = YearMonth.of(in.readInt(), in.readByte());
+                    boolean completed = in.readBoolean();
+                    int termCount = in.readInt();
+                    Map<String, Integer> terms = new HashMap<>(termCount * 2);
+                    for (int t = 0; t < termCount; t++) {
+                        terms.put(readText(in, version), in.readInt());
+                    }
+                    put(id, new Document(title, month, completed, terms));
+                }
+                dirty = false;
+            }
+            return true;
+        } catch (IOException e) {
+            // Un indice dañado se reconstruye desde los datos
+            Metrics.error(e);
+            synchronized (this) {
+                documents.clear();
+                postings.clear();
+            }
+            return false;
+        }
+    }
+
+    // Los documentos no se modifican una vez creados: se copian las referencias bajo el monitor
+    // y se escribe fuera de el, sin frenar a los eventos ni a las busquedas
+    public void save() {
+        synchronized (saveLock) {
+            Map<UUID, Document> snapshot;
+            long version;
+            synchronized (this) {
+                snapshot = new HashMap<>(documents);
+                version = modifications;
+            }
+            File temp = new File(file.getPath() + ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                    out.writeInt(FILE_MAGIC);
+                    out.writeByte(FILE_VERSION);
+                    out.writeInt(snapshot.size());
+                    for (Map.Entry<UUID, Document> entry : snapshot.entrySet()) {
+                        Document document = entry.getValue();
+                        out.writeLong(entry.getKey().getMostSignificantBits());
+                        out.writeLong(entry.getKey().getLeastSignificantBits());
+                        writeText(out, document.title);
+                        out.writeInt(document.month.getYear());
+                        out.writeByte(document.month.getMonthValue());
+                        out.writeBoolean(document.completed);
+                        out.writeInt(document.terms.size());
+                        for (Map.Entry<String, Integer> term : document.terms.entrySet()) {
+                            writeText(out, term.getKey());
+                            out.writeInt(term.getValue());
+                        }
+                    }
+                }
+                // Reemplazo atomico para no dejar un indice a medio escribir
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                synchronized (this) {
+                    if (modifications == version) dirty = false;
+                }
+            } catch (IOException e) {
+                Metrics.error(e);
+            }
+        }
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in, byte version) throws IOException {
+        if (version == 1) return in.readUTF();
+        int length = in.readInt();
+        // Un largo dañado no reserva mas de lo que queda en el archivo
+        if (length < 0 || length > in.available()) throw new IOException("Largo de texto invalido: " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
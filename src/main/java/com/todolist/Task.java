@@ -1,31 +1,95 @@
 package main.java.com.todolist;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.UUID;
 
 public class Task implements Serializable {
     private static final long serialVersionUID = 1L;
-
+    // La forma serializada conserva los campos originales (archivos .task del formato anterior)
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("id", UUID.class),
+        new ObjectStreamField("title", String.class),
+        new ObjectStreamField("description", String.class),
+        new ObjectStreamField("dueDate", LocalDate.class),
+        new ObjectStreamField("completed", boolean.class),
+        new ObjectStreamField("completionDate", LocalDate.class),
+        new ObjectStreamField("creationDate", LocalDate.class),
+        new ObjectStreamField("category", String.class)
+    };
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private UUID id;
     private String title;
     private String description;
-    private LocalDate dueDate;
-    private boolean completed;
-    private LocalDate completionDate;
-    private LocalDate creationDate;
     private String category;
+    // Fechas en dias desde 1970-01-01 (NO_DATE si no hay): sin un LocalDate por fecha y por tarea
+    private int dueDay;
+    private int completionDay;
+    private int creationDay;
+    private boolean completed;
+    // Donde esta guardada la descripcion cuando es larga; con description null se lee al pedirla
+    private transient volatile DescriptionStore.Reference descriptionReference;
 
     public Task(String title, String description, LocalDate dueDate, String category) {
+        this.id = UUID.randomUUID();
         this.title = title;
         this.description = description;
-        this.dueDate = dueDate;
-        this.category = category;
+        this.dueDay = toDay(dueDate);
+        this.category = intern(category);
         this.completed = false;
-        this.creationDate = LocalDate.now();
-        this.completionDate = null;
+        this.creationDay = toDay(LocalDate.now());
+        this.completionDay = NO_DATE;
+    }
+
+    // Usado al reconstruir una tarea guardada
+    Task(UUID id, String title, String description, LocalDate dueDate, String category,
+         boolean completed, LocalDate completionDate, LocalDate creationDate) {
+        this(id, title, description, toDay(dueDate), category, completed, toDay(completionDate), toDay(creationDate));
+    }
+
+    Task(UUID id, String title, String description, int dueDay, String category,
+         boolean completed, int completionDay, int creationDay) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDay = dueDay;
+        this.category = intern(category);
+        this.completed = completed;
+        this.completionDay = completionDay;
+        this.creationDay = creationDay;
+    }
+
+    static int toDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DATE;
+    }
+
+    static LocalDate toDate(int day) {
+        return day != NO_DATE ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    // Todas las tareas comparten la misma instancia de cada nombre del diccionario
+    private static String intern(String category) {
+        return CategoryDictionary.intern(category);
     }
 
     //Getters y Setters
+    public UUID getId() {
+        return id;
+    }
+    // Solo para conservar el ID al reemplazar una tarea editada
+    void setId(UUID id) {
+        this.id = id;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -34,17 +98,52 @@ public class Task implements Serializable {
     }
 
     public String getDescription() {
-        return description;
+        String loaded = description;
+        if (loaded != null) return loaded;
+        DescriptionStore.Reference reference = descriptionReference;
+        return reference != null ? reference.load() : null;
     }
     public void setDescription(String description) {
         this.description = description;
+        this.descriptionReference = null;
+    }
+
+    // Lo que se puede mostrar sin leer la descripcion completa
+    public String getDescriptionPreview() {
+        String loaded = description;
+        if (loaded != null) return loaded;
+        DescriptionStore.Reference reference = descriptionReference;
+        return reference != null ? reference.getPreview() : null;
+    }
+
+    // La descripcion en memoria, sin leer la guardada aparte (null si no se leyo)
+    String getLoadedDescription() {
+        return description;
+    }
+
+    boolean isDescriptionLoaded() {
+        return description != null || descriptionReference == null;
+    }
+
+    DescriptionStore.Reference getDescriptionReference() {
+        return descriptionReference;
+    }
+
+    // Al guardar la descripcion aparte o al leer un registro que solo trae su comienzo
+    void setDescriptionReference(DescriptionStore.Reference descriptionReference) {
+        this.descriptionReference = descriptionReference;
     }
 
     public LocalDate getDueDate() {
-        return dueDate;
+        return toDate(dueDay);
     }
     public void setDueDate(LocalDate dueDate) {
-        this.dueDate = dueDate;
+        this.dueDay = toDay(dueDate);
+    }
+
+    // Para recorridos sobre muchas tareas sin crear un LocalDate por tarea
+    int getDueDay() {
+        return dueDay;
     }
 
     public boolean isCompleted() {
@@ -52,37 +151,88 @@ public class Task implements Serializable {
     }
 
     public LocalDate getCompletionDate() {
-        return completionDate;
+        return toDate(completionDay);
+    }
+
+    int getCompletionDay() {
+        return completionDay;
     }
 
     public LocalDate getCreationDate() {
-        return creationDate;
+        return toDate(creationDay);
+    }
+
+    int getCreationDay() {
+        return creationDay;
     }
 
     public String getCategory() {
         return category;
     }
     public void setCategory(String category) {
-        this.category = category;
+        this.category = intern(category);
     }
 
     public void markAsCompleted() {
         this.completed = true;
-        this.completionDate = LocalDate.now();
+        this.completionDay = toDay(LocalDate.now());
     }
 
     public void markAsPending() {
         this.completed = false;
-        this.completionDate = null;
+        this.completionDay = NO_DATE;
+    }
+
+    // Copia con otro estado; la tarea original no cambia, otros hilos pueden estar leyendola
+    Task withStatus(boolean completed) {
+        Task copy = new Task(id, title, description, dueDay, category, completed,
+            completed ? toDay(LocalDate.now()) : NO_DATE, creationDay);
+        copy.descriptionReference = descriptionReference;
+        return copy;
     }
 
     public String getFormattedDueDate() {
-        if (dueDate == null) return "Sin fecha";
-        return dueDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        if (dueDay == NO_DATE) return "Sin fecha";
+        return getDueDate().format(DATE_FORMAT);
     }
 
     public String getFormattedCreationDate() {
-        return creationDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        return getCreationDate().format(DATE_FORMAT);
+    }
+
+    // ID estable para tareas guardadas antes de que existieran los IDs
+    static UUID legacyId(LocalDate creationDate, String title) {
+        return UUID.nameUUIDFromBytes((creationDate + "|" + title).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // La forma serializada siempre lleva la descripcion completa
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("id", id);
+        fields.put("title", title);
+        fields.put("description", getDescription());
+        fields.put("dueDate", getDueDate());
+        fields.put("completed", completed);
+        fields.put("completionDate", getCompletionDate());
+        fields.put("creationDate", getCreationDate());
+        fields.put("category", category);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        title = (String) fields.get("title", null);
+        description = (String) fields.get("description", null);
+        category = intern((String) fields.get("category", null));
+        completed = fields.get("completed", false);
+        dueDay = toDay((LocalDate) fields.get("dueDate", null));
+        completionDay = toDay((LocalDate) fields.get("completionDate", null));
+        LocalDate creationDate = (LocalDate) fields.get("creationDate", null);
+        creationDay = toDay(creationDate);
+        id = (UUID) fields.get("id", null);
+        if (id == null) {
+            id = legacyId(creationDate, title);
+        }
     }
 
     @Override
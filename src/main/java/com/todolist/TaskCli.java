@@ -0,0 +1,516 @@
+package main.java.com.todolist;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+// Modo sin interfaz grafica: importa y exporta tareas en CSV o JSON Lines, de a un registro por vez,
+// sirve la API HTTP local, compacta los segmentos o archiva los meses viejos.
+//   import <archivo|-> [--format csv|jsonl] [--data <dir>]
+//   export [<archivo|->] [--format csv|jsonl] [--from yyyy-MM] [--to yyyy-MM] [--data <dir>]
+//   serve [--port N] [--data <dir>]
+//   compact [--from yyyy-MM] [--to yyyy-MM] [--data <dir>]
+//   archive [--to yyyy-MM] [--data <dir>]
+public class TaskCli {
+    // Lotes mas grandes que los de la aplicacion: un fsync cada 4096 tareas
+    private static final int IMPORT_BATCH_SIZE = 4096;
+    private static final long IMPORT_BATCH_DELAY_MILLIS = 50;
+
+    enum Format {
+        CSV,
+        JSONL
+    }
+
+    private static final class Options {
+        String command;
+        String path;
+        Format format;
+        File dataDirectory = new File(FileManager.BASE_DIR);
+        YearMonth from;
+        YearMonth to;
+        int port = TaskHttpServer.DEFAULT_PORT;
+    }
+
+    public static int run(String[] args) {
+        Options options;
+        try {
+            options = parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            return 2;
+        }
+
+        try {
+            switch (options.command) {
+                case "import":
+                    return importTasks(options);
+                case "export":
+                    return exportTasks(options);
+                case "serve":
+                    return serve(options);
+                case "compact":
+                    return compact(options);
+                case "archive":
+                    return archive(options);
+                default:
+                    printUsage();
+                    return options.command.equals("help") ? 0 : 2;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            return reportError(e);
+        } catch (CompletionException e) {
+            // Las escrituras en lote fallan a traves del futuro que se espera
+            return reportError(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private static int reportError(Throwable e) {
+        Metrics.error(e);
+        System.err.println("Error: " + e.getMessage());
+        return 1;
+    }
+
+    private static void printUsage() {
+        System.err.println("Uso:");
+        System.err.println("  import <archivo|-> [--format csv|jsonl] [--data <dir>]");
+        System.err.println("  export [<archivo|->] [--format csv|jsonl] [--from yyyy-MM] [--to yyyy-MM] [--data <dir>]");
+        System.err.println("  serve [--port N] [--data <dir>]");
+        System.err.println("  compact [--from yyyy-MM] [--to yyyy-MM] [--data <dir>]");
+        System.err.println("  archive [--to yyyy-MM] [--data <dir>]");
+        System.err.println("Columnas: " + String.join(",", TaskRecord.FIELDS));
+    }
+
+    private static Options parseArguments(String[] args) {
+        Options options = new Options();
+        options.command = args[0].toLowerCase(Locale.ROOT);
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--format":
+                    options.format = parseFormat(value(args, ++i, arg));
+                    break;
+                case "--data":
+                    options.dataDirectory = new File(value(args, ++i, arg));
+                    break;
+                case "--from":
+                    options.from = parseMonth(value(args, ++i, arg));
+                    break;
+                case "--to":
+                    options.to = parseMonth(value(args, ++i, arg));
+                    break;
+                case "--port":
+                    options.port = parsePort(value(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("--") || options.path != null) {
+                        throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+                    }
+                    options.path = arg;
+            }
+        }
+
+        if (options.command.equals("import") && options.path == null) {
+            throw new IllegalArgumentException("Falta el archivo a importar");
+        }
+        if (options.path == null) {
+            options.path = "-";
+        }
+        if (options.format == null) {
+            String name = options.path.toLowerCase(Locale.ROOT);
+            options.format = name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")
+                    ? Format.JSONL : Format.CSV;
+        }
+        return options;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Falta el valor de " + option);
+        }
+        return args[index];
+    }
+
+    private static Format parseFormat(String value) {
+        try {
+            return Format.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato no soportado: " + value);
+        }
+    }
+
+    private static YearMonth parseMonth(String value) {
+        try {
+            return YearMonth.parse(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Mes invalido (yyyy-MM): " + value);
+        }
+    }
+
+    private static int parsePort(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            if (port < 0 || port > 65535) throw new NumberFormatException();
+            return port;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Puerto invalido: " + value);
+        }
+    }
+
+    // --- Importacion ---
+
+    private static int importTasks(Options options) throws IOException {
+        WriteBatcher batcher = new WriteBatcher(IMPORT_BATCH_SIZE, IMPORT_BATCH_DELAY_MILLIS, WriteBatcher.Durability.FSYNC_BATCH);
+        FileManager fileManager = new FileManager(options.dataDirectory, FileManager.StorageMode.SEGMENT,
+                FileManager.ReadMode.MAPPED, batcher);
+
+        long imported = 0;
+        long skipped = 0;
+        try {
+            CompletableFuture<Void> previousBatch = CompletableFuture.completedFuture(null);
+            try (BufferedReader reader = openInput(options.path)) {
+                RecordReader records = options.format == Format.CSV ? new CsvReader(reader) : new JsonLinesReader(reader);
+                Map<String, String> record;
+                while ((record = records.next()) != null) {
+                    Task task;
+                    try {
+                        task = TaskRecord.toTask(record);
+                    } catch (RuntimeException e) {
+                        skipped++;
+                        System.err.printf("Registro %d omitido: %s%n", records.getRecordNumber(), e.getMessage());
+                        continue;
+                    }
+
+                    fileManager.importTask(task);
+                    imported++;
+                    if (imported % IMPORT_BATCH_SIZE == 0) {
+                        // Como mucho un lote en vuelo: la memoria no crece con el tamaño del archivo
+                        previousBatch.join();
+                        previousBatch = fileManager.awaitDurable();
+                    }
+                }
+            }
+            fileManager.flush().join();
+            // El indice de busqueda no conoce las tareas importadas: se reconstruye en el proximo arranque
+            new File(fileManager.getBaseDirectory(), TaskManager.SEARCH_INDEX_FILE).delete();
+        } finally {
+            fileManager.close();
+            // El lote propio de la importacion no se comparte: se cierra con ella
+            batcher.close();
+        }
+
+        System.err.printf("%d tareas importadas, %d omitidas%n", imported, skipped);
+        return skipped > 0 ? 1 : 0;
+    }
+
+    private static BufferedReader openInput(String path) throws IOException {
+        InputStream in = path.equals("-") ? System.in : new FileInputStream(path);
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    interface RecordReader {
+        // Siguiente registro como columna -> valor, o null al final
+        Map<String, String> next() throws IOException;
+
+        long getRecordNumber();
+    }
+
+    static final class CsvReader implements RecordReader {
+        private final BufferedReader in;
+        private List<String> header;
+        private long recordNumber;
+
+        CsvReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            List<String> row;
+            do {
+                row = readRow();
+                if (row == null) return null;
+            } while (row.size() == 1 && row.get(0).isEmpty());
+
+            if (header == null) {
+                // La cabecera es opcional; sin ella se asume el orden de TaskRecord.FIELDS
+                if (isHeader(row)) {
+                    header = row;
+                    return next();
+                }
+                header = Arrays.asList(TaskRecord.FIELDS);
+            }
+
+            recordNumber++;
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < row.size() && i < header.size(); i++) {
+                record.put(header.get(i), row.get(i));
+            }
+            return record;
+        }
+
+        @Override
+        public long getRecordNumber() {
+            return recordNumber;
+        }
+
+        // Es cabecera si todos los campos son columnas de TaskRecord.FIELDS, sin repetir, y esta el titulo.
+        // Una fila de datos no puede serlo: el ID o las fechas no coinciden con ningun nombre.
+        static boolean isHeader(List<String> row) {
+            Set<String> columns = new HashSet<>(Arrays.asList(TaskRecord.FIELDS));
+            for (String field : row) {
+                if (!columns.remove(field)) return false;
+            }
+            return !columns.contains("title");
+        }
+
+        // Una fila segun RFC 4180: los campos entre comillas pueden contener comas y saltos de linea
+        private List<String> readRow() throws IOException {
+            String line = in.readLine();
+            if (line == null) return null;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) break;
+                    // Salto de linea dentro de un campo entre comillas
+                    line = in.readLine();
+                    if (line == null) break;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    static final class JsonLinesReader implements RecordReader {
+        private final BufferedReader in;
+        private long recordNumber;
+
+        JsonLinesReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) return null;
+            } while (line.trim().isEmpty());
+
+            recordNumber++;
+            try {
+                return TaskRecord.parseJson(line);
+            } catch (IllegalArgumentException e) {
+                // Se devuelve un registro sin titulo para que se informe y se omita
+                Map<String, String> invalid = new HashMap<>();
+                invalid.put("error", e.getMessage());
+                return invalid;
+            }
+        }
+
+        @Override
+        public long getRecordNumber() {
+            return recordNumber;
+        }
+    }
+
+    // --- Exportacion ---
+
+    private static int exportTasks(Options options) throws IOException {
+        FileManager fileManager = new FileManager(options.dataDirectory);
+        long[] exported = {0};
+
+        try (Writer out = openOutput(options.path)) {
+            TaskWriter writer = options.format == Format.CSV ? new CsvWriter(out) : new JsonLinesWriter(out);
+            writer.begin();
+            // Cada mes se lee directamente del segmento, sin pasar por TaskManager
+            for (YearMonth month : fileManager.getAvailableMonths()) {
+                if (options.from != null && month.isBefore(options.from)) continue;
+                if (options.to != null && month.isAfter(options.to)) continue;
+                fileManager.forEachTask(month, task -> {
+                    try {
+                        writer.write(task);
+                        exported[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } finally {
+            fileManager.close();
+        }
+
+        System.err.printf("%d tareas exportadas%n", exported[0]);
+        return 0;
+    }
+
+    // --- Compactacion ---
+
+    // Reescribe todos los meses del rango aunque no lleguen al umbral de datos muertos
+    private static int compact(Options options) {
+        FileManager fileManager = new FileManager(options.dataDirectory);
+        int compacted = 0;
+        try {
+            for (YearMonth month : fileManager.getAvailableMonths()) {
+                if (options.from != null && month.isBefore(options.from)) continue;
+                if (options.to != null && month.isAfter(options.to)) continue;
+                if (fileManager.compactMonth(month, true)) {
+                    compacted++;
+                }
+            }
+            fileManager.flush().join();
+        } finally {
+            fileManager.close();
+        }
+        System.err.printf("%d meses compactados%n", compacted);
+        return 0;
+    }
+
+    // Sin --to se archivan los meses con mas antiguedad que todolist.archive.ageMonths
+    private static int archive(Options options) {
+        FileManager fileManager = new FileManager(options.dataDirectory);
+        int archived;
+        try {
+            archived = options.to != null
+                    ? fileManager.archiveMonthsBefore(options.to.plusMonths(1))
+                    : fileManager.archiveOldMonths();
+            fileManager.flush().join();
+        } finally {
+            fileManager.close();
+        }
+        System.err.printf("%d meses archivados%n", archived);
+        return 0;
+    }
+
+    // --- Servidor HTTP ---
+
+    private static int serve(Options options) throws IOException {
+        Metrics.install();
+        TaskManager taskManager = new TaskManager(options.dataDirectory);
+        taskManager.startWatching();
+        TaskHttpServer server = new TaskHttpServer(taskManager, options.port);
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            taskManager.close();
+            stopped.countDown();
+        }, "http-shutdown"));
+
+        server.start();
+        System.err.printf("API en http://127.0.0.1:%d/api/ (datos en %s)%n", server.getPort(), options.dataDirectory);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    private static Writer openOutput(String path) throws IOException {
+        OutputStream out = path.equals("-") ? new FilterOutputStream(System.out) {
+            @Override
+            public void close() throws IOException {
+                // No cerrar la salida estandar
+                flush();
+            }
+        } : new FileOutputStream(path);
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private interface TaskWriter {
+        void begin() throws IOException;
+
+        void write(Task task) throws IOException;
+    }
+
+    private static final class CsvWriter implements TaskWriter {
+        private final Writer out;
+
+        CsvWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write(String.join(",", TaskRecord.FIELDS));
+            out.write('\n');
+        }
+
+        @Override
+        public void write(Task task) throws IOException {
+            String[] fields = TaskRecord.values(task);
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) out.write(',');
+                writeField(fields[i]);
+            }
+            out.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) return;
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    private static final class JsonLinesWriter implements TaskWriter {
+        private final Writer out;
+
+        JsonLinesWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(Task task) throws IOException {
+            TaskRecord.writeJson(out, task);
+            out.write('\n');
+        }
+    }
+}
\ No newline at end of file
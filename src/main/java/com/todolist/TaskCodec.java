@@ -0,0 +1,227 @@
+package main.java.com.todolist;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// Formato binario compacto de una tarea:
+// [version][flags][id 16 bytes][creacion int][vencimiento int?][completada int?][titulo][descripcion?][categoria?]
+// Las fechas se guardan como dias desde epoch y los textos como UTF-8 precedidos de su longitud (varint).
+// Version 2: si la descripcion esta en el DescriptionStore, en su lugar va su comienzo seguido de
+// [posicion long][longitud int]. Las tareas con la descripcion dentro se siguen escribiendo como version 1.
+public final class TaskCodec {
+    public static final byte FORMAT_VERSION = 2;
+    private static final byte INLINE_VERSION = 1;
+
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_DUE_DATE = 1 << 1;
+    private static final int FLAG_COMPLETION_DATE = 1 << 2;
+    private static final int FLAG_DESCRIPTION = 1 << 3;
+    private static final int FLAG_CATEGORY = 1 << 4;
+    private static final int FLAG_DESCRIPTION_REFERENCE = 1 << 5;
+
+    // Cabecera de un stream de ObjectOutputStream (formato anterior)
+    private static final byte SERIAL_MAGIC_0 = (byte) 0xAC;
+    private static final byte SERIAL_MAGIC_1 = (byte) 0xED;
+
+    private TaskCodec() {
+    }
+
+    // Si la descripcion ya esta guardada aparte solo se escribe la referencia, sin leerla
+    public static byte[] encode(Task task) {
+        DescriptionStore.Reference reference = task.getDescriptionReference();
+        // Al leerla se busca en el mes de la tarea: si cambio de mes se escribe completa
+        if (reference != null && !reference.month.equals(FileManager.getTaskMonth(task))) {
+            reference = null;
+        }
+        return encode(task, reference);
+    }
+
+    // Siempre con la descripcion completa (archivos sueltos del formato LEGACY)
+    public static byte[] encodeInline(Task task) {
+        return encode(task, null);
+    }
+
+    static byte[] encode(Task task, DescriptionStore.Reference reference) {
+        byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+        String descriptionText = reference != null ? reference.getPreview() : task.getDescription();
+        byte[] description = descriptionText != null ? descriptionText.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] category = task.getCategory() != null ? task.getCategory().getBytes(StandardCharsets.UTF_8) : null;
+
+        int flags = 0;
+        int size = 2 + 16 + 4;
+        if (task.isCompleted()) flags |= FLAG_COMPLETED;
+        if (task.getDueDay() != Task.NO_DATE) {
+            flags |= FLAG_DUE_DATE;
+            size += 4;
+        }
+        if (task.getCompletionDay() != Task.NO_DATE) {
+            flags |= FLAG_COMPLETION_DATE;
+            size += 4;
+        }
+        size += varIntSize(title.length) + title.length;
+        if (description != null) {
+            flags |= FLAG_DESCRIPTION;
+            size += varIntSize(description.length) + description.length;
+        }
+        if (reference != null) {
+            flags |= FLAG_DESCRIPTION_REFERENCE;
+            size += 8 + 4;
+        }
+        if (category != null) {
+            flags |= FLAG_CATEGORY;
+            size += varIntSize(category.length) + category.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(reference != null ? FORMAT_VERSION : INLINE_VERSION);
+        buffer.put((byte) flags);
+        buffer.putLong(task.getId().getMostSignificantBits());
+        buffer.putLong(task.getId().getLeastSignificantBits());
+        buffer.putInt(task.getCreationDay());
+        if (task.getDueDay() != Task.NO_DATE) buffer.putInt(task.getDueDay());
+        if (task.getCompletionDay() != Task.NO_DATE) buffer.putInt(task.getCompletionDay());
+        putBytes(buffer, title);
+        if (description != null) putBytes(buffer, description);
+        if (reference != null) {
+            buffer.putLong(reference.offset);
+            buffer.putInt(reference.length);
+        }
+        if (category != null) putBytes(buffer, category);
+        return buffer.array();
+    }
+
+    public static Task decode(byte[] data) throws IOException {
+        return decode(data, 0, data.length);
+    }
+
+    public static Task decode(byte[] data, int offset, int length) throws IOException {
+        return decode(ByteBuffer.wrap(data, offset, length));
+    }
+
+    public static Task decode(ByteBuffer buffer) throws IOException {
+        return decode(buffer, null);
+    }
+
+    public static Task decode(byte[] data, DescriptionStore descriptions) throws IOException {
+        return decode(ByteBuffer.wrap(data), descriptions);
+    }
+
+    // Lee una tarea desde la posicion actual del buffer (de heap o mapeado) y lo deja al final del registro.
+    // Las descripciones guardadas aparte quedan sin leer hasta que se piden.
+    public static Task decode(ByteBuffer buffer, DescriptionStore descriptions) throws IOException {
+        int start = buffer.position();
+        if (buffer.remaining() >= 2 && buffer.get(start) == SERIAL_MAGIC_0 && buffer.get(start + 1) == SERIAL_MAGIC_1) {
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            return decodeSerialized(data, 0, data.length);
+        }
+
+        try {
+            byte version = buffer.get();
+            if (version != FORMAT_VERSION && version != INLINE_VERSION) {
+                throw new IOException("Version de formato de tarea no soportada: " + version);
+            }
+            int flags = buffer.get();
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            int creationDay = buffer.getInt();
+            int dueDay = (flags & FLAG_DUE_DATE) != 0 ? buffer.getInt() : Task.NO_DATE;
+            int completionDay = (flags & FLAG_COMPLETION_DATE) != 0 ? buffer.getInt() : Task.NO_DATE;
+            String title = getString(buffer);
+            String description = (flags & FLAG_DESCRIPTION) != 0 ? getString(buffer) : null;
+            long descriptionOffset = 0;
+            int descriptionLength = 0;
+            boolean referenced = (flags & FLAG_DESCRIPTION_REFERENCE) != 0;
+            if (referenced) {
+                descriptionOffset = buffer.getLong();
+                descriptionLength = buffer.getInt();
+            }
+            String category = (flags & FLAG_CATEGORY) != 0 ? getString(buffer) : null;
+
+            if (!referenced) {
+                return new Task(id, title, description, dueDay, category,
+                        (flags & FLAG_COMPLETED) != 0, completionDay, creationDay);
+            }
+            if (descriptions == null) {
+                throw new IOException("Tarea con la descripcion guardada aparte y sin almacen de descripciones");
+            }
+            Task task = new Task(id, title, null, dueDay, category,
+                    (flags & FLAG_COMPLETED) != 0, completionDay, creationDay);
+            // Las descripciones se guardan en el mes del segmento, que es el de la tarea
+            task.setDescriptionReference(descriptions.reference(FileManager.getTaskMonth(task),
+                    descriptionOffset, descriptionLength, description));
+            return task;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Registro de tarea truncado", e);
+        }
+    }
+
+    // ID de la tarea sin decodificar el resto ni mover el buffer; null si es del formato anterior
+    public static UUID peekId(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (buffer.remaining() < 18) {
+            throw new IOException("Registro de tarea truncado");
+        }
+        if (buffer.get(start) == SERIAL_MAGIC_0 && buffer.get(start + 1) == SERIAL_MAGIC_1) {
+            return null;
+        }
+        return new UUID(buffer.getLong(start + 2), buffer.getLong(start + 10));
+    }
+
+    private static Task decodeSerialized(byte[] data, int offset, int length) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data, offset, length))) {
+            return (Task) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        int value = bytes.length;
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) throws IOException {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) throw new IOException("Longitud de texto invalida");
+            b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Longitud de texto invalida: " + length);
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,367 @@
+package main.java.com.todolist;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Tareas de un mes guardadas por columnas: IDs y fechas en arreglos primitivos, la categoria como
+// codigo de CategoryDictionary, el estado en un BitSet y los textos en UTF-8 dentro de un solo byte[].
+// Cada Task que se pide se arma en ese momento y es una copia: cambiarla no cambia lo guardado.
+// Los recorridos por vencimiento solo leen las columnas de fechas y de estado.
+// No es thread-safe: MonthCache la usa con su monitor tomado.
+public class TaskColumns {
+    // Los textos reemplazados o borrados se recuperan al pasar la mitad del arreglo y este minimo
+    private static final int MIN_GARBAGE_BYTES = 4096;
+
+    // Filas usadas, incluidas las borradas (quedan marcadas hasta compactar)
+    private int rows;
+    private int removedRows;
+    private long[] idHigh;
+    private long[] idLow;
+    private int[] dueDays;
+    private int[] creationDays;
+    private int[] completionDays;
+    private byte[] categories;
+    private final BitSet completed = new BitSet();
+    private final BitSet removed = new BitSet();
+    // Titulo y descripcion de cada fila van seguidos en text, cada uno con su largo + 1 delante
+    // como varint (0 si es null)
+    private int[] textOffsets;
+    private byte[] text;
+    private int textLength;
+    private int garbageBytes;
+    // Pocas filas tienen una categoria fuera del diccionario o una descripcion guardada aparte
+    private final Map<Integer, String> otherCategories = new HashMap<>();
+    private final Map<Integer, DescriptionStore.Reference> references = new HashMap<>();
+    private long sparseBytes;
+    // Tabla hash por ID con direccionamiento abierto, a lo sumo tres cuartos ocupada:
+    // fila + 1, 0 si el lugar esta libre
+    private int[] idTable;
+
+    public TaskColumns(List<Task> tasks) {
+        load(tasks);
+    }
+
+    public int size() {
+        return rows - removedRows;
+    }
+
+    public List<Task> toList() {
+        List<Task> tasks = new ArrayList<>(size());
+        for (int row = removed.nextClearBit(0); row < rows; row = removed.nextClearBit(row + 1)) {
+            tasks.add(task(row));
+        }
+        return tasks;
+    }
+
+    public Task find(UUID id) {
+        int row = rowOf(id);
+        return row >= 0 ? task(row) : null;
+    }
+
+    public boolean contains(UUID id) {
+        return rowOf(id) >= 0;
+    }
+
+    public void add(Task task) {
+        if (rows == idHigh.length) {
+            grow(rows + (rows >> 1) + 1);
+        }
+        int row = rows++;
+        write(row, task);
+        if (rows * 4L > idTable.length * 3L) {
+            rehash(tableSize(rows * 2));
+        } else {
+            place(row);
+        }
+    }
+
+    // Reemplaza la fila con el mismo ID; false si no estaba
+    public boolean update(Task task) {
+        int row = rowOf(task.getId());
+        if (row < 0) return false;
+        release(row);
+        write(row, task);
+        compactIfSparse();
+        return true;
+    }
+
+    public boolean remove(UUID id) {
+        int row = rowOf(id);
+        if (row < 0) return false;
+        release(row);
+        removed.set(row);
+        removedRows++;
+        compactIfSparse();
+        return true;
+    }
+
+    // Tareas con vencimiento entre fromDay y toDay (inclusivos), en el orden de las filas.
+    // Solo se arman las tareas que entran en el rango.
+    public List<Task> selectDue(long fromDay, long toDay, boolean pendingOnly) {
+        List<Task> selected = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            int dueDay = dueDays[row];
+            if (dueDay == Task.NO_DATE || dueDay < fromDay || dueDay > toDay) continue;
+            if (removed.get(row) || (pendingOnly && completed.get(row))) continue;
+            selected.add(task(row));
+        }
+        return selected;
+    }
+
+    // Heap aproximado: los arreglos segun su capacidad y lo que se guarda fuera de las columnas
+    public long estimatedBytes() {
+        long capacity = idHigh.length;
+        long bytes = 256;
+        bytes += capacity * (8 + 8 + 4 + 4 + 4 + 1 + 4);
+        bytes += 4L * idTable.length + text.length;
+        bytes += (completed.size() + removed.size()) / 8;
+        return bytes + sparseBytes;
+    }
+
+    // --- Filas ---
+
+    private void load(List<Task> tasks) {
+        int capacity = Math.max(tasks.size(), 1);
+        idHigh = new long[capacity];
+        idLow = new long[capacity];
+        dueDays = new int[capacity];
+        creationDays = new int[capacity];
+        completionDays = new int[capacity];
+        categories = new byte[capacity];
+        textOffsets = new int[capacity];
+        completed.clear();
+        removed.clear();
+        otherCategories.clear();
+        references.clear();
+        sparseBytes = 0;
+        rows = 0;
+        removedRows = 0;
+        garbageBytes = 0;
+
+        // Los textos en UTF-8 ocupan al menos un byte por caracter; el arreglo se ajusta al final
+        long chars = 0;
+        for (Task task : tasks) {
+            chars += 2 + length(task.getTitle()) + length(task.getLoadedDescription());
+        }
+        text = new byte[(int) Math.min(chars, Integer.MAX_VALUE - 8)];
+        textLength = 0;
+        for (Task task : tasks) {
+            write(rows++, task);
+        }
+        if (text.length != textLength) {
+            text = Arrays.copyOf(text, textLength);
+        }
+        rehash(tableSize(rows));
+    }
+
+    private Task task(int row) {
+        int offset = textOffsets[row];
+        int titleLength = readLength(offset);
+        offset += lengthSize(titleLength);
+        String title = string(offset, titleLength);
+        offset += Math.max(titleLength, 0);
+        int descriptionLength = readLength(offset);
+        String description = string(offset + lengthSize(descriptionLength), descriptionLength);
+        byte code = categories[row];
+        String category = code == CategoryDictionary.OTHER ? otherCategories.get(row) : CategoryDictionary.decode(code);
+
+        Task task = new Task(new UUID(idHigh[row], idLow[row]), title, description, dueDays[row], category,
+                completed.get(row), completionDays[row], creationDays[row]);
+        if (!references.isEmpty()) {
+            DescriptionStore.Reference reference = references.get(row);
+            if (reference != null) {
+                task.setDescriptionReference(reference);
+            }
+        }
+        return task;
+    }
+
+    private void write(int row, Task task) {
+        UUID id = task.getId();
+        idHigh[row] = id.getMostSignificantBits();
+        idLow[row] = id.getLeastSignificantBits();
+        dueDays[row] = task.getDueDay();
+        creationDays[row] = task.getCreationDay();
+        completionDays[row] = task.getCompletionDay();
+        completed.set(row, task.isCompleted());
+
+        String category = task.getCategory();
+        byte code = CategoryDictionary.encode(category);
+        categories[row] = code;
+        if (code == CategoryDictionary.OTHER) {
+            otherCategories.put(row, category);
+            sparseBytes += 64 + 2L * category.length();
+        }
+
+        // Una descripcion larga que no se leyo queda como referencia: no se va a buscar a disco
+        DescriptionStore.Reference reference = task.getDescriptionReference();
+        if (reference != null) {
+            references.put(row, reference);
+            sparseBytes += 128 + 2L * reference.getPreview().length();
+        }
+
+        byte[] title = bytes(task.getTitle());
+        byte[] description = bytes(task.getLoadedDescription());
+        ensureText(2 * 5 + length(title) + length(description));
+        textOffsets[row] = textLength;
+        append(title);
+        append(description);
+    }
+
+    // Lo que la fila ocupa fuera de las columnas, antes de reescribirla o borrarla
+    private void release(int row) {
+        garbageBytes += rowTextBytes(row);
+        String category = otherCategories.remove(row);
+        if (category != null) {
+            sparseBytes -= 64 + 2L * category.length();
+        }
+        DescriptionStore.Reference reference = references.remove(row);
+        if (reference != null) {
+            sparseBytes -= 128 + 2L * reference.getPreview().length();
+        }
+    }
+
+    // Con la mitad de las filas borradas o la mitad de los textos sin uso se vuelve a armar todo
+    private void compactIfSparse() {
+        boolean sparseRows = removedRows * 2 > rows;
+        boolean sparseText = garbageBytes > MIN_GARBAGE_BYTES && garbageBytes * 2L > textLength;
+        if (sparseRows || sparseText) {
+            load(toList());
+        }
+    }
+
+    private void grow(int capacity) {
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        dueDays = Arrays.copyOf(dueDays, capacity);
+        creationDays = Arrays.copyOf(creationDays, capacity);
+        completionDays = Arrays.copyOf(completionDays, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        textOffsets = Arrays.copyOf(textOffsets, capacity);
+    }
+
+    // --- Textos ---
+
+    private void ensureText(int bytes) {
+        long needed = (long) textLength + bytes;
+        if (needed <= text.length) return;
+        if (needed > Integer.MAX_VALUE - 8) throw new IllegalStateException("Textos del mes demasiado grandes");
+        text = Arrays.copyOf(text, (int) Math.min(Math.max(needed, text.length + (text.length >> 1)), Integer.MAX_VALUE - 8));
+    }
+
+    private void append(byte[] bytes) {
+        int value = bytes != null ? bytes.length + 1 : 0;
+        while ((value & ~0x7F) != 0) {
+            text[textLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        text[textLength++] = (byte) value;
+        if (bytes != null) {
+            System.arraycopy(bytes, 0, text, textLength, bytes.length);
+            textLength += bytes.length;
+        }
+    }
+
+    // Largo del texto que empieza en offset, -1 si es null
+    private int readLength(int offset) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = text[offset++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value - 1;
+    }
+
+    private static int lengthSize(int length) {
+        int value = length + 1;
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private int rowTextBytes(int row) {
+        int offset = textOffsets[row];
+        for (int i = 0; i < 2; i++) {
+            int length = readLength(offset);
+            offset += lengthSize(length) + Math.max(length, 0);
+        }
+        return offset - textOffsets[row];
+    }
+
+    private String string(int offset, int length) {
+        return length >= 0 ? new String(text, offset, length, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    // --- Busqueda por ID ---
+
+    private int rowOf(UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        for (int slot = slot(hash(high, low)); ; slot = next(slot)) {
+            int entry = idTable[slot];
+            if (entry == 0) return -1;
+            int row = entry - 1;
+            // Una fila borrada puede tener el mismo ID que otra agregada despues
+            if (idHigh[row] == high && idLow[row] == low && !removed.get(row)) return row;
+        }
+    }
+
+    private void place(int row) {
+        int slot = slot(hash(idHigh[row], idLow[row]));
+        while (idTable[slot] != 0) {
+            slot = next(slot);
+        }
+        idTable[slot] = row + 1;
+    }
+
+    private void rehash(int size) {
+        idTable = new int[size];
+        for (int row = 0; row < rows; row++) {
+            if (!removed.get(row)) {
+                place(row);
+            }
+        }
+    }
+
+    // Sin redondear a potencia de dos: la tabla es una parte fija del tamaño de cada fila
+    private static int tableSize(int rows) {
+        return (int) Math.min(rows * 4L / 3 + 2, Integer.MAX_VALUE - 8);
+    }
+
+    private int slot(int hash) {
+        return (int) ((hash & 0xffffffffL) * idTable.length >>> 32);
+    }
+
+    private int next(int slot) {
+        return slot + 1 == idTable.length ? 0 : slot + 1;
+    }
+
+    private static int hash(long high, long low) {
+        int hash = Long.hashCode(high ^ low);
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,368 @@
+package main.java.com.todolist;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// API HTTP/JSON local (solo 127.0.0.1) delante de TaskManager:
+//   GET    /api/months                         meses con sus contadores
+//   GET    /api/months/{yyyy-MM}/tasks         tareas del mes (?status=pending|completed), con ETag
+//   GET    /api/tasks?from=yyyy-MM-dd&to=...   tareas con vencimiento en el rango, con ETag
+//   GET    /api/tasks/overdue                  tareas pendientes vencidas
+//   POST   /api/tasks                          crea una tarea
+//   GET    /api/tasks/{id}                     una tarea
+//   PUT    /api/tasks/{id}                     reemplaza una tarea
+//   DELETE /api/tasks/{id}                     elimina una tarea
+//   POST   /api/tasks/{id}/toggle              alterna pendiente/completada
+// Las listas se escriben a medida que se serializan (respuesta chunked).
+public class TaskHttpServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    // Sin hilos virtuales (JDK < 21) las peticiones comparten un pool acotado
+    private static final int FALLBACK_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final TaskManager taskManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    // Distingue los ETags de cada arranque: los contadores de version empiezan de cero
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36);
+
+    public TaskHttpServer(TaskManager taskManager, int port) throws IOException {
+        this.taskManager = taskManager;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    // Un hilo virtual por peticion si el JDK los tiene (se busca por reflexion para compilar con Java 17)
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(FALLBACK_THREADS, r -> {
+                Thread thread = new Thread(r, "http-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // --- Enrutado ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+            String method = exchange.getRequestMethod();
+
+            if (path[0].equals("months")) {
+                if (path.length == 1 && method.equals("GET")) {
+                    sendMonths(exchange);
+                } else if (path.length == 3 && path[2].equals("tasks") && method.equals("GET")) {
+                    sendMonthTasks(exchange, parseMonth(path[1]));
+                } else {
+                    throw notFound();
+                }
+            } else if (path[0].equals("tasks")) {
+                routeTasks(exchange, method, path);
+            } else {
+                throw notFound();
+            }
+        } catch (HttpError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            Metrics.error(cause);
+            sendError(exchange, 500, String.valueOf(cause.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void routeTasks(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                sendRange(exchange);
+            } else if (method.equals("POST")) {
+                createTask(exchange);
+            } else {
+                throw notFound();
+            }
+            return;
+        }
+        if (path.length == 2 && path[1].equals("overdue") && method.equals("GET")) {
+            sendTasks(exchange, taskManager.findOverdueTasks(), null);
+            return;
+        }
+
+        UUID id;
+        try {
+            id = UUID.fromString(path[1]);
+        } catch (IllegalArgumentException e) {
+            throw notFound();
+        }
+        Task task = taskManager.findTaskById(id);
+        if (task == null) {
+            throw new HttpError(404, "No existe la tarea " + id);
+        }
+
+        if (path.length == 2) {
+            switch (method) {
+                case "GET":
+                    sendTask(exchange, 200, task);
+                    return;
+                case "PUT":
+                    updateTask(exchange, task);
+                    return;
+                case "DELETE":
+                    taskManager.deleteTaskAsync(task).join();
+                    sendEmpty(exchange, 204);
+                    return;
+                default:
+                    throw notFound();
+            }
+        }
+        if (path.length == 3 && path[2].equals("toggle") && method.equals("POST")) {
+            Task toggled = task.isCompleted()
+                ? taskManager.markTaskAsPendingAsync(task).join()
+                : taskManager.markTaskAsCompletedAsync(task).join();
+            sendTask(exchange, 200, toggled);
+            return;
+        }
+        throw notFound();
+    }
+
+    // --- Lecturas ---
+
+    private void sendMonths(HttpExchange exchange) throws IOException {
+        List<MonthManifest.MonthSummary> summaries = taskManager.getMonthSummaries();
+        try (Writer out = beginStream(exchange, null)) {
+            out.write('[');
+            for (int i = 0; i < summaries.size(); i++) {
+                MonthManifest.MonthSummary summary = summaries.get(i);
+                if (i > 0) out.write(',');
+                out.write(String.format("{\"month\":\"%s\",\"pending\":%d,\"completed\":%d,\"lastModified\":%d}",
+                        summary.getMonth(), summary.getPending(), summary.getCompleted(), summary.getLastModified()));
+            }
+            out.write(']');
+        }
+    }
+
+    private void sendMonthTasks(HttpExchange exchange, YearMonth month) throws IOException {
+        // La version se lee antes que los datos: si cambian en medio, el ETag queda viejo y no al reves
+        String etag = etag(month.toString(), taskManager.getMonthVersion(month));
+        if (notModified(exchange, etag)) return;
+
+        String status = query(exchange).get("status");
+        List<Task> tasks = taskManager.getTasksForMonth(month);
+        if (status != null) {
+            if (!status.equals("pending") && !status.equals("completed")) {
+                throw new IllegalArgumentException("status debe ser pending o completed");
+            }
+            boolean completed = status.equals("completed");
+            List<Task> filtered = new ArrayList<>();
+            for (Task task : tasks) {
+                if (task.isCompleted() == completed) filtered.add(task);
+            }
+            tasks = filtered;
+        }
+        sendTasks(exchange, tasks, etag);
+    }
+
+    private void sendRange(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange);
+        if (!query.containsKey("from") || !query.containsKey("to")) {
+            throw new IllegalArgumentException("Faltan los parametros from y to (yyyy-MM-dd)");
+        }
+        LocalDate from = LocalDate.parse(query.get("from"));
+        LocalDate to = LocalDate.parse(query.get("to"));
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to es anterior a from");
+        }
+
+        // El ETag combina las versiones de todos los meses del rango
+        StringBuilder versions = new StringBuilder();
+        for (YearMonth month : FileManager.monthsBetween(from, to)) {
+            versions.append(taskManager.getMonthVersion(month)).append('.');
+        }
+        String etag = etag(from + "_" + to, versions.toString().hashCode());
+        if (notModified(exchange, etag)) return;
+
+        sendTasks(exchange, taskManager.findTasksDueBetween(from, to), etag);
+    }
+
+    // --- Escrituras (se encolan en el hilo de E/S de TaskManager) ---
+
+    private void createTask(HttpExchange exchange) throws IOException {
+        Task task = TaskRecord.toTask(readBody(exchange));
+        if (taskManager.findTaskById(task.getId()) != null) {
+            throw new HttpError(409, "Ya existe la tarea " + task.getId());
+        }
+        taskManager.addTaskAsync(task).join();
+        exchange.getResponseHeaders().set("Location", "/api/tasks/" + task.getId());
+        sendTask(exchange, 201, task);
+    }
+
+    private void updateTask(HttpExchange exchange, Task task) throws IOException {
+        Map<String, String> body = readBody(exchange);
+        // El ID de la ruta manda; la fecha de creacion se conserva si no viene
+        body.put("id", task.getId().toString());
+        body.putIfAbsent("creationDate", task.getCreationDate().toString());
+        Task updated = TaskRecord.toTask(body);
+        taskManager.updateTaskAsync(task, updated).join();
+        sendTask(exchange, 200, updated);
+    }
+
+    // --- Utilidades ---
+
+    private String etag(String key, long version) {
+        return "\"" + etagPrefix + "-" + key + "-" + version + "\"";
+    }
+
+    private boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) value = value.substring(2);
+            if (value.equals("*") || value.equals(etag)) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                sendEmpty(exchange, 304);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Writer beginStream(HttpExchange exchange, String etag) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON);
+        if (etag != null) {
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", "no-cache");
+        }
+        // Longitud 0: cuerpo chunked, se envia mientras se escribe
+        exchange.sendResponseHeaders(200, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 14);
+    }
+
+    private void sendTasks(HttpExchange exchange, List<Task> tasks, String etag) throws IOException {
+        try (Writer out = beginStream(exchange, etag)) {
+            out.write('[');
+            for (int i = 0; i < tasks.size(); i++) {
+                if (i > 0) out.write(",\n");
+                TaskRecord.writeJson(out, tasks.get(i));
+            }
+            out.write("]\n");
+        }
+    }
+
+    private void sendTask(HttpExchange exchange, int status, Task task) throws IOException {
+        StringWriter json = new StringWriter();
+        TaskRecord.writeJson(json, task);
+        sendJson(exchange, status, json.toString());
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringWriter json = new StringWriter();
+        json.write("{\"error\":");
+        TaskRecord.writeString(json, message != null ? message : "");
+        json.write('}');
+        sendJson(exchange, status, json.toString());
+    }
+
+    private void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Sin cuerpo, HttpServer decide al enviar las cabeceras si la conexion se reutiliza, y la cierra
+    // si la peticion no se leyo entera: el cliente que la reutilizaba recibia un reset
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.getRequestBody().close();
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (body.isEmpty()) {
+                throw new IllegalArgumentException("Falta el cuerpo JSON");
+            }
+            return TaskRecord.parseJson(body);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> values = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return values;
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator < 0) continue;
+            values.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static YearMonth parseMonth(String value) {
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new HttpError(404, "Mes invalido: " + value);
+        }
+    }
+
+    private static HttpError notFound() {
+        return new HttpError(404, "Recurso no encontrado");
+    }
+}
\ No newline at end of file
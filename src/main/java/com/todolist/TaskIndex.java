@@ -0,0 +1,213 @@
+package main.java.com.todolist;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Indices secundarios sobre las tareas en memoria: por categoria, por estado y por fecha de vencimiento.
+// Cada tarea ocupa una posicion fija y los indices son BitSets sobre esas posiciones,
+// asi las consultas combinadas se resuelven con operaciones de bits sin recorrer la lista.
+public class TaskIndex {
+    private final List<Task> slots = new ArrayList<>();
+    // Claves con las que se indexo cada posicion (la tarea puede cambiar antes de avisar al indice)
+    private final List<String> slotCategories = new ArrayList<>();
+    // Vencimiento de cada posicion en dias (Task.NO_DATE si no tiene)
+    private int[] slotDueDays = new int[16];
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+    private final BitSet completed = new BitSet();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final NavigableMap<Integer, BitSet> byDueDay = new TreeMap<>();
+
+    public void clear() {
+        slots.clear();
+        slotCategories.clear();
+        slotById.clear();
+        freeSlots.clear();
+        live.clear();
+        completed.clear();
+        byCategory.clear();
+        byDueDay.clear();
+    }
+
+    // Copia independiente: se modifica la copia y se publica sin tocar el indice que se esta leyendo
+    public TaskIndex copy() {
+        TaskIndex copy = new TaskIndex();
+        copy.slots.addAll(slots);
+        copy.slotCategories.addAll(slotCategories);
+        copy.slotDueDays = slotDueDays.clone();
+        copy.slotById.putAll(slotById);
+        copy.freeSlots.addAll(freeSlots);
+        copy.live.or(live);
+        copy.completed.or(completed);
+        for (Map.Entry<String, BitSet> entry : byCategory.entrySet()) {
+            copy.byCategory.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        for (Map.Entry<Integer, BitSet> entry : byDueDay.entrySet()) {
+            copy.byDueDay.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        return copy;
+    }
+
+    public void rebuild(List<Task> tasks) {
+        clear();
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    public void add(Task task) {
+        if (slotById.containsKey(task.getId())) {
+            update(task);
+            return;
+        }
+
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = slots.size();
+            slots.add(task);
+            slotCategories.add(null);
+            if (slot == slotDueDays.length) {
+                slotDueDays = Arrays.copyOf(slotDueDays, slot * 2);
+            }
+        } else {
+            slot = freeSlots.pop();
+            slots.set(slot, task);
+        }
+        slotById.put(task.getId(), slot);
+        indexSlot(slot, task);
+    }
+
+    // Reindexa una tarea cuyos campos cambiaron (o que fue reemplazada por otra con el mismo ID)
+    public void update(Task task) {
+        Integer slot = slotById.get(task.getId());
+        if (slot == null) {
+            add(task);
+            return;
+        }
+        unindexSlot(slot);
+        slots.set(slot, task);
+        indexSlot(slot, task);
+    }
+
+    // La tarea (o su copia con el mismo ID) solo cambio de estado
+    public void statusChanged(Task task) {
+        Integer slot = slotById.get(task.getId());
+        if (slot != null) {
+            slots.set(slot, task);
+            completed.set(slot, task.isCompleted());
+        }
+    }
+
+    public void remove(UUID id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) return;
+
+        unindexSlot(slot);
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    public int size() {
+        return slotById.size();
+    }
+
+    // Consulta combinada; los parametros null no filtran. Las fechas son inclusivas.
+    public List<Task> query(String category, Boolean isCompleted, LocalDate dueFrom, LocalDate dueTo) {
+        BitSet result = (BitSet) live.clone();
+
+        if (category != null) {
+            BitSet categorySlots = byCategory.get(category);
+            if (categorySlots == null) return new ArrayList<>();
+            result.and(categorySlots);
+        }
+
+        if (isCompleted != null) {
+            if (isCompleted) {
+                result.and(completed);
+            } else {
+                result.andNot(completed);
+            }
+        }
+
+        if (dueFrom != null || dueTo != null) {
+            NavigableMap<Integer, BitSet> range = byDueDay;
+            if (dueFrom != null && dueTo != null) {
+                range = byDueDay.subMap(toDay(dueFrom), true, toDay(dueTo), true);
+            } else if (dueFrom != null) {
+                range = byDueDay.tailMap(toDay(dueFrom), true);
+            } else {
+                range = byDueDay.headMap(toDay(dueTo), true);
+            }
+            BitSet dueSlots = new BitSet();
+            for (BitSet day : range.values()) {
+                dueSlots.or(day);
+            }
+            result.and(dueSlots);
+        }
+
+        List<Task> tasks = new ArrayList<>(result.cardinality());
+        for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+            tasks.add(slots.get(slot));
+        }
+        return tasks;
+    }
+
+    // Las fechas fuera del rango de int (LocalDate.MIN o MAX) se acotan; NO_DATE nunca esta en el mapa
+    private static int toDay(LocalDate date) {
+        return (int) Math.max(Math.min(date.toEpochDay(), Integer.MAX_VALUE), Integer.MIN_VALUE + 1L);
+    }
+
+    private void indexSlot(int slot, Task task) {
+        live.set(slot);
+        completed.set(slot, task.isCompleted());
+
+        String category = task.getCategory();
+        slotCategories.set(slot, category);
+        if (category != null) {
+            byCategory.computeIfAbsent(category, c -> new BitSet()).set(slot);
+        }
+
+        int dueDay = task.getDueDay();
+        slotDueDays[slot] = dueDay;
+        if (dueDay != Task.NO_DATE) {
+            byDueDay.computeIfAbsent(dueDay, d -> new BitSet()).set(slot);
+        }
+    }
+
+    private void unindexSlot(int slot) {
+        live.clear(slot);
+        completed.clear(slot);
+
+        String category = slotCategories.get(slot);
+        if (category != null) {
+            BitSet categorySlots = byCategory.get(category);
+            categorySlots.clear(slot);
+            if (categorySlots.isEmpty()) {
+                byCategory.remove(category);
+            }
+        }
+
+        int dueDay = slotDueDays[slot];
+        if (dueDay != Task.NO_DATE) {
+            BitSet daySlots = byDueDay.get(dueDay);
+            daySlots.clear(slot);
+            if (daySlots.isEmpty()) {
+                byDueDay.remove(dueDay);
+            }
+        }
+        slotCategories.set(slot, null);
+        slotDueDays[slot] = Task.NO_DATE;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package main.java.com.todolist;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// Cambios en las tareas del TaskManager; se notifican desde el hilo que hizo el cambio
+public interface TaskListener {
+    void taskAdded(Task task);
+
+    void taskUpdated(Task task);
+
+    void taskRemoved(Task task);
+
+    // Se reemplazaron todas las tareas en memoria por las del mes indicado
+    void monthLoaded(YearMonth month, List<Task> tasks);
+}
\ No newline at end of file
@@ -1,105 +1,762 @@
 package main.java.com.todolist;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class TaskManager {
-    private List<Task> tasks;
-    private FileManager fileManager;
-    private YearMonth currentViewMonth;
+    private static final int DEFAULT_CACHE_MONTHS = 12;
+    private static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+    static final String SEARCH_INDEX_FILE = "search.idx";
+    private static final long SEARCH_INDEX_SAVE_SECONDS = 10;
+    private static final long VIEW_SNAPSHOT_SAVE_SECONDS = 5;
+
+    // Tareas del mes a la vista. Nunca se modifica despues de publicada: cada cambio arma una vista
+    // nueva bajo writeLock y la publica, asi los lectores no toman locks. La vista nueva copia los
+    // mapas y el indice de la anterior y aplica solo el cambio, sin volver a indexar todas las tareas.
+    private static final class View {
+        final YearMonth month;
+        // En el orden en que se agregaron; reemplazar una tarea conserva su lugar
+        private final LinkedHashMap<UUID, Task> tasksById;
+        // Indices por categoria, estado y vencimiento de las tareas de la vista
+        private final TaskIndex taskIndex;
+        // Lista de getTasks(), armada la primera vez que se pide
+        private volatile List<Task> tasks;
+        
+        View(YearMonth month, List<Task> tasks) {
+            this.month = month;
+            this.tasksById = new LinkedHashMap<>(tasks.size() * 2);
+            for (Task task : tasks) {
+                tasksById.put(task.getId(), task);
+            }
+            this.taskIndex = new TaskIndex();
+            taskIndex.rebuild(new ArrayList<>(tasksById.values()));
+            // Sin IDs repetidos la lista recibida es la de la vista: la de MonthCache sigue en uso
+            // y volver al mes no arma otra vez sus tareas
+            if (tasksById.size() == tasks.size()) {
+                this.tasks = Collections.unmodifiableList(tasks);
+            }
+        }
+        
+        private View(View previous) {
+            this.month = previous.month;
+            this.tasksById = new LinkedHashMap<>(previous.tasksById);
+            this.taskIndex = previous.taskIndex.copy();
+        }
+        
+        // Vista con la tarea reemplazada (mismo ID) o agregada si es del mes; sin ella si cambio de mes
+        View with(Task task) {
+            if (!FileManager.getTaskMonth(task).equals(month)) {
+                return without(task.getId());
+            }
+            View next = new View(this);
+            next.tasksById.put(task.getId(), task);
+            next.taskIndex.update(task);
+            return next;
+        }
+        
+        // Vista con la tarea en lugar de la del mismo ID, que solo cambio de estado
+        View withStatus(Task task) {
+            if (!tasksById.containsKey(task.getId())) return this;
+            View next = new View(this);
+            next.tasksById.put(task.getId(), task);
+            next.taskIndex.statusChanged(task);
+            return next;
+        }
+        
+        View without(UUID id) {
+            if (!tasksById.containsKey(id)) return this;
+            View next = new View(this);
+            next.tasksById.remove(id);
+            next.taskIndex.remove(id);
+            return next;
+        }
+        
+        Task get(UUID id) {
+            return tasksById.get(id);
+        }
+        
+        // Dos lectores pueden armarla a la vez: arman la misma lista
+        List<Task> tasks() {
+            List<Task> list = tasks;
+            if (list == null) {
+                list = Collections.unmodifiableList(new ArrayList<>(tasksById.values()));
+                tasks = list;
+            }
+            return list;
+        }
+        
+        List<Task> query(String category, Boolean completed, LocalDate dueFrom, LocalDate dueTo) {
+            return taskIndex.query(category, completed, dueFrom, dueTo);
+        }
+    }
+    
+    private volatile View view;
+    // Serializa las escrituras entre si; los lectores solo leen la vista publicada
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final File baseDirectory;
+    private volatile FileManager fileManager;
+    // Mes pedido; la vista puede seguir mostrando el anterior mientras se carga
+    private final AtomicReference<YearMonth> currentViewMonth;
+    private MonthCache monthCache;
+    // Hilo en segundo plano para precargar los meses vecinos
+    private ExecutorService prefetchExecutor;
+    // Hilo unico de E/S: las operaciones asincronas se ejecutan en el orden en que se pidieron
+    private ExecutorService ioExecutor;
+    // Tareas de mantenimiento en segundo plano (indice de busqueda)
+    private ScheduledExecutorService maintenanceExecutor;
+    private volatile SearchIndex searchIndex;
+    // Avisos de vencimiento de las tareas pendientes de todos los meses
+    private final ReminderScheduler reminders;
+    // Copia de la vista para el proximo arranque; solo con carga en segundo plano (la interfaz)
+    private ViewSnapshot viewSnapshot;
+    private View savedView;
+    private CompletableFuture<Void> ready;
+    private DataDirectoryWatcher watcher;
+    private List<TaskListener> listeners = new CopyOnWriteArrayList<>();
     
     public TaskManager() {
-        this.tasks = new ArrayList<>();
-        this.fileManager = new FileManager();
-        this.currentViewMonth = YearMonth.now();
+        this(DEFAULT_CACHE_MONTHS, DEFAULT_CACHE_BYTES, false);
+    }
+    
+    public TaskManager(boolean loadInBackground) {
+        this(DEFAULT_CACHE_MONTHS, DEFAULT_CACHE_BYTES, loadInBackground);
+    }
+    
+    public TaskManager(File baseDirectory) {
+        this(baseDirectory, DEFAULT_CACHE_MONTHS, DEFAULT_CACHE_BYTES, false);
+    }
+    
+    public TaskManager(int cacheMonths, long cacheBytes) {
+        this(cacheMonths, cacheBytes, false);
+    }
+    
+    public TaskManager(int cacheMonths, long cacheBytes, boolean loadInBackground) {
+        this(null, cacheMonths, cacheBytes, loadInBackground);
+    }
+    
+    // baseDirectory null usa el directorio de datos por defecto
+    public TaskManager(File baseDirectory, int cacheMonths, long cacheBytes, boolean loadInBackground) {
+        this.baseDirectory = baseDirectory;
+        this.currentViewMonth = new AtomicReference<>(YearMonth.now());
+        this.view = new View(currentViewMonth.get(), new ArrayList<>());
+        this.monthCache = new MonthCache(cacheMonths, cacheBytes);
+        this.prefetchExecutor = newDaemonExecutor("month-prefetch");
+        this.ioExecutor = newDaemonExecutor("task-io");
+        this.maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        File directory = baseDirectory != null ? baseDirectory : new File(FileManager.BASE_DIR);
+        this.reminders = new ReminderScheduler(Clock.systemDefaultZone(), new File(directory, ReminderScheduler.FILE_NAME));
+        addTaskListener(reminders);
+        
+        if (loadInBackground) {
+            // Mientras tanto se muestra la copia del ultimo mes visto; la carga la corrige
+            restoreViewSnapshot();
+            // La migracion y la primera carga no bloquean al hilo que crea el TaskManager
+            this.ready = CompletableFuture.runAsync(this::initialize, ioExecutor);
+        } else {
+            initialize();
+            this.ready = CompletableFuture.completedFuture(null);
+        }
+    }
+    
+    private static ExecutorService newDaemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private void initialize() {
+        this.fileManager = baseDirectory != null ? new FileManager(baseDirectory) : new FileManager();
+        initializeSearchIndex();
         loadTasksForCurrentMonth();
+        // Corrige el manifiesto si los datos se modificaron sin pasar por la aplicacion
+        maintenanceExecutor.execute(fileManager::validateManifest);
+        // Con el manifiesto ya corregido se programan los vencimientos de todos los meses
+        maintenanceExecutor.execute(this::seedReminders);
+        // Comprime los meses viejos que todavia estan como segmento
+        maintenanceExecutor.execute(fileManager::archiveOldMonths);
+    }
+    
+    private void restoreViewSnapshot() {
+        File directory = baseDirectory != null ? baseDirectory : new File(FileManager.BASE_DIR);
+        ViewSnapshot snapshot = new ViewSnapshot(new File(directory, ViewSnapshot.FILE_NAME),
+            DescriptionStore.forDirectory(directory));
+        ViewSnapshot.Contents contents = snapshot.load();
+        if (contents != null) {
+            currentViewMonth.set(contents.getMonth());
+            view = new View(contents.getMonth(), contents.getTasks());
+            savedView = view;
+        }
+        this.viewSnapshot = snapshot;
+        
+        // Se guarda solo si la vista cambio desde la ultima copia
+        maintenanceExecutor.scheduleWithFixedDelay(this::saveViewSnapshot,
+            VIEW_SNAPSHOT_SAVE_SECONDS, VIEW_SNAPSHOT_SAVE_SECONDS, TimeUnit.SECONDS);
+        // La ultima copia la guarda close()
+    }
+    
+    private synchronized void saveViewSnapshot() {
+        View current = view;
+        // Antes de la primera carga la vista es la propia copia (o esta vacia)
+        if (current == savedView || ready == null || !ready.isDone()) return;
+        viewSnapshot.save(current.month, current.tasks());
+        savedView = current;
+    }
+    
+    private void initializeSearchIndex() {
+        // Las descripciones guardadas aparte se leen en el hilo de mantenimiento
+        SearchIndex index = new SearchIndex(new File(fileManager.getBaseDirectory(), SEARCH_INDEX_FILE), maintenanceExecutor);
+        boolean loaded = index.load();
+        this.searchIndex = index;
+        addTaskListener(index);
+        
+        if (!loaded) {
+            // Primera ejecucion o indice dañado: se reconstruye recorriendo todos los meses
+            maintenanceExecutor.execute(() -> {
+                for (YearMonth month : fileManager.getAvailableMonths()) {
+                    for (Task task : fileManager.loadTasksForMonth(month)) {
+                        index.indexIfAbsent(task);
+                    }
+                }
+                index.save();
+            });
+        }
+        // Lo que quede sin guardar lo guarda close()
+        maintenanceExecutor.scheduleWithFixedDelay(() -> {
+            if (index.isDirty()) index.save();
+        }, SEARCH_INDEX_SAVE_SECONDS, SEARCH_INDEX_SAVE_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    // Solo se leen los meses que, segun el manifiesto, tienen tareas pendientes
+    private void seedReminders() {
+        try {
+            for (MonthManifest.MonthSummary summary : fileManager.getMonthSummaries()) {
+                if (summary.getPending() == 0) continue;
+                reminders.seed(fileManager.loadTasksForMonth(summary.getMonth(), false));
+            }
+        } finally {
+            reminders.seedingFinished();
+        }
+    }
+    
+    public ReminderScheduler getReminders() {
+        return reminders;
+    }
+    
+    // Busqueda de texto en todas las tareas de todos los meses
+    public List<SearchIndex.Result> search(String query, int limit) {
+        ready.join();
+        return searchIndex.search(query, limit);
+    }
+    
+    // No bloquea mientras termina la carga inicial
+    public CompletableFuture<List<SearchIndex.Result>> searchAsync(String query, int limit) {
+        return ready.thenApplyAsync(v -> searchIndex.search(query, limit), ioExecutor);
+    }
+    
+    // Se completa cuando la carga inicial termino
+    public CompletableFuture<Void> getReadyFuture() {
+        return ready;
+    }
+    
+    // Aplica los cambios que otros procesos hagan en el directorio de datos (archivos .task
+    // dejados o borrados a mano, segmentos sincronizados) sin recargar el mes completo
+    public synchronized void startWatching() {
+        if (watcher != null) return;
+        try {
+            watcher = new DataDirectoryWatcher(fileManager(), this::applyExternalChanges);
+            watcher.start();
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+    
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+    
+    public void addTaskListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeTaskListener(TaskListener listener) {
+        listeners.remove(listener);
     }
     
+    private FileManager fileManager() {
+        if (fileManager == null) {
+            ready.join();
+        }
+        return fileManager;
+    }
+    
+    // Las escrituras mantienen writeLock hasta actualizar la cache, asi una carga del mes
+    // que empezo antes puede detectar el cambio por la generacion y repetirse
+    
     public void addTask(Task task) {
-        tasks.add(task);
-        fileManager.saveTask(task);
+        FileManager files = fileManager();
+        writeLock.lock();
+        try {
+            // Las tareas de otros meses solo van a disco y a la cache de su mes
+            view = view.with(task);
+            files.saveTask(task);
+            monthCache.taskAdded(FileManager.getTaskMonth(task), task);
+        } finally {
+            writeLock.unlock();
+        }
+        for (TaskListener listener : listeners) {
+            listener.taskAdded(task);
+        }
     }
     
-    public void markTaskAsCompleted(Task task) {
-        task.markAsCompleted();
-        fileManager.updateTaskStatus(task);
+    // La tarea recibida no cambia: se publica una copia con el nuevo estado, que es la que se devuelve
+    public Task markTaskAsCompleted(Task task) {
+        Task updated = task.withStatus(true);
+        FileManager files = fileManager();
+        writeLock.lock();
+        try {
+            view = view.withStatus(updated);
+            files.updateTaskStatus(updated);
+            monthCache.taskUpdated(FileManager.getTaskMonth(updated), updated);
+        } finally {
+            writeLock.unlock();
+        }
+        for (TaskListener listener : listeners) {
+            listener.taskUpdated(updated);
+        }
+        return updated;
     }
     
-    public void markTaskAsPending(Task task) {
-        task.markAsPending();
-        fileManager.updateTaskStatus(task);
+    // La tarea recibida no cambia: se publica una copia con el nuevo estado, que es la que se devuelve
+    public Task markTaskAsPending(Task task) {
+        Task updated = task.withStatus(false);
+        FileManager files = fileManager();
+        writeLock.lock();
+        try {
+            view = view.withStatus(updated);
+            files.updateTaskStatus(updated);
+            monthCache.taskUpdated(FileManager.getTaskMonth(updated), updated);
+        } finally {
+            writeLock.unlock();
+        }
+        for (TaskListener listener : listeners) {
+            listener.taskUpdated(updated);
+        }
+        return updated;
     }
     
     public void deleteTask(Task task) {
-        tasks.remove(task);
-        fileManager.deleteTask(task);
+        FileManager files = fileManager();
+        writeLock.lock();
+        try {
+            view = view.without(task.getId());
+            files.deleteTask(task);
+            monthCache.taskRemoved(FileManager.getTaskMonth(task), task.getId());
+        } finally {
+            writeLock.unlock();
+        }
+        for (TaskListener listener : listeners) {
+            listener.taskRemoved(task);
+        }
     }
     
     public void updateTask(Task oldTask, Task newTask) {
-        // Eliminar la tarea vieja
-        deleteTask(oldTask);
-        // Agregar la tarea nueva
-        addTask(newTask);
+        // La tarea nueva conserva el ID para reemplazar a la vieja en disco
+        newTask.setId(oldTask.getId());
+        FileManager files = fileManager();
+        writeLock.lock();
+        try {
+            view = view.with(newTask);
+            files.updateTaskStatus(newTask);
+            monthCache.taskRemoved(FileManager.getTaskMonth(oldTask), oldTask.getId());
+            monthCache.taskAdded(FileManager.getTaskMonth(newTask), newTask);
+        } finally {
+            writeLock.unlock();
+        }
+        for (TaskListener listener : listeners) {
+            listener.taskUpdated(newTask);
+        }
     }
     
-    public List<Task> getTasks() {
-        return new ArrayList<>(tasks);
+    // Se ejecuta en el hilo del vigilante; las lecturas de disco se hacen fuera de writeLock
+    private void applyExternalChanges(Map<YearMonth, Set<Path>> changes) {
+        FileManager files = fileManager();
+        for (Map.Entry<YearMonth, Set<Path>> entry : changes.entrySet()) {
+            YearMonth month = entry.getKey();
+            FileManager.ExternalChanges monthChanges = files.applyExternalChanges(month, entry.getValue());
+            if (monthChanges.reload) {
+                monthCache.invalidate(month);
+                if (month.equals(view.month)) {
+                    loadTasksForCurrentMonth();
+                }
+                continue;
+            }
+            
+            List<Task> added = new ArrayList<>();
+            List<Task> updated = new ArrayList<>();
+            List<Task> removed = new ArrayList<>();
+            writeLock.lock();
+            try {
+                for (Task task : monthChanges.changed) {
+                    Task previous = findLoaded(task.getId(), month);
+                    // Los eventos de nuestras propias escrituras traen la misma tarea
+                    if (previous != null && Arrays.equals(TaskCodec.encode(previous), TaskCodec.encode(task))) continue;
+                    if (previous != null && !FileManager.getTaskMonth(previous).equals(FileManager.getTaskMonth(task))) {
+                        monthCache.taskRemoved(FileManager.getTaskMonth(previous), task.getId());
+                    }
+                    view = view.with(task);
+                    monthCache.taskChanged(FileManager.getTaskMonth(task), task);
+                    (previous != null ? updated : added).add(task);
+                }
+                for (UUID id : monthChanges.removed) {
+                    Task previous = findLoaded(id, month);
+                    view = view.without(id);
+                    monthCache.taskRemoved(month, id);
+                    if (previous != null) {
+                        removed.add(previous);
+                    } else {
+                        // No estaba en memoria: solo queda quitarla del indice de busqueda y de los avisos
+                        if (searchIndex != null) searchIndex.remove(id);
+                        reminders.remove(id);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            
+            for (TaskListener listener : listeners) {
+                added.forEach(listener::taskAdded);
+                updated.forEach(listener::taskUpdated);
+                removed.forEach(listener::taskRemoved);
+            }
+        }
     }
     
-    public List<Task> getPendingTasks() {
-        List<Task> pendingTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            if (!task.isCompleted()) {
-                pendingTasks.add(task);
+    // Tarea en la vista o en la cache del mes, sin ir a disco
+    private Task findLoaded(UUID id, YearMonth month) {
+        Task task = view.get(id);
+        return task != null ? task : monthCache.find(month, id);
+    }
+    
+    // --- API asincrona: las operaciones se encolan en el hilo de E/S ---
+    
+    public CompletableFuture<Void> addTaskAsync(Task task) {
+        return CompletableFuture.runAsync(() -> addTask(task), ioExecutor);
+    }
+    
+    public CompletableFuture<Task> markTaskAsCompletedAsync(Task task) {
+        return CompletableFuture.supplyAsync(() -> markTaskAsCompleted(task), ioExecutor);
+    }
+    
+    public CompletableFuture<Task> markTaskAsPendingAsync(Task task) {
+        return CompletableFuture.supplyAsync(() -> markTaskAsPending(task), ioExecutor);
+    }
+    
+    public CompletableFuture<Void> deleteTaskAsync(Task task) {
+        return CompletableFuture.runAsync(() -> deleteTask(task), ioExecutor);
+    }
+    
+    public CompletableFuture<Void> updateTaskAsync(Task oldTask, Task newTask) {
+        return CompletableFuture.runAsync(() -> updateTask(oldTask, newTask), ioExecutor);
+    }
+    
+    public CompletableFuture<Void> setCurrentViewMonthAsync(YearMonth yearMonth) {
+        return CompletableFuture.runAsync(() -> setCurrentViewMonth(yearMonth), ioExecutor);
+    }
+    
+    public CompletableFuture<Void> navigateToPreviousMonthAsync() {
+        return CompletableFuture.runAsync(this::navigateToPreviousMonth, ioExecutor);
+    }
+    
+    public CompletableFuture<Void> navigateToNextMonthAsync() {
+        return CompletableFuture.runAsync(this::navigateToNextMonth, ioExecutor);
+    }
+    
+    public CompletableFuture<Void> navigateToCurrentMonthAsync() {
+        return CompletableFuture.runAsync(this::navigateToCurrentMonth, ioExecutor);
+    }
+    
+    // Descripcion completa; si esta guardada aparte se lee en el hilo de E/S
+    public CompletableFuture<String> loadDescriptionAsync(Task task) {
+        return CompletableFuture.supplyAsync(task::getDescription, ioExecutor);
+    }
+    
+    public CompletableFuture<List<YearMonth>> getAvailableMonthsAsync() {
+        return CompletableFuture.supplyAsync(this::getAvailableMonths, ioExecutor);
+    }
+    
+    // Fuerza la escritura de las operaciones pendientes y se completa cuando son durables
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(() -> { }, ioExecutor)
+            .thenCompose(v -> fileManager().flush());
+    }
+    
+    // Se completa cuando las operaciones pedidas hasta ahora son durables
+    public CompletableFuture<Void> awaitDurable() {
+        return CompletableFuture.runAsync(() -> { }, ioExecutor)
+            .thenCompose(v -> fileManager().awaitDurable());
+    }
+    
+    // Termina las operaciones ya pedidas, detiene los hilos propios y cierra el FileManager.
+    // Despues de cerrar no se aceptan operaciones asincronas.
+    public void close() {
+        stopWatching();
+        ioExecutor.shutdown();
+        awaitTermination(ioExecutor);
+        // Las precargas encoladas son a lo sumo los dos meses vecinos
+        prefetchExecutor.shutdown();
+        awaitTermination(prefetchExecutor);
+        // Los guardados periodicos se cancelan; lo ya encolado (como reconstruir el indice) termina
+        maintenanceExecutor.shutdown();
+        awaitTermination(maintenanceExecutor);
+        if (viewSnapshot != null) {
+            saveViewSnapshot();
+        }
+        reminders.close();
+        SearchIndex index = searchIndex;
+        if (index != null && index.isDirty()) {
+            index.save();
+        }
+        if (fileManager != null) {
+            fileManager.close();
+        }
+    }
+    
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public Task getTaskById(UUID id) {
+        return view.get(id);
+    }
+    
+    // Busca una tarea en cualquier mes: primero el mes a la vista, luego el mes donde se vio por ultima vez
+    // y por ultimo todos los meses disponibles
+    public Task findTaskById(UUID id) {
+        Task task = getTaskById(id);
+        if (task != null) return task;
+        
+        List<YearMonth> months = new ArrayList<>();
+        FileManager.TaskLocation location = fileManager().getTaskLocation(id);
+        if (location != null) {
+            // Sin el mes en memoria se lee solo la tarea (en un mes archivado, solo su bloque)
+            if (!monthCache.contains(location.month)) {
+                task = fileManager().readTask(id);
+                if (task != null) return task;
             }
+            months.add(location.month);
         }
-        return pendingTasks;
+        months.addAll(getAvailableMonths());
+        for (YearMonth month : months) {
+            for (Task candidate : getTasksForMonth(month)) {
+                if (candidate.getId().equals(id)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+    
+    // Tareas de un mes cualquiera sin cambiar el mes a la vista; el mes queda en la cache
+    public List<Task> getTasksForMonth(YearMonth month) {
+        List<Task> cached = monthCache.get(month);
+        if (cached != null) return cached;
+        
+        long generation = monthCache.getGeneration(month);
+        List<Task> loaded = fileManager().loadTasksForMonth(month);
+        monthCache.putIfUnchanged(month, loaded, generation);
+        return loaded;
+    }
+    
+    // Cambia cada vez que se modifica una tarea del mes (sirve para ETags)
+    public long getMonthVersion(YearMonth month) {
+        return monthCache.getGeneration(month);
+    }
+    
+    // Lista de solo lectura; no cambia aunque despues se modifiquen tareas
+    public List<Task> getTasks() {
+        return view.tasks();
+    }
+    
+    public List<Task> getPendingTasks() {
+        return view.query(null, false, null, null);
     }
     
     public List<Task> getCompletedTasks() {
-        List<Task> completedTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.isCompleted()) {
-                completedTasks.add(task);
+        return view.query(null, true, null, null);
+    }
+    
+    public List<Task> getTasksByCategory(String category) {
+        return view.query(category, null, null, null);
+    }
+    
+    public List<Task> getTasksDueBetween(LocalDate from, LocalDate to) {
+        return view.query(null, null, from, to);
+    }
+    
+    // Tareas de todos los meses con vencimiento entre from y to, ordenadas por vencimiento.
+    // Los meses en cache no se vuelven a leer; los demas se cargan en paralelo.
+    public List<Task> findTasksDueBetween(LocalDate from, LocalDate to) {
+        return selectDue(FileManager.monthsBetween(from, to), from, to, false);
+    }
+    
+    // Tareas pendientes ya vencidas, de todos los meses
+    public List<Task> findOverdueTasks() {
+        LocalDate today = LocalDate.now();
+        List<YearMonth> months = FileManager.monthsUntil(getAvailableMonths(), today);
+        return selectDue(months, LocalDate.MIN, today.minusDays(1), true);
+    }
+    
+    // En los meses en cache se recorren las columnas de fechas y solo se arman las tareas que entran
+    private List<Task> selectDue(List<YearMonth> months, LocalDate from, LocalDate to, boolean pendingOnly) {
+        Map<YearMonth, List<Task>> cached = new HashMap<>();
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month : months) {
+            List<Task> selected = monthCache.selectDue(month, from.toEpochDay(), to.toEpochDay(), pendingOnly);
+            if (selected != null) {
+                cached.put(month, selected);
+            } else {
+                missing.add(month);
             }
         }
-        return completedTasks;
+        // No se guardan en la cache para no desalojar los meses que se estan viendo
+        Map<YearMonth, List<Task>> loaded = fileManager().loadTasksForMonths(missing);
+        
+        List<List<Task>> result = new ArrayList<>(months.size());
+        for (YearMonth month : months) {
+            result.add(cached.containsKey(month) ? cached.get(month) : loaded.get(month));
+        }
+        return FileManager.selectDue(result, from, to, pendingOnly);
+    }
+    
+    // Consulta combinada sobre los indices; los parametros null no filtran
+    public List<Task> queryTasks(String category, Boolean completed, LocalDate dueFrom, LocalDate dueTo) {
+        return view.query(category, completed, dueFrom, dueTo);
     }
     
     public void setCurrentViewMonth(YearMonth yearMonth) {
-        this.currentViewMonth = yearMonth;
+        currentViewMonth.set(yearMonth);
         loadTasksForCurrentMonth();
     }
     
     public YearMonth getCurrentViewMonth() {
-        return currentViewMonth;
+        return currentViewMonth.get();
+    }
+    
+    public MonthCache getMonthCache() {
+        return monthCache;
     }
     
     private void loadTasksForCurrentMonth() {
-        tasks.clear();
-        // Cargar tareas pendientes
-        tasks.addAll(fileManager.loadTasksForMonth(currentViewMonth, false));
-        // Cargar tareas completadas
-        tasks.addAll(fileManager.loadTasksForMonth(currentViewMonth, true));
+        long start = Metrics.start();
+        try {
+            loadMonth(currentViewMonth.get());
+        } finally {
+            Metrics.record(Metrics.Operation.LOAD_CURRENT_MONTH, start);
+        }
+    }
+    
+    private void loadMonth(YearMonth month) {
+        FileManager files = fileManager();
+        List<Task> loaded;
+        while (true) {
+            // La lectura se hace fuera del lock para no bloquear a los escritores
+            long generation = monthCache.getGeneration(month);
+            loaded = monthCache.get(month);
+            if (loaded == null) {
+                // Cargar tareas pendientes y completadas en una sola lectura del mes
+                loaded = files.loadTasksForMonth(month);
+                monthCache.putIfUnchanged(month, loaded, generation);
+            }
+            
+            writeLock.lock();
+            try {
+                // Se escribio en el mes durante la lectura: se vuelve a leer
+                if (monthCache.getGeneration(month) != generation) continue;
+                // Mientras tanto se pidio otro mes: esta carga ya no se muestra
+                if (!month.equals(currentViewMonth.get())) return;
+                view = new View(month, loaded);
+                break;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        for (TaskListener listener : listeners) {
+            listener.monthLoaded(month, loaded);
+        }
+        prefetch(month.minusMonths(1));
+        prefetch(month.plusMonths(1));
+    }
+    
+    private void prefetch(YearMonth yearMonth) {
+        if (monthCache.contains(yearMonth) || prefetchExecutor.isShutdown()) return;
+        
+        long generation = monthCache.getGeneration(yearMonth);
+        prefetchExecutor.submit(() -> {
+            if (monthCache.contains(yearMonth)) return;
+            // Si el mes se modifico durante la lectura, se descarta el resultado
+            monthCache.putIfUnchanged(yearMonth, fileManager().loadTasksForMonth(yearMonth), generation);
+        });
     }
     
     public List<YearMonth> getAvailableMonths() {
-        return fileManager.getAvailableMonths();
+        return fileManager().getAvailableMonths();
+    }
+    
+    // Resumen de todos los meses a partir del manifiesto, sin cargar las tareas
+    public List<MonthManifest.MonthSummary> getMonthSummaries() {
+        return fileManager().getMonthSummaries();
+    }
+    
+    public CompletableFuture<List<MonthManifest.MonthSummary>> getMonthSummariesAsync() {
+        return CompletableFuture.supplyAsync(this::getMonthSummaries, ioExecutor);
     }
     
     public void navigateToPreviousMonth() {
-        currentViewMonth = currentViewMonth.minusMonths(1);
+        currentViewMonth.updateAndGet(month -> month.minusMonths(1));
         loadTasksForCurrentMonth();
     }
     
     public void navigateToNextMonth() {
-        currentViewMonth = currentViewMonth.plusMonths(1);
+        currentViewMonth.updateAndGet(month -> month.plusMonths(1));
         loadTasksForCurrentMonth();
     }
     
     public void navigateToCurrentMonth() {
-        currentViewMonth = YearMonth.now();
+        currentViewMonth.set(YearMonth.now());
         loadTasksForCurrentMonth();
     }
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+package main.java.com.todolist;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+// Conversion entre tareas y registros planos campo -> valor, y su forma en JSON.
+// Lo usan la importacion/exportacion (TaskCli) y la API HTTP.
+public final class TaskRecord {
+    public static final String[] FIELDS = {"id", "title", "description", "category", "dueDate",
+            "completed", "completionDate", "creationDate"};
+
+    private TaskRecord() {
+    }
+
+    // Valores de la tarea en el orden de FIELDS (null si no tiene)
+    public static String[] values(Task task) {
+        return new String[]{
+                task.getId().toString(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getCategory(),
+                task.getDueDate() != null ? task.getDueDate().toString() : null,
+                Boolean.toString(task.isCompleted()),
+                task.getCompletionDate() != null ? task.getCompletionDate().toString() : null,
+                task.getCreationDate().toString()
+        };
+    }
+
+    // Tarea a partir de un registro campo -> valor; el ID y la fecha de creacion son opcionales
+    public static Task toTask(Map<String, String> record) {
+        String title = record.get("title");
+        if (title == null || title.isEmpty()) {
+            throw new IllegalArgumentException("falta el titulo");
+        }
+        String id = record.get("id");
+        LocalDate creationDate = parseDate(record.get("creationDate"));
+        return new Task(
+                id == null || id.isEmpty() ? UUID.randomUUID() : UUID.fromString(id),
+                title,
+                emptyToNull(record.get("description")),
+                parseDate(record.get("dueDate")),
+                emptyToNull(record.get("category")),
+                parseBoolean(record.get("completed")),
+                parseDate(record.get("completionDate")),
+                creationDate != null ? creationDate : LocalDate.now());
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value == null || value.isEmpty() ? null : LocalDate.parse(value);
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value == null) return false;
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "1":
+            case "yes":
+            case "si":
+            case "sí":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // --- JSON ---
+
+    public static Map<String, String> parseJson(String text) {
+        return new JsonObjectParser(text).parse();
+    }
+
+    public static void writeJson(Writer out, Task task) throws IOException {
+        String[] fields = values(task);
+        out.write('{');
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(',');
+            out.write('"');
+            out.write(FIELDS[i]);
+            out.write("\":");
+            if (fields[i] == null) {
+                out.write("null");
+            } else if (FIELDS[i].equals("completed")) {
+                out.write(fields[i]);
+            } else {
+                writeString(out, fields[i]);
+            }
+        }
+        out.write('}');
+    }
+
+    public static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    // Objeto JSON plano: valores de texto, booleanos, numeros o null
+    private static final class JsonObjectParser {
+        private final String text;
+        private int position;
+
+        JsonObjectParser(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> parse() {
+            Map<String, String> values = new HashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return values;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                expect(':');
+                values.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') return values;
+                if (c != ',') throw error("se esperaba ',' o '}'");
+            }
+        }
+
+        private String readValue() {
+            skipWhitespace();
+            char c = peek();
+            if (c == '"') return readString();
+            int start = position;
+            while (position < text.length() && ",} \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) return null;
+            if (literal.equals("true") || literal.equals("false") || literal.matches("-?[0-9.eE+-]+")) return literal;
+            throw error("valor no soportado");
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return value.toString();
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) throw error("escape incompleto");
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("escape \\u invalido");
+                        }
+                        position += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            skipWhitespace();
+            if (next() != expected) throw error("se esperaba '" + expected + "'");
+        }
+
+        private char peek() {
+            if (position >= text.length()) throw error("fin de linea inesperado");
+            return text.charAt(position);
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("JSON invalido en la columna " + (position + 1) + ": " + message);
+        }
+    }
+}
\ No newline at end of file
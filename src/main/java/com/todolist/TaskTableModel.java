@@ -0,0 +1,198 @@
+package main.java.com.todolist;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Modelo de la tabla respaldado por las tareas del TaskManager.
+// Las celdas se calculan al pintarse y cada cambio notifica solo las filas afectadas.
+public class TaskTableModel extends AbstractTableModel implements TaskListener {
+    private static final long serialVersionUID = 1L;
+
+    public static final int COLUMN_STATUS = 0;
+    public static final int COLUMN_TITLE = 1;
+    public static final int COLUMN_DESCRIPTION = 2;
+    public static final int COLUMN_DUE_DATE = 3;
+    public static final int COLUMN_CATEGORY = 4;
+    public static final int COLUMN_CREATED = 5;
+
+    private static final String[] COLUMN_NAMES = {"Estado", "Título", "Descripción", "Fecha Vencimiento", "Categoría", "Creada"};
+
+    private final List<Task> rows = new ArrayList<>();
+    private final Map<UUID, Integer> rowById = new HashMap<>();
+    // Mes mostrado; las tareas de otros meses que lleguen por eventos no se muestran
+    private YearMonth month;
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Hacer la tabla no editable
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Task task = rows.get(row);
+        switch (column) {
+            case COLUMN_STATUS:
+                return task.isCompleted() ? "✓" : " ";
+            case COLUMN_TITLE:
+                return task.getTitle();
+            case COLUMN_DESCRIPTION:
+                // La descripcion completa se lee solo al abrir la tarea o en el tooltip
+                return task.getDescriptionPreview();
+            case COLUMN_DUE_DATE:
+                return task.getFormattedDueDate();
+            case COLUMN_CATEGORY:
+                return task.getCategory();
+            case COLUMN_CREATED:
+                return task.getFormattedCreationDate();
+            default:
+                return null;
+        }
+    }
+
+    public Task getTaskAt(int row) {
+        if (row < 0 || row >= rows.size()) return null;
+        return rows.get(row);
+    }
+
+    public int indexOf(UUID id) {
+        Integer row = rowById.get(id);
+        return row != null ? row : -1;
+    }
+
+    // --- Cambios aplicados en el EDT ---
+
+    public void setTasks(List<Task> tasks) {
+        rows.clear();
+        rows.addAll(tasks);
+        reindexFrom(0);
+        fireTableDataChanged();
+    }
+
+    // Si ya se mostraba el mismo mes (por ejemplo desde la copia del arranque) solo se
+    // notifican las filas que cambiaron; la seleccion y el desplazamiento se conservan
+    public void setTasks(YearMonth month, List<Task> tasks) {
+        if (!month.equals(this.month) || rows.isEmpty()) {
+            this.month = month;
+            setTasks(tasks);
+            return;
+        }
+
+        Map<UUID, Task> incoming = new HashMap<>(tasks.size() * 2);
+        for (Task task : tasks) {
+            incoming.put(task.getId(), task);
+        }
+        for (int row = rows.size() - 1; row >= 0; row--) {
+            if (!incoming.containsKey(rows.get(row).getId())) {
+                rows.remove(row);
+                fireTableRowsDeleted(row, row);
+            }
+        }
+        reindexFrom(0);
+
+        for (Task task : tasks) {
+            Integer row = rowById.get(task.getId());
+            if (row == null) {
+                insert(task);
+                continue;
+            }
+            Task previous = rows.get(row);
+            // Se guarda siempre la instancia nueva: las operaciones se hacen sobre ella
+            rows.set(row, task);
+            if (previous != task && !Arrays.equals(TaskCodec.encode(previous), TaskCodec.encode(task))) {
+                fireTableRowsUpdated(row, row);
+            }
+        }
+    }
+
+    private boolean inMonth(Task task) {
+        return month == null || FileManager.getTaskMonth(task).equals(month);
+    }
+
+    private void insert(Task task) {
+        if (rowById.containsKey(task.getId())) {
+            update(task);
+            return;
+        }
+        if (!inMonth(task)) return;
+        int row = rows.size();
+        rows.add(task);
+        rowById.put(task.getId(), row);
+        fireTableRowsInserted(row, row);
+    }
+
+    private void update(Task task) {
+        Integer row = rowById.get(task.getId());
+        if (row == null) {
+            insert(task);
+            return;
+        }
+        if (!inMonth(task)) {
+            // Cambio de mes: deja de mostrarse
+            remove(task);
+            return;
+        }
+        rows.set(row, task);
+        fireTableRowsUpdated(row, row);
+    }
+
+    private void remove(Task task) {
+        Integer row = rowById.remove(task.getId());
+        if (row == null) return;
+        rows.remove((int) row);
+        reindexFrom(row);
+        fireTableRowsDeleted(row, row);
+    }
+
+    private void reindexFrom(int start) {
+        if (start == 0) {
+            rowById.clear();
+        }
+        for (int i = start; i < rows.size(); i++) {
+            rowById.put(rows.get(i).getId(), i);
+        }
+    }
+
+    // --- TaskListener: los eventos pueden llegar desde el hilo de E/S ---
+
+    @Override
+    public void taskAdded(Task task) {
+        SwingUtilities.invokeLater(() -> insert(task));
+    }
+
+    @Override
+    public void taskUpdated(Task task) {
+        SwingUtilities.invokeLater(() -> update(task));
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        SwingUtilities.invokeLater(() -> remove(task));
+    }
+
+    @Override
+    public void monthLoaded(YearMonth month, List<Task> tasks) {
+        SwingUtilities.invokeLater(() -> setTasks(month, tasks));
+    }
+}
\ No newline at end of file
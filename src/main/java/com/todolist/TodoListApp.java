@@ -3,26 +3,65 @@ package main.java.com.todolist;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.io.File;
 import java.awt.event.*;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public class TodoListApp extends JFrame {
     private TaskManager taskManager;
     private JTable taskTable;
-    private DefaultTableModel tableModel;
+    private TaskTableModel tableModel;
+    private TableRowSorter<TaskTableModel> rowSorter;
+    // null muestra todas; true solo completadas; false solo pendientes
+    private Boolean statusFilter;
     private JLabel monthLabel;
     private JComboBox<String> categoryFilter;
+    private JProgressBar busyIndicator;
+    private int pendingOperations;
+    private JButton remindersBtn;
+    // Avisos llegados desde la ultima vez que se abrio la lista
+    private int newReminders;
+    private static final int SEARCH_RESULT_LIMIT = 100;
+    // Tarea del ultimo tooltip de descripcion y su texto completo, cuando ya se leyo
+    private Task tooltipTask;
+    private String tooltipDescription;
     
     public TodoListApp() {
-        taskManager = new TaskManager();
+        // La carga inicial se hace en segundo plano para no retrasar la ventana
+        taskManager = new TaskManager(true);
         initializeUI();
+        // Primer cuadro con la copia del ultimo mes visto, si la habia
         refreshTaskTable();
+        taskManager.addTaskListener(tableModel);
+        taskManager.getReminders().addListener(reminders ->
+            SwingUtilities.invokeLater(() -> remindersArrived(reminders.size())));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Se mide despues de que se procesa el primer pintado
+                SwingUtilities.invokeLater(() -> Metrics.recordSinceJvmStart(Metrics.Operation.FIRST_FRAME));
+            }
+        });
+        runInBackground(taskManager.getReadyFuture(), () -> {
+            updateMonthLabel();
+            refreshTaskTable();
+            // Los archivos que se agreguen o borren en la carpeta de datos aparecen sin recargar
+            taskManager.startWatching();
+        });
+    }
+    
+    // Escribe lo pendiente y libera los hilos del TaskManager; se llama al salir de la aplicacion
+    public void close() {
+        taskManager.close();
     }
     
     private void initializeUI() {
@@ -40,38 +79,33 @@ public class TodoListApp extends JFrame {
         updateMonthLabel();
         
         JButton prevMonthBtn = new JButton("<");
-        prevMonthBtn.addActionListener(e -> {
-            taskManager.navigateToPreviousMonth();
-            updateMonthLabel();
-            refreshTaskTable();
-        });
+        prevMonthBtn.addActionListener(e -> runInBackground(taskManager.navigateToPreviousMonthAsync(), this::updateMonthLabel));
         
         JButton nextMonthBtn = new JButton(">");
-        nextMonthBtn.addActionListener(e -> {
-            taskManager.navigateToNextMonth();
-            updateMonthLabel();
-            refreshTaskTable();
-        });
+        nextMonthBtn.addActionListener(e -> runInBackground(taskManager.navigateToNextMonthAsync(), this::updateMonthLabel));
         
         JButton currentMonthBtn = new JButton("Hoy");
-        currentMonthBtn.addActionListener(e -> {
-            taskManager.navigateToCurrentMonth();
-            updateMonthLabel();
-            refreshTaskTable();
-        });
+        currentMonthBtn.addActionListener(e -> runInBackground(taskManager.navigateToCurrentMonthAsync(), this::updateMonthLabel));
         
         monthPanel.add(prevMonthBtn);
         monthPanel.add(monthLabel);
         monthPanel.add(nextMonthBtn);
         monthPanel.add(currentMonthBtn);
         
+        JButton monthsBtn = new JButton("Meses...");
+        monthsBtn.addActionListener(e -> showMonthsOverview());
+        monthPanel.add(monthsBtn);
+        
         // Panel de filtros
         JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         filterPanel.add(new JLabel("Filtrar por:"));
         
         String[] categories = {"Todas", "Trabajo", "Personal", "Estudio", "Salud", "Otros"};
         categoryFilter = new JComboBox<>(categories);
-        categoryFilter.addActionListener(e -> refreshTaskTable());
+        categoryFilter.addActionListener(e -> {
+            statusFilter = null;
+            applyFilters();
+        });
         
         JButton showPendingBtn = new JButton("Pendientes");
         showPendingBtn.addActionListener(e -> showPendingTasks());
@@ -83,6 +117,16 @@ public class TodoListApp extends JFrame {
         filterPanel.add(showPendingBtn);
         filterPanel.add(showCompletedBtn);
         
+        // Busqueda en todas las tareas de todos los meses
+        JTextField searchField = new JTextField(15);
+        JButton searchBtn = new JButton("Buscar");
+        searchBtn.addActionListener(e -> showSearchResults(searchField.getText().trim()));
+        searchField.addActionListener(e -> showSearchResults(searchField.getText().trim()));
+        
+        filterPanel.add(new JLabel("Buscar:"));
+        filterPanel.add(searchField);
+        filterPanel.add(searchBtn);
+        
         topPanel.add(monthPanel, BorderLayout.NORTH);
         topPanel.add(filterPanel, BorderLayout.SOUTH);
         
@@ -90,16 +134,32 @@ public class TodoListApp extends JFrame {
         JPanel centerPanel = new JPanel(new BorderLayout());
         centerPanel.setBorder(new TitledBorder("Tareas"));
         
-        // Modelo de tabla
-        String[] columnNames = {"Estado", "Título", "Descripción", "Fecha Vencimiento", "Categoría", "Creada"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
+        // Modelo de tabla: se actualiza fila a fila con los eventos del TaskManager
+        tableModel = new TaskTableModel();
+        rowSorter = new TableRowSorter<>(tableModel);
+        
+        taskTable = new JTable(tableModel) {
+            // Al pasar el mouse por la descripcion se muestra su comienzo; la completa se lee
+            // en segundo plano y reemplaza al comienzo cuando llega
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Hacer la tabla no editable
+            public String getToolTipText(MouseEvent e) {
+                int row = rowAtPoint(e.getPoint());
+                int column = columnAtPoint(e.getPoint());
+                if (row < 0 || column < 0 || convertColumnIndexToModel(column) != TaskTableModel.COLUMN_DESCRIPTION) {
+                    return null;
+                }
+                Task task = tableModel.getTaskAt(convertRowIndexToModel(row));
+                if (task == null) return null;
+                if (task.isDescriptionLoaded()) return task.getDescriptionPreview();
+                if (task != tooltipTask) {
+                    tooltipTask = task;
+                    tooltipDescription = null;
+                    loadTooltipDescription(task, e);
+                }
+                return tooltipDescription != null ? tooltipDescription : task.getDescriptionPreview();
             }
         };
-        
-        taskTable = new JTable(tableModel);
+        taskTable.setRowSorter(rowSorter);
         taskTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         taskTable.getColumnModel().getColumn(0).setPreferredWidth(50);
         taskTable.getColumnModel().getColumn(1).setPreferredWidth(150);
@@ -135,6 +195,17 @@ public class TodoListApp extends JFrame {
         bottomPanel.add(deleteBtn);
         bottomPanel.add(viewFilesBtn);
         
+        // Tareas vencidas o por vencer de todos los meses
+        remindersBtn = new JButton("Avisos");
+        remindersBtn.addActionListener(e -> showReminders());
+        bottomPanel.add(remindersBtn);
+        
+        // Indicador de operaciones en curso
+        busyIndicator = new JProgressBar();
+        busyIndicator.setIndeterminate(true);
+        busyIndicator.setVisible(false);
+        bottomPanel.add(busyIndicator);
+        
         // Agregar paneles al frame
         add(topPanel, BorderLayout.NORTH);
         add(centerPanel, BorderLayout.CENTER);
@@ -163,68 +234,208 @@ public class TodoListApp extends JFrame {
         monthLabel.setText(monthStr);
     }
     
+    // Recarga el modelo con las tareas del mes actual
     private void refreshTaskTable() {
-        tableModel.setRowCount(0);
+        long start = Metrics.start();
+        tableModel.setTasks(taskManager.getCurrentViewMonth(), taskManager.getTasks());
+        Metrics.record(Metrics.Operation.REFRESH_TABLE, start);
+    }
+    
+    private void applyFilters() {
+        List<RowFilter<TaskTableModel, Integer>> filters = new ArrayList<>();
         
-        List<Task> tasks = taskManager.getTasks();
+        // Filtrar por categoría si no es "Todas"
         String selectedCategory = (String) categoryFilter.getSelectedItem();
+        if (!"Todas".equals(selectedCategory)) {
+            filters.add(new RowFilter<TaskTableModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends TaskTableModel, ? extends Integer> entry) {
+                    Task task = entry.getModel().getTaskAt(entry.getIdentifier());
+                    return selectedCategory.equals(task.getCategory());
+                }
+            });
+        }
         
-        for (Task task : tasks) {
-            // Filtrar por categoría si no es "Todas"
-            if (!"Todas".equals(selectedCategory) && !selectedCategory.equals(task.getCategory())) {
-                continue;
-            }
-            
-            String status = task.isCompleted() ? "✓" : " ";
-            String dueDate = task.getFormattedDueDate();
-            String createdDate = task.getFormattedCreationDate();
-            
-            tableModel.addRow(new Object[]{
-                status,
-                task.getTitle(),
-                task.getDescription(),
-                dueDate,
-                task.getCategory(),
-                createdDate
+        if (statusFilter != null) {
+            boolean completed = statusFilter;
+            filters.add(new RowFilter<TaskTableModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends TaskTableModel, ? extends Integer> entry) {
+                    return entry.getModel().getTaskAt(entry.getIdentifier()).isCompleted() == completed;
+                }
             });
         }
+        
+        rowSorter.setRowFilter(filters.isEmpty() ? null : RowFilter.andFilter(filters));
     }
     
     private void showPendingTasks() {
-        tableModel.setRowCount(0);
-        
-        List<Task> tasks = taskManager.getPendingTasks();
-        for (Task task : tasks) {
-            String dueDate = task.getFormattedDueDate();
-            String createdDate = task.getFormattedCreationDate();
+        statusFilter = false;
+        applyFilters();
+    }
+    
+    private void showCompletedTasks() {
+        statusFilter = true;
+        applyFilters();
+    }
+    
+    // Lista de meses con sus contadores, leida del manifiesto
+    private void showMonthsOverview() {
+        CompletableFuture<List<MonthManifest.MonthSummary>> summaries = taskManager.getMonthSummariesAsync();
+        runInBackground(summaries, () -> {
+            List<MonthManifest.MonthSummary> months = summaries.join();
+            if (months.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No hay meses con tareas", "Meses", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
             
-            tableModel.addRow(new Object[]{
-                " ",
-                task.getTitle(),
-                task.getDescription(),
-                dueDate,
-                task.getCategory(),
-                createdDate
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy");
+            DefaultListModel<String> listModel = new DefaultListModel<>();
+            for (int i = months.size() - 1; i >= 0; i--) {
+                MonthManifest.MonthSummary summary = months.get(i);
+                String monthStr = summary.getMonth().format(formatter);
+                monthStr = monthStr.substring(0, 1).toUpperCase() + monthStr.substring(1);
+                listModel.addElement(String.format("%s  -  %d pendientes, %d completadas",
+                        monthStr, summary.getPending(), summary.getCompleted()));
+            }
+            
+            JDialog dialog = new JDialog(this, "Meses", true);
+            dialog.setLayout(new BorderLayout());
+            
+            JList<String> monthList = new JList<>(listModel);
+            monthList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            monthList.setSelectedIndex(0);
+            
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            JButton goBtn = new JButton("Ir al mes");
+            JButton closeBtn = new JButton("Cerrar");
+            
+            Runnable goToSelected = () -> {
+                int index = monthList.getSelectedIndex();
+                if (index < 0) return;
+                dialog.dispose();
+                YearMonth month = months.get(months.size() - 1 - index).getMonth();
+                runInBackground(taskManager.setCurrentViewMonthAsync(month), this::updateMonthLabel);
+            };
+            goBtn.addActionListener(e -> goToSelected.run());
+            closeBtn.addActionListener(e -> dialog.dispose());
+            monthList.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        goToSelected.run();
+                    }
+                }
             });
-        }
+            
+            buttonPanel.add(goBtn);
+            buttonPanel.add(closeBtn);
+            
+            dialog.add(new JScrollPane(monthList), BorderLayout.CENTER);
+            dialog.add(buttonPanel, BorderLayout.SOUTH);
+            
+            dialog.setSize(400, 300);
+            dialog.setLocationRelativeTo(this);
+            dialog.setVisible(true);
+        });
     }
     
-    private void showCompletedTasks() {
-        tableModel.setRowCount(0);
+    private void showSearchResults(String query) {
+        if (query.isEmpty()) return;
+        
+        CompletableFuture<List<SearchIndex.Result>> search = taskManager.searchAsync(query, SEARCH_RESULT_LIMIT);
+        runInBackground(search, () -> {
+            List<SearchIndex.Result> results = search.join();
+            if (results.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No se encontraron tareas", "Buscar", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            showTaskListDialog("Resultados de búsqueda", results, SearchIndex.Result::getMonth, SearchIndex.Result::getId);
+        });
+    }
+    
+    private void remindersArrived(int count) {
+        newReminders += count;
+        remindersBtn.setText("Avisos (" + newReminders + ")");
+        remindersBtn.setForeground(Color.RED);
+    }
+    
+    private void showReminders() {
+        newReminders = 0;
+        remindersBtn.setText("Avisos");
+        remindersBtn.setForeground(UIManager.getColor("Button.foreground"));
+        
+        CompletableFuture<List<ReminderScheduler.Reminder>> active = taskManager.getReminders().getActiveReminders();
+        runInBackground(active, () -> {
+            List<ReminderScheduler.Reminder> reminders = active.join();
+            if (reminders.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No hay tareas vencidas ni por vencer", "Avisos", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            showTaskListDialog("Avisos de vencimiento", reminders, ReminderScheduler.Reminder::getMonth,
+                ReminderScheduler.Reminder::getId);
+        });
+    }
+    
+    // Lista de tareas de cualquier mes; "Ir a la tarea" cambia al mes y la selecciona
+    private <T> void showTaskListDialog(String title, List<T> items, Function<T, YearMonth> month, Function<T, UUID> id) {
+        JDialog dialog = new JDialog(this, title, true);
+        dialog.setLayout(new BorderLayout());
         
-        List<Task> tasks = taskManager.getCompletedTasks();
-        for (Task task : tasks) {
-            String dueDate = task.getFormattedDueDate();
-            String createdDate = task.getFormattedCreationDate();
-            
-            tableModel.addRow(new Object[]{
-                "✓",
-                task.getTitle(),
-                task.getDescription(),
-                dueDate,
-                task.getCategory(),
-                createdDate
+        DefaultListModel<T> listModel = new DefaultListModel<>();
+        listModel.addAll(items);
+        JList<T> resultList = new JList<>(listModel);
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultList.setSelectedIndex(0);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton goBtn = new JButton("Ir a la tarea");
+        JButton closeBtn = new JButton("Cerrar");
+        
+        Runnable goToSelected = () -> {
+            T result = resultList.getSelectedValue();
+            if (result == null) return;
+            dialog.dispose();
+            runInBackground(taskManager.setCurrentViewMonthAsync(month.apply(result)), () -> {
+                updateMonthLabel();
+                selectTask(id.apply(result));
             });
+        };
+        goBtn.addActionListener(e -> goToSelected.run());
+        closeBtn.addActionListener(e -> dialog.dispose());
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    goToSelected.run();
+                }
+            }
+        });
+        
+        buttonPanel.add(goBtn);
+        buttonPanel.add(closeBtn);
+        
+        dialog.add(new JScrollPane(resultList), BorderLayout.CENTER);
+        dialog.add(buttonPanel, BorderLayout.SOUTH);
+        
+        dialog.setSize(450, 300);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+    
+    private void selectTask(UUID id) {
+        int modelRow = tableModel.indexOf(id);
+        if (modelRow < 0) return;
+        
+        // Quitar filtros para que la fila sea visible
+        statusFilter = null;
+        categoryFilter.setSelectedItem("Todas");
+        applyFilters();
+        
+        int viewRow = taskTable.convertRowIndexToView(modelRow);
+        if (viewRow >= 0) {
+            taskTable.setRowSelectionInterval(viewRow, viewRow);
+            taskTable.scrollRectToVisible(taskTable.getCellRect(viewRow, 0, true));
         }
     }
     
@@ -294,8 +505,7 @@ public class TodoListApp extends JFrame {
             }
             
             Task newTask = new Task(title, description, dueDate, category);
-            taskManager.addTask(newTask);
-            refreshTaskTable();
+            runInBackground(taskManager.addTaskAsync(newTask), () -> { });
             dialog.dispose();
         });
         
@@ -312,6 +522,17 @@ public class TodoListApp extends JFrame {
         dialog.setVisible(true);
     }
     
+    // Sin indicador de ocupado: si falla la lectura el tooltip se queda con el comienzo
+    private void loadTooltipDescription(Task task, MouseEvent e) {
+        taskManager.loadDescriptionAsync(task).thenAccept(description -> SwingUtilities.invokeLater(() -> {
+            if (tooltipTask != task) return;
+            tooltipDescription = description;
+            // Vuelve a pedir el texto para el tooltip que ya esta a la vista
+            ToolTipManager.sharedInstance().mouseMoved(new MouseEvent(taskTable, MouseEvent.MOUSE_MOVED,
+                    System.currentTimeMillis(), 0, e.getX(), e.getY(), 0, false));
+        }));
+    }
+    
     private void editSelectedTask() {
         int selectedRow = taskTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -320,18 +541,16 @@ public class TodoListApp extends JFrame {
         }
         
         // Obtener la tarea seleccionada
-        String title = (String) tableModel.getValueAt(selectedRow, 1);
-        Task taskToEdit = null;
-        
-        for (Task task : taskManager.getTasks()) {
-            if (task.getTitle().equals(title)) {
-                taskToEdit = task;
-                break;
-            }
-        }
+        Task taskToEdit = getTaskAtRow(selectedRow);
         
         if (taskToEdit == null) return;
-
+        
+        // Una descripcion larga se lee de disco: fuera del EDT, y si falla se muestra el error
+        CompletableFuture<String> description = taskManager.loadDescriptionAsync(taskToEdit);
+        runInBackground(description, () -> showEditDialog(taskToEdit, description.join()));
+    }
+    
+    private void showEditDialog(Task taskToEdit, String description) {
         final Task taskToEditRef = taskToEdit;
         
         JDialog dialog = new JDialog(this, "Editar Tarea", true);
@@ -345,7 +564,7 @@ public class TodoListApp extends JFrame {
         
         // Campos del formulario con valores actuales
         JTextField titleField = new JTextField(taskToEdit.getTitle(), 20);
-        JTextArea descArea = new JTextArea(taskToEdit.getDescription(), 3, 20);
+        JTextArea descArea = new JTextArea(description, 3, 20);
         JScrollPane descScroll = new JScrollPane(descArea);
         
         String dueDateStr = taskToEdit.getDueDate() != null ? 
@@ -407,8 +626,7 @@ public class TodoListApp extends JFrame {
                 updatedTask.markAsCompleted();
             }
             
-            taskManager.updateTask(taskToEditRef, updatedTask);
-            refreshTaskTable();
+            runInBackground(taskManager.updateTaskAsync(taskToEditRef, updatedTask), () -> { });
             dialog.dispose();
         });
         
@@ -432,23 +650,13 @@ public class TodoListApp extends JFrame {
             return;
         }
         
-        String title = (String) tableModel.getValueAt(selectedRow, 1);
-        Task taskToToggle = null;
-        
-        for (Task task : taskManager.getTasks()) {
-            if (task.getTitle().equals(title)) {
-                taskToToggle = task;
-                break;
-            }
-        }
+        Task taskToToggle = getTaskAtRow(selectedRow);
         
         if (taskToToggle != null) {
-            if (taskToToggle.isCompleted()) {
-                taskManager.markTaskAsPending(taskToToggle);
-            } else {
-                taskManager.markTaskAsCompleted(taskToToggle);
-            }
-            refreshTaskTable();
+            CompletableFuture<Task> toggle = taskToToggle.isCompleted()
+                ? taskManager.markTaskAsPendingAsync(taskToToggle)
+                : taskManager.markTaskAsCompletedAsync(taskToToggle);
+            runInBackground(toggle, () -> { });
         }
     }
     
@@ -464,23 +672,43 @@ public class TodoListApp extends JFrame {
             JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            String title = (String) tableModel.getValueAt(selectedRow, 1);
-            Task taskToDelete = null;
-            
-            for (Task task : taskManager.getTasks()) {
-                if (task.getTitle().equals(title)) {
-                    taskToDelete = task;
-                    break;
-                }
-            }
+            Task taskToDelete = getTaskAtRow(selectedRow);
             
             if (taskToDelete != null) {
-                taskManager.deleteTask(taskToDelete);
-                refreshTaskTable();
+                runInBackground(taskManager.deleteTaskAsync(taskToDelete), () -> { });
             }
         }
     }
     
+    // Espera la operacion fuera del EDT y ejecuta onSuccess de vuelta en el EDT
+    private void runInBackground(CompletableFuture<?> operation, Runnable onSuccess) {
+        setBusy(true);
+        operation.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            setBusy(false);
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                JOptionPane.showMessageDialog(this, "Error al acceder a los datos: " + cause.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                onSuccess.run();
+            }
+        }));
+    }
+    
+    private void setBusy(boolean busy) {
+        pendingOperations += busy ? 1 : -1;
+        boolean active = pendingOperations > 0;
+        busyIndicator.setVisible(active);
+        setCursor(active ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+    
+    private Task getTaskAtRow(int viewRow) {
+        if (viewRow < 0) return null;
+        Task task = tableModel.getTaskAt(taskTable.convertRowIndexToModel(viewRow));
+        // Resolver por ID contra el estado actual del TaskManager
+        return task != null ? taskManager.getTaskById(task.getId()) : null;
+    }
+    
     private void openDataFolder() {
         try {
             File dataFolder = new File("data");
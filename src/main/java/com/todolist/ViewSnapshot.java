@@ -0,0 +1,100 @@
+package main.java.com.todolist;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Copia de las filas del ultimo mes a la vista, para mostrar la tabla al arrancar sin esperar
+// a la carga del mes. Su tamaño depende solo de ese mes, no de todo lo guardado.
+// Se valida despues contra los datos: si esta vieja o dañada solo se pierde el adelanto.
+public class ViewSnapshot {
+    static final String FILE_NAME = "view.snap";
+    private static final int FILE_MAGIC = 0x54564e53; // "TVNS"
+    private static final byte FILE_VERSION = 1;
+    // magic, version, version de TaskCodec, año, mes y cantidad
+    private static final int HEADER_BYTES = 4 + 1 + 1 + 4 + 1 + 4;
+
+    private final File file;
+    // Las descripciones largas se guardan como referencia y se leen de aqui al pedirlas
+    private final DescriptionStore descriptions;
+
+    public ViewSnapshot(File file, DescriptionStore descriptions) {
+        this.file = file;
+        this.descriptions = descriptions;
+    }
+
+    public static class Contents {
+        private final YearMonth month;
+        private final List<Task> tasks;
+
+        Contents(YearMonth month, List<Task> tasks) {
+            this.month = month;
+            this.tasks = tasks;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public List<Task> getTasks() {
+            return tasks;
+        }
+    }
+
+    // null si no hay copia o no se puede leer
+    public Contents load() {
+        if (!file.exists()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readByte() != FILE_VERSION
+                    || in.readByte() != TaskCodec.FORMAT_VERSION) return null;
+
+            YearMonth month = YearMonth.of(in.readInt(), in.readByte());
+            int count = in.readInt();
+            // Los tamaños se validan contra lo que queda del archivo antes de reservar memoria:
+            // una copia dañada no puede pedir mas de lo que ocupa
+            long remaining = file.length() - HEADER_BYTES;
+            if (count < 0 || count > remaining / 4) throw new IOException("Cantidad de tareas invalida: " + count);
+            List<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = in.readInt();
+                remaining -= 4;
+                if (length <= 0 || length > remaining) throw new IOException("Largo de registro invalido: " + length);
+                remaining -= length;
+                byte[] data = new byte[length];
+                in.readFully(data);
+                tasks.add(TaskCodec.decode(data, descriptions));
+            }
+            return new Contents(month, tasks);
+        } catch (IOException | RuntimeException e) {
+            // Una copia dañada se ignora: la tabla se llena con la carga normal
+            Metrics.error(e);
+            return null;
+        }
+    }
+
+    public synchronized void save(YearMonth month, List<Task> tasks) {
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeByte(FILE_VERSION);
+                out.writeByte(TaskCodec.FORMAT_VERSION);
+                out.writeInt(month.getYear());
+                out.writeByte(month.getMonthValue());
+                out.writeInt(tasks.size());
+                for (Task task : tasks) {
+                    byte[] data = TaskCodec.encode(task);
+                    out.writeInt(data.length);
+                    out.write(data);
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Metrics.error(e);
+        }
+    }
+}
\ No newline at end of file
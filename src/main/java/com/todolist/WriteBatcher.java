@@ -0,0 +1,337 @@
+package main.java.com.todolist;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+// Agrupa los anexados a los segmentos y los escribe en lotes: cada N escrituras o cada T milisegundos
+public class WriteBatcher {
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final long DEFAULT_BATCH_DELAY_MILLIS = 20;
+    private static WriteBatcher defaultInstance;
+    private static final long APPEND = -1;
+
+    public enum Durability {
+        // Solo se escribe al sistema operativo, sin fsync
+        NONE,
+        // Un fsync por archivo al final de cada lote
+        FSYNC_BATCH,
+        // Un fsync despues de cada escritura
+        FSYNC_WRITE
+    }
+
+    private static final class PendingWrite {
+        final File file;
+        // Posicion reservada; APPEND si es el diario, que no usa posiciones y se rota con escrituras encoladas
+        final long offset;
+        final byte[] data;
+
+        PendingWrite(File file, long offset, byte[] data) {
+            this.file = file;
+            this.offset = offset;
+            this.data = data;
+        }
+    }
+
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final Durability durability;
+    private final ScheduledThreadPoolExecutor flusher;
+    private final Thread shutdownHook;
+    // Evita que el hook de cierre escriba a la vez que el hilo de lotes
+    private final Object writeLock = new Object();
+
+    private List<PendingWrite> queue = new ArrayList<>();
+    // Lote que el hilo de lotes esta escribiendo
+    private List<PendingWrite> writing = new ArrayList<>();
+    // Fin logico de cada archivo, incluyendo lo encolado
+    private final Map<File, Long> fileEnds = new HashMap<>();
+    private long nextSequence = 1;
+    // Ultima secuencia de un lote ya procesado; las de los lotes fallidos no son durables
+    private long durableSequence;
+    // Ultima secuencia tomada por un lote
+    private long batchedSequence;
+    // Lotes fallidos que nadie esperaba (primera secuencia -> error): el proximo que espere hasta
+    // ellos recibe el error. Un fallo informado una vez se olvida; las esperas siguientes solo
+    // cubren lo encolado despues.
+    private final TreeMap<Long, IOException> unreportedFailures = new TreeMap<>();
+    private boolean flushScheduled;
+    private final TreeMap<Long, CompletableFuture<Void>> waiters = new TreeMap<>();
+
+    public WriteBatcher(int maxBatchSize, long maxDelayMillis, Durability durability) {
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.durability = durability;
+        this.flusher = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "write-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Al cerrar, lo que quedaba programado lo escribe close() sin esperar la demora
+        flusher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        // No perder lo encolado si la aplicacion se cierra con System.exit sin llamar a close()
+        this.shutdownHook = new Thread(this::flushNow, "write-batcher-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    // Lote compartido por defecto, para que todas las instancias del proceso vean lo encolado por las demas
+    public static synchronized WriteBatcher getDefault() {
+        if (defaultInstance == null) {
+            defaultInstance = new WriteBatcher(DEFAULT_BATCH_SIZE, DEFAULT_BATCH_DELAY_MILLIS, Durability.FSYNC_BATCH);
+        }
+        return defaultInstance;
+    }
+
+    // Encola una escritura al final del archivo y devuelve la posicion que ocupara en el
+    public synchronized long submit(File file, byte[] data) {
+        checkOpen();
+        long offset = fileEnds.computeIfAbsent(file, File::length);
+        fileEnds.put(file, offset + data.length);
+        enqueue(new PendingWrite(file, offset, data));
+        return offset;
+    }
+
+    // Encola una escritura al final del archivo, donde este al escribir el lote
+    public synchronized void append(File file, byte[] data) {
+        checkOpen();
+        enqueue(new PendingWrite(file, APPEND, data));
+    }
+
+    private void checkOpen() {
+        if (flusher.isShutdown()) {
+            throw new IllegalStateException("WriteBatcher cerrado");
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        nextSequence++;
+        queue.add(write);
+        if (queue.size() >= maxBatchSize) {
+            flusher.execute(this::flushNow);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flushNow, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Encola la anotacion en el diario y la escritura que describe en el mismo lote.
+    // El diario queda primero en el lote, asi se escribe (y se sincroniza) antes que el archivo.
+    public synchronized long submit(File file, byte[] data, File journal, LongFunction<byte[]> journalRecord) {
+        long offset = fileEnds.computeIfAbsent(file, File::length);
+        checkOpen();
+        append(journal, journalRecord.apply(offset));
+        return submit(file, data);
+    }
+
+    // Olvida el fin conocido del archivo porque otro proceso lo modifico; la proxima escritura
+    // vuelve a tomar el tamaño real. Si hay escrituras encoladas o escribiendose para el se conserva.
+    public synchronized void forget(File file) {
+        for (List<PendingWrite> writes : List.of(queue, writing)) {
+            for (PendingWrite write : writes) {
+                if (write.file.equals(file)) return;
+            }
+        }
+        fileEnds.remove(file);
+    }
+
+    // Incluye el lote que el hilo de lotes ya tomo pero todavia esta escribiendo
+    public synchronized boolean hasPending() {
+        return durableSequence < nextSequence - 1;
+    }
+
+    // Fuerza la escritura inmediata de todo lo encolado
+    public synchronized CompletableFuture<Void> flush() {
+        CompletableFuture<Void> durable = whenDurable();
+        if (!flusher.isShutdown()) {
+            flusher.execute(this::flushNow);
+        }
+        return durable;
+    }
+
+    // Escribe lo encolado, detiene el hilo de lotes y quita el hook de cierre.
+    // Despues no se aceptan mas escrituras; esperar las anteriores sigue funcionando.
+    public void close() {
+        synchronized (WriteBatcher.class) {
+            if (defaultInstance == this) {
+                defaultInstance = null;
+            }
+        }
+        synchronized (this) {
+            flusher.shutdown();
+        }
+        // Si el hilo de lotes esta escribiendo, writeLock hace esperar a que termine
+        flushNow();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // La JVM ya se esta cerrando: el hook corre igual y no encuentra nada encolado
+        }
+    }
+
+    // Se completa cuando todo lo encolado hasta ahora es durable, sin adelantar el lote
+    public synchronized CompletableFuture<Void> whenDurable() {
+        return whenDurable(nextSequence - 1);
+    }
+
+    public synchronized CompletableFuture<Void> whenDurable(long sequence) {
+        NavigableMap<Long, IOException> failed = unreportedFailures.headMap(sequence, true);
+        if (!failed.isEmpty()) {
+            IOException failure = failed.lastEntry().getValue();
+            failed.clear();
+            return CompletableFuture.failedFuture(failure);
+        }
+        if (sequence <= durableSequence) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return waiters.computeIfAbsent(sequence, s -> new CompletableFuture<>());
+    }
+
+    private void flushNow() {
+        synchronized (writeLock) {
+            List<PendingWrite> batch;
+            long firstSequence;
+            long lastSequence;
+            synchronized (this) {
+                batch = queue;
+                writing = batch;
+                queue = new ArrayList<>();
+                flushScheduled = false;
+                firstSequence = batchedSequence + 1;
+                lastSequence = nextSequence - 1;
+                batchedSequence = lastSequence;
+            }
+
+            IOException failure = null;
+            if (!batch.isEmpty()) {
+                try {
+                    writeBatch(batch);
+                } catch (IOException e) {
+                    Metrics.error(e);
+                    failure = e;
+                    forgetEnds(batch);
+                }
+            }
+            completeWaiters(firstSequence, lastSequence, failure);
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) throws IOException {
+        // Agrupar por archivo conservando el orden de cada uno
+        Map<File, List<PendingWrite>> byFile = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            byFile.computeIfAbsent(write.file, f -> new ArrayList<>()).add(write);
+        }
+
+        for (Map.Entry<File, List<PendingWrite>> entry : byFile.entrySet()) {
+            File file = entry.getKey();
+            List<PendingWrite> writes = entry.getValue();
+            File directory = file.getParentFile();
+            if (directory != null && !directory.exists()) {
+                directory.mkdirs();
+            }
+
+            // Se escribe en las posiciones reservadas y no con APPEND: si otro proceso agrego o
+            // trunco el archivo desde la reserva, las posiciones ya entregadas no serian las reales
+            boolean append = writes.get(0).offset == APPEND;
+            try (FileChannel channel = append
+                    ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                    : FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long start = append ? channel.size() : writes.get(0).offset;
+                if (channel.size() != start) {
+                    throw new IOException("El archivo " + file + " cambio fuera de la aplicacion: se esperaban "
+                            + start + " bytes y tiene " + channel.size());
+                }
+                ByteBuffer[] buffers = new ByteBuffer[writes.size()];
+                long end = start;
+                for (int i = 0; i < buffers.length; i++) {
+                    PendingWrite write = writes.get(i);
+                    if (!append && write.offset != end) {
+                        throw new IOException("Posiciones no consecutivas en " + file + ": " + write.offset + " despues de " + end);
+                    }
+                    buffers[i] = ByteBuffer.wrap(write.data);
+                    end += write.data.length;
+                }
+
+                channel.position(start);
+                try {
+                    write(channel, buffers);
+                } catch (IOException e) {
+                    // Un registro cortado en el medio esconderia lo que se escriba despues
+                    try {
+                        channel.truncate(start);
+                    } catch (IOException truncateFailure) {
+                        e.addSuppressed(truncateFailure);
+                    }
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void write(FileChannel channel, ByteBuffer[] buffers) throws IOException {
+        if (durability == Durability.FSYNC_WRITE) {
+            for (ByteBuffer buffer : buffers) {
+                writeFully(channel, new ByteBuffer[]{buffer});
+                channel.force(false);
+            }
+        } else {
+            writeFully(channel, buffers);
+            if (durability == Durability.FSYNC_BATCH) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers) throws IOException {
+        int last = buffers.length - 1;
+        while (buffers[last].hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    // Parte del lote puede no haber llegado al archivo: las proximas posiciones se toman del tamaño real
+    private synchronized void forgetEnds(List<PendingWrite> batch) {
+        for (PendingWrite write : batch) {
+            fileEnds.remove(write.file);
+        }
+    }
+
+    private synchronized void completeWaiters(long firstSequence, long lastSequence, IOException failure) {
+        writing = new ArrayList<>();
+        durableSequence = Math.max(durableSequence, lastSequence);
+        if (failure != null) {
+            // Toda espera pendiente incluye este lote, aunque llegue hasta escrituras posteriores
+            if (waiters.isEmpty()) {
+                unreportedFailures.put(firstSequence, failure);
+            }
+            for (CompletableFuture<Void> waiter : waiters.values()) {
+                waiter.completeExceptionally(failure);
+            }
+            waiters.clear();
+            return;
+        }
+        Iterator<CompletableFuture<Void>> iterator = waiters.headMap(lastSequence, true).values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().complete(null);
+            iterator.remove();
+        }
+    }
+}
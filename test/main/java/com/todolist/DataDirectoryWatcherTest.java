@@ -0,0 +1,181 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataDirectoryWatcherTest {
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    File directory;
+
+    // Cada aviso del vigilante, en el orden en que llegaron
+    private final BlockingQueue<Map<YearMonth, Set<Path>>> dispatched = new LinkedBlockingQueue<>();
+    private DataDirectoryWatcher watcher;
+    private FileManager files;
+
+    @AfterEach
+    void close() {
+        if (watcher != null) watcher.close();
+        if (files != null) files.close();
+    }
+
+    private DataDirectoryWatcher watch(FileManager files) throws IOException {
+        this.files = files;
+        watcher = new DataDirectoryWatcher(files, dispatched::add);
+        return watcher;
+    }
+
+    private File todoDirectory(YearMonth month) {
+        File todo = new File(FileManager.getMonthYearPath(directory, month), "to-do");
+        assertTrue(todo.isDirectory() || todo.mkdirs());
+        return todo;
+    }
+
+    // Se escribe fuera del mes y se mueve: el vigilante nunca ve un archivo a medias
+    private File dropTaskFile(File todo, Task task) throws IOException {
+        File temp = new File(directory, task.getId() + ".tmp");
+        Files.write(temp.toPath(), TaskCodec.encodeInline(task));
+        File file = new File(todo, "20250301_" + task.getId() + ".task");
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "no se vio el cambio a tiempo");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void taskManagerSeesDroppedFilesAndReplacedSegments() throws Exception {
+        TaskManager manager = new TaskManager(directory);
+        try {
+            YearMonth month = manager.getCurrentViewMonth();
+            Task own = new Task("propia", "", month.atDay(1), "Trabajo");
+            manager.addTask(own);
+            manager.flush().join();
+            manager.startWatching();
+
+            // Un .task copiado a mano se incorpora al segmento y aparece en la vista
+            File todo = todoDirectory(month);
+            Task dropped = new Task("copiada", "desde otra carpeta", month.atDay(2), "Hogar");
+            dropTaskFile(todo, dropped);
+            await(() -> manager.getTaskById(dropped.getId()) != null);
+            assertEquals("desde otra carpeta", manager.getTaskById(dropped.getId()).getDescription());
+            await(() -> todo.list().length == 0);
+            assertNotNull(manager.getTaskById(own.getId()));
+
+            // Sin el segmento el mes se vuelve a leer: las tareas desaparecen
+            manager.flush().join();
+            Files.delete(new File(FileManager.getMonthYearPath(directory, month), "tasks.log").toPath());
+            await(() -> manager.getTasks().isEmpty());
+            assertNull(manager.getTaskById(dropped.getId()));
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void legacyFilesAddedAndRemovedAreReported() throws Exception {
+        FileManager legacy = new FileManager(directory, FileManager.StorageMode.LEGACY, FileManager.ReadMode.MAPPED,
+                new WriteBatcher(1000, 5, WriteBatcher.Durability.NONE));
+        File todo = todoDirectory(MONTH);
+        watch(legacy).start();
+
+        Task task = new Task("externa", "", MONTH.atDay(1), "Trabajo");
+        File file = dropTaskFile(todo, task);
+        Map<YearMonth, Set<Path>> added = dispatched.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertNotNull(added);
+        assertTrue(added.get(MONTH).contains(file.toPath().toAbsolutePath().normalize()));
+        FileManager.ExternalChanges changes = legacy.applyExternalChanges(MONTH, added.get(MONTH));
+        assertEquals(1, changes.changed.size());
+        assertEquals(task.getId(), changes.changed.get(0).getId());
+
+        Files.delete(file.toPath());
+        Map<YearMonth, Set<Path>> removed = dispatched.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertNotNull(removed);
+        changes = legacy.applyExternalChanges(MONTH, removed.get(MONTH));
+        assertTrue(changes.changed.isEmpty());
+        assertEquals(Set.of(task.getId()), Set.copyOf(changes.removed));
+    }
+
+    @Test
+    void burstIsDeliveredOnceAfterAQuietPause() throws Exception {
+        // Al abrir se migra el formato viejo y se borran las carpetas vacias: la carpeta se crea despues
+        // y antes de vigilar, para que ningun archivo llegue antes de que se registre
+        FileManager segments = FileManagerTest.open(directory, FileManager.ReadMode.MAPPED);
+        File todo = todoDirectory(MONTH);
+        watch(segments).start();
+
+        for (int i = 0; i < 30; i++) {
+            Files.write(new File(todo, "archivo" + i).toPath(), new byte[]{(byte) i});
+        }
+        Map<YearMonth, Set<Path>> changes = dispatched.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertNotNull(changes);
+        assertEquals(Set.of(MONTH), changes.keySet());
+        assertEquals(30, changes.get(MONTH).size());
+        assertNull(dispatched.poll(DataDirectoryWatcher.QUIET_MILLIS * 3, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void continuousChangesAreDeliveredWithinTheMaximumDelay() throws Exception {
+        FileManager segments = FileManagerTest.open(directory, FileManager.ReadMode.MAPPED);
+        File todo = todoDirectory(MONTH);
+        watch(segments).start();
+
+        // Cambios mas seguidos que la pausa: sin el limite no se avisaria hasta el final
+        long start = System.currentTimeMillis();
+        long end = start + DataDirectoryWatcher.MAX_DELAY_MILLIS * 4;
+        File file = new File(todo, "notas");
+        int writes = 0;
+        while (System.currentTimeMillis() < end && dispatched.isEmpty()) {
+            Files.write(file.toPath(), new byte[]{(byte) writes++});
+            Thread.sleep(DataDirectoryWatcher.QUIET_MILLIS / 5);
+        }
+        assertFalse(dispatched.isEmpty(), "la rafaga no se entrego antes de terminar");
+        assertTrue(System.currentTimeMillis() - start >= DataDirectoryWatcher.MAX_DELAY_MILLIS);
+    }
+
+    @Test
+    void rescanAfterOverflowOnlyReportsChangedMonths() throws Exception {
+        FileManager segments = FileManagerTest.open(directory, FileManager.ReadMode.MAPPED);
+        YearMonth other = MONTH.plusMonths(1);
+        segments.saveTask(new Task("marzo", "", MONTH.atDay(1), "Trabajo"));
+        segments.saveTask(new Task("abril", "", other.atDay(1), "Trabajo"));
+        segments.flush().join();
+        watch(segments);
+
+        // Un mes modificado sin evento (perdido en el desborde) y un mes nuevo
+        File segment = segments.getSegmentFile(MONTH);
+        assertTrue(segment.setLastModified(segment.lastModified() + 60_000));
+        YearMonth created = MONTH.plusMonths(5);
+        todoDirectory(created);
+
+        Map<YearMonth, Set<Path>> pending = new HashMap<>();
+        watcher.rescan(pending);
+        assertEquals(Set.of(MONTH, created), pending.keySet());
+        assertNull(pending.get(MONTH));
+        assertNull(pending.get(created));
+    }
+}
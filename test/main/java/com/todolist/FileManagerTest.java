@@ -0,0 +1,210 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileManagerTest {
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    @TempDir
+    File directory;
+
+    private final List<FileManager> opened = new ArrayList<>();
+
+    // Sin cerrar, el guardado del manifiesto o la compactacion en segundo plano pueden seguir
+    // escribiendo mientras se borra la carpeta temporal
+    @AfterEach
+    void close() {
+        for (FileManager files : opened) {
+            files.close();
+        }
+    }
+
+    private FileManager track(FileManager files) {
+        opened.add(files);
+        return files;
+    }
+
+    private FileManager open(FileManager.ReadMode readMode) {
+        return track(open(directory, readMode));
+    }
+
+    static FileManager open(File directory, FileManager.ReadMode readMode) {
+        return new FileManager(directory, FileManager.StorageMode.SEGMENT, readMode,
+                new WriteBatcher(1000, 5, WriteBatcher.Durability.FSYNC_BATCH));
+    }
+
+    private static List<Task> createTasks(FileManager files, int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("tarea " + i, "descripcion " + i, MONTH.atDay(1 + i % 28), "Trabajo");
+            files.saveTask(task);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    void deletedRecordsCountAsDeadBytes() {
+        FileManager files = open(FileManager.ReadMode.MAPPED);
+        List<Task> tasks = createTasks(files, 20);
+        for (int i = 0; i < 10; i++) {
+            files.deleteTask(tasks.get(i));
+        }
+        tasks.get(15).markAsCompleted();
+        files.updateTaskStatus(tasks.get(15));
+        files.flush().join();
+
+        // Otra instancia lee el segmento completo y cuenta los bytes muertos exactos;
+        // lo sumado al escribir coincide porque usa el largo de cada registro reemplazado
+        FileManager reopened = open(FileManager.ReadMode.MAPPED);
+        assertEquals(10, reopened.loadTasksForMonth(MONTH).size());
+        long dead = reopened.getDeadBytes(MONTH);
+        assertEquals(dead, files.getDeadBytes(MONTH));
+        File segment = reopened.getSegmentFile(MONTH);
+        long before = segment.length();
+
+        // Compactado solo quedan los registros vigentes
+        assertTrue(reopened.compactMonth(MONTH, true));
+        assertEquals(before - segment.length(), dead);
+        assertEquals(0, reopened.getDeadBytes(MONTH));
+    }
+
+    // Copia del directorio tal como quedaria si el proceso se cortara en este momento
+    static File crashCopy(File source, File target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source.toPath())) {
+            for (Path path : paths.collect(Collectors.toList())) {
+                Path copy = target.toPath().resolve(source.toPath().relativize(path));
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(copy);
+                } else {
+                    try {
+                        Files.copy(path, copy);
+                    } catch (NoSuchFileException e) {
+                        // Un temporal renombrado durante la copia, como el del guardado del manifiesto
+                    }
+                }
+            }
+        }
+        return target;
+    }
+
+    private static Set<UUID> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void compactionRetiresTheJournalBeforeReplacingTheSegment(@TempDir File crashed) throws IOException {
+        FileManager files = open(FileManager.ReadMode.MAPPED);
+        List<Task> tasks = createTasks(files, 30);
+        for (int i = 0; i < 20; i++) {
+            files.deleteTask(tasks.get(i));
+        }
+        // Anotado y durable, pero sin punto de control: el diario describe posiciones del segmento actual
+        files.awaitDurable().join();
+        assertTrue(new File(directory, Journal.FILE_NAME).exists());
+        // Escritura de otro mes todavia en el lote
+        files.saveTask(new Task("otro mes", "", MONTH.plusMonths(1).atDay(1), "Hogar"));
+
+        assertTrue(files.compactMonth(MONTH, true));
+
+        // Ningun registro del mes compactado sobrevive al reemplazo
+        Set<YearMonth> journaled = new HashSet<>();
+        new Journal(directory, new WriteBatcher(1000, 5, WriteBatcher.Durability.NONE)).replay(new Journal.Target() {
+            @Override
+            public void segmentWrite(YearMonth month, long offset, int length, int checksum) {
+                journaled.add(month);
+            }
+
+            @Override
+            public void replaceFile(String from, String to) {
+            }
+
+            @Override
+            public void blobWrite(YearMonth month, long offset, int length, int checksum) {
+                journaled.add(month);
+            }
+        });
+        assertFalse(journaled.contains(MONTH));
+
+        // Un corte justo despues del reemplazo se recupera con las tareas vigentes
+        FileManager recovered = track(open(crashCopy(directory, crashed), FileManager.ReadMode.MAPPED));
+        assertEquals(ids(tasks.subList(20, 30)), ids(recovered.loadTasksForMonth(MONTH)));
+        assertEquals(1, recovered.loadTasksForMonth(MONTH.plusMonths(1)).size());
+    }
+
+    private static Task find(List<Task> tasks, UUID id) {
+        return tasks.stream().filter(task -> task.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    @Test
+    void archivedMonthCanBeReadUpdatedAndCompacted() {
+        FileManager files = open(FileManager.ReadMode.MAPPED);
+        List<Task> tasks = createTasks(files, 30);
+        // Una descripcion larga queda en el archivo de descripciones y el archivo guarda su referencia
+        String longDescription = "descripcion larga ".repeat(200);
+        Task detailed = new Task("con detalle", longDescription, MONTH.atDay(15), "Trabajo");
+        files.saveTask(detailed);
+        tasks.add(detailed);
+        for (int i = 0; i < 5; i++) {
+            files.deleteTask(tasks.get(i));
+        }
+        List<Task> live = new ArrayList<>(tasks.subList(5, tasks.size()));
+        files.flush().join();
+
+        assertTrue(files.archiveMonth(MONTH));
+        File segment = files.getSegmentFile(MONTH);
+        assertFalse(segment.exists());
+        assertTrue(new File(segment.getParentFile(), MonthArchive.FILE_NAME).exists());
+
+        // Otra instancia lee el mes desde el archivo
+        FileManager reopened = open(FileManager.ReadMode.MAPPED);
+        List<Task> archived = reopened.loadTasksForMonth(MONTH);
+        assertEquals(ids(live), ids(archived));
+        assertEquals(longDescription, find(archived, detailed.getId()).getDescription());
+
+        // Los cambios sobre tareas archivadas van a un segmento nuevo que se aplica encima del archivo
+        Task completed = find(archived, live.get(0).getId());
+        completed.markAsCompleted();
+        reopened.updateTaskStatus(completed);
+        reopened.deleteTask(find(archived, live.get(1).getId()));
+        Task added = new Task("nueva", "", MONTH.atDay(20), "Hogar");
+        reopened.saveTask(added);
+        reopened.flush().join();
+        assertTrue(segment.exists());
+        live.remove(1);
+        live.add(added);
+
+        FileManager updated = open(FileManager.ReadMode.STREAM);
+        List<Task> merged = updated.loadTasksForMonth(MONTH);
+        assertEquals(ids(live), ids(merged));
+        assertTrue(find(merged, completed.getId()).isCompleted());
+        assertEquals(1, updated.loadTasksForMonth(MONTH, true).size());
+
+        // Compactar un mes archivado lo vuelve a archivar entero, con los cambios
+        assertTrue(updated.compactMonth(MONTH, true));
+        assertFalse(segment.exists());
+        List<Task> compacted = open(FileManager.ReadMode.MAPPED).loadTasksForMonth(MONTH);
+        assertEquals(ids(live), ids(compacted));
+        assertTrue(find(compacted, completed.getId()).isCompleted());
+        assertEquals(longDescription, find(compacted, detailed.getId()).getDescription());
+    }
+}
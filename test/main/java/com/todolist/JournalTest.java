@@ -0,0 +1,128 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+    private static final YearMonth MONTH = YearMonth.of(2025, 5);
+
+    @TempDir
+    File directory;
+
+    @TempDir
+    File crashes;
+
+    private static List<Task> createTasks(FileManager files, int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("tarea " + i, "", MONTH.atDay(1 + i), "Trabajo");
+            files.saveTask(task);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        List<String> titles = new ArrayList<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    // El mismo archivo dentro de una copia del directorio de datos
+    private File inCopy(File copy, File file) {
+        return new File(copy, directory.toPath().relativize(file.toPath()).toString());
+    }
+
+    @Test
+    void recordsDoNotCopyTheData() {
+        Journal journal = new Journal(directory, new WriteBatcher(1000, 5, WriteBatcher.Durability.NONE));
+        byte[] small = journal.segmentWrite(MONTH, 0, new byte[10]);
+        byte[] large = journal.blobWrite(MONTH, 1 << 20, new byte[100_000]);
+        assertEquals(30, small.length);
+        assertEquals(small.length, large.length);
+    }
+
+    @Test
+    void tornTailIsCutWhereTheWriteStarted() throws IOException {
+        FileManager files = FileManagerTest.open(directory, FileManager.ReadMode.MAPPED);
+        List<Task> tasks = createTasks(files, 5);
+        files.awaitDurable().join();
+        File segment = files.getSegmentFile(MONTH);
+        long lastOffset = segment.length() - (TaskCodec.encode(tasks.get(4)).length + 5);
+
+        // Ultimo registro con basura al final y ultimo registro a medio escribir
+        File garbled = FileManagerTest.crashCopy(directory, new File(crashes, "garbled"));
+        try (RandomAccessFile file = new RandomAccessFile(inCopy(garbled, segment), "rw")) {
+            file.seek(file.length() - 3);
+            file.write(new byte[]{1, 2, 3});
+        }
+        File truncated = FileManagerTest.crashCopy(directory, new File(crashes, "truncated"));
+        try (RandomAccessFile file = new RandomAccessFile(inCopy(truncated, segment), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        for (File copy : List.of(garbled, truncated)) {
+            FileManager recovered = FileManagerTest.open(copy, FileManager.ReadMode.MAPPED);
+            assertEquals(titles(tasks.subList(0, 4)), titles(recovered.loadTasksForMonth(MONTH)));
+            assertEquals(lastOffset, inCopy(copy, segment).length());
+
+            // Lo que se agrega despues del corte se vuelve a leer
+            recovered.saveTask(new Task("despues", "", MONTH.atDay(20), "Trabajo"));
+            recovered.flush().join();
+            FileManager reopened = FileManagerTest.open(FileManagerTest.crashCopy(copy, new File(crashes, copy.getName() + "-reopened")),
+                    FileManager.ReadMode.MAPPED);
+            assertEquals(5, reopened.loadTasksForMonth(MONTH).size());
+        }
+    }
+
+    @Test
+    void replayingTwiceChangesNothing() throws IOException {
+        FileManager files = FileManagerTest.open(directory, FileManager.ReadMode.MAPPED);
+        List<Task> tasks = createTasks(files, 5);
+        files.awaitDurable().join();
+        File segment = files.getSegmentFile(MONTH);
+        byte[] journal = Files.readAllBytes(new File(directory, Journal.FILE_NAME).toPath());
+
+        File once = FileManagerTest.crashCopy(directory, new File(crashes, "once"));
+        try (RandomAccessFile file = new RandomAccessFile(inCopy(once, segment), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        FileManager.ReadMode mode = FileManager.ReadMode.MAPPED;
+        assertEquals(4, FileManagerTest.open(once, mode).loadTasksForMonth(MONTH).size());
+        byte[] recoveredOnce = Files.readAllBytes(inCopy(once, segment).toPath());
+
+        // Corte despues de reaplicar pero antes de borrar el diario: se reaplica otra vez
+        File twice = FileManagerTest.crashCopy(once, new File(crashes, "twice"));
+        Files.write(new File(twice, Journal.FILE_NAME).toPath(), journal);
+        assertEquals(titles(tasks.subList(0, 4)), titles(FileManagerTest.open(twice, mode).loadTasksForMonth(MONTH)));
+        assertArrayEquals(recoveredOnce, Files.readAllBytes(inCopy(twice, segment).toPath()));
+        assertFalse(new File(twice, Journal.FILE_NAME).exists());
+    }
+
+    @Test
+    void intactFilesAreLeftAlone() throws IOException {
+        FileManager files = FileManagerTest.open(directory, FileManager.ReadMode.MAPPED);
+        createTasks(files, 5);
+        files.awaitDurable().join();
+        File segment = files.getSegmentFile(MONTH);
+
+        File copy = FileManagerTest.crashCopy(directory, new File(crashes, "intact"));
+        long modified = inCopy(copy, segment).lastModified();
+        byte[] before = Files.readAllBytes(inCopy(copy, segment).toPath());
+        assertEquals(5, FileManagerTest.open(copy, FileManager.ReadMode.MAPPED).loadTasksForMonth(MONTH).size());
+        assertArrayEquals(before, Files.readAllBytes(inCopy(copy, segment).toPath()));
+        assertEquals(modified, inCopy(copy, segment).lastModified());
+    }
+}
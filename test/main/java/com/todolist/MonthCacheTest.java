@@ -0,0 +1,65 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonthCacheTest {
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+    private static final YearMonth APRIL = YearMonth.of(2025, 4);
+
+    @Test
+    void zeroMonthsDisablesCaching() {
+        MonthCache cache = new MonthCache(0, Long.MAX_VALUE);
+        cache.put(MARCH, List.of(new Task("uno", "", LocalDate.of(2025, 3, 1), "Otros")));
+        assertFalse(cache.contains(MARCH));
+        assertNull(cache.get(MARCH));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEstimatedBytes());
+    }
+
+    @Test
+    void keepsTheMostRecentMonthOverTheByteLimit() {
+        MonthCache cache = new MonthCache(12, 1);
+        cache.put(MARCH, List.of(new Task("uno", "", LocalDate.of(2025, 3, 1), "Otros")));
+        cache.put(APRIL, List.of(new Task("dos", "", LocalDate.of(2025, 4, 1), "Otros")));
+        assertFalse(cache.contains(MARCH));
+        assertTrue(cache.contains(APRIL));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedMonth() {
+        MonthCache cache = new MonthCache(1, Long.MAX_VALUE);
+        cache.put(MARCH, List.of());
+        cache.put(APRIL, List.of());
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains(APRIL));
+    }
+
+    @Test
+    void sharesTheTasksWhileTheListIsInUse() {
+        MonthCache cache = new MonthCache(12, Long.MAX_VALUE);
+        Task task = new Task("uno", "", LocalDate.of(2025, 3, 1), "Otros");
+        List<Task> loaded = new ArrayList<>(List.of(task));
+        cache.put(MARCH, loaded);
+        assertSame(task, cache.get(MARCH).get(0));
+        assertThrows(UnsupportedOperationException.class, () -> cache.get(MARCH).clear());
+
+        // Un cambio del mes descarta la lista: las tareas se arman otra vez desde las columnas
+        Task edited = new Task("uno editada", "", LocalDate.of(2025, 3, 1), "Otros");
+        edited.setId(task.getId());
+        cache.taskUpdated(MARCH, edited);
+        List<Task> rebuilt = cache.get(MARCH);
+        assertNotSame(edited, rebuilt.get(0));
+        assertEquals("uno editada", rebuilt.get(0).getTitle());
+        assertSame(rebuilt.get(0), cache.get(MARCH).get(0));
+        Reference.reachabilityFence(loaded);
+        Reference.reachabilityFence(rebuilt);
+    }
+}
@@ -0,0 +1,223 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderSchedulerTest {
+    private static final LocalDate START = LocalDate.of(2025, 3, 10);
+    // Mas que la demora de entrega, que junta los avisos de un mismo momento
+    private static final long QUIET_MILLIS = 500;
+
+    // Reloj que solo avanza cuando el test lo pide
+    private static final class TestClock extends Clock {
+        private volatile Instant instant = START.atStartOfDay(ZoneOffset.UTC).plusHours(12).toInstant();
+
+        void set(LocalDate date) {
+            instant = date.atStartOfDay(ZoneOffset.UTC).plusHours(12).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @TempDir
+    File directory;
+
+    private final TestClock clock = new TestClock();
+    private final BlockingQueue<List<ReminderScheduler.Reminder>> delivered = new LinkedBlockingQueue<>();
+    private final List<ReminderScheduler> opened = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        for (ReminderScheduler scheduler : opened) {
+            scheduler.close();
+        }
+    }
+
+    private ReminderScheduler open(File stateFile) {
+        ReminderScheduler scheduler = new ReminderScheduler(clock, stateFile);
+        scheduler.addListener(delivered::add);
+        opened.add(scheduler);
+        return scheduler;
+    }
+
+    private static Task task(String title, LocalDate dueDate) {
+        return new Task(title, "", dueDate, "Trabajo");
+    }
+
+    private void moveTo(ReminderScheduler scheduler, LocalDate date) {
+        clock.set(date);
+        scheduler.advanceNow().join();
+    }
+
+    // Avisos del proximo lote entregado, por tarea
+    private Map<UUID, ReminderScheduler.Kind> nextBatch() throws InterruptedException {
+        List<ReminderScheduler.Reminder> batch = delivered.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch, "no se entrego ningun aviso");
+        Map<UUID, ReminderScheduler.Kind> kinds = new HashMap<>();
+        for (ReminderScheduler.Reminder reminder : batch) {
+            assertNull(kinds.put(reminder.getId(), reminder.getKind()), "aviso repetido en el lote");
+        }
+        return kinds;
+    }
+
+    private void assertNothingDelivered(ReminderScheduler scheduler) throws InterruptedException {
+        // Lo encolado antes ya corrio en el hilo de recordatorios
+        scheduler.size().join();
+        assertNull(delivered.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void dueSoonComesBeforeOverdue() throws Exception {
+        ReminderScheduler scheduler = open(null);
+        Task tomorrow = task("manana", START.plusDays(1));
+        Task late = task("atrasada", START.minusDays(5));
+        Task later = task("despues", START.plusDays(10));
+        scheduler.taskAdded(tomorrow);
+        scheduler.taskAdded(late);
+        scheduler.taskAdded(later);
+        scheduler.taskAdded(new Task("sin fecha", "", null, "Trabajo"));
+
+        // Una tarea ya vencida solo recibe el aviso de vencida
+        assertEquals(Map.of(tomorrow.getId(), ReminderScheduler.Kind.DUE_SOON,
+                late.getId(), ReminderScheduler.Kind.OVERDUE), nextBatch());
+        assertEquals(3, scheduler.size().join());
+
+        // El dia del vencimiento no hay aviso nuevo; al dia siguiente pasa a vencida
+        moveTo(scheduler, START.plusDays(1));
+        assertNothingDelivered(scheduler);
+        moveTo(scheduler, START.plusDays(2));
+        assertEquals(Map.of(tomorrow.getId(), ReminderScheduler.Kind.OVERDUE), nextBatch());
+
+        moveTo(scheduler, START.plusDays(9));
+        assertEquals(Map.of(later.getId(), ReminderScheduler.Kind.DUE_SOON), nextBatch());
+
+        List<ReminderScheduler.Reminder> active = scheduler.getActiveReminders().join();
+        assertEquals(List.of(late.getId(), tomorrow.getId(), later.getId()),
+                active.stream().map(ReminderScheduler.Reminder::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void wheelWrapsAroundPastItsSize() throws Exception {
+        ReminderScheduler scheduler = open(null);
+        // Su aviso cae en la misma casilla que el dia START + 599 - 512
+        Task far = task("lejana", START.plusDays(600));
+        scheduler.taskAdded(far);
+        assertNothingDelivered(scheduler);
+
+        moveTo(scheduler, START.plusDays(599 - 512));
+        assertNothingDelivered(scheduler);
+        moveTo(scheduler, START.plusDays(598));
+        assertNothingDelivered(scheduler);
+        moveTo(scheduler, START.plusDays(599));
+        assertEquals(Map.of(far.getId(), ReminderScheduler.Kind.DUE_SOON), nextBatch());
+    }
+
+    @Test
+    void jumpLongerThanTheWheelStillFires() throws Exception {
+        ReminderScheduler scheduler = open(null);
+        Task soon = task("pronto", START.plusDays(3));
+        Task distant = task("lejana", START.plusDays(650));
+        scheduler.taskAdded(soon);
+        scheduler.taskAdded(distant);
+
+        // Equipo suspendido mas dias que casillas tiene la rueda: se recorre una vez
+        moveTo(scheduler, START.plusDays(700));
+        assertEquals(Map.of(soon.getId(), ReminderScheduler.Kind.OVERDUE,
+                distant.getId(), ReminderScheduler.Kind.OVERDUE), nextBatch());
+    }
+
+    @Test
+    void updatesAndDeletesReschedule() throws Exception {
+        ReminderScheduler scheduler = open(null);
+        Task moved = task("movida", START.plusDays(10));
+        Task deleted = task("borrada", START.plusDays(5));
+        Task completed = task("hecha", START.plusDays(5));
+        scheduler.taskAdded(moved);
+        scheduler.taskAdded(deleted);
+        scheduler.taskAdded(completed);
+
+        moved.setDueDate(START.plusDays(20));
+        scheduler.taskUpdated(moved);
+        scheduler.taskRemoved(deleted);
+        scheduler.taskUpdated(completed.withStatus(true));
+        assertEquals(1, scheduler.size().join());
+
+        // Nada en los dias viejos; el aviso llega segun la fecha nueva
+        moveTo(scheduler, START.plusDays(9));
+        assertNothingDelivered(scheduler);
+        moveTo(scheduler, START.plusDays(19));
+        assertEquals(Map.of(moved.getId(), ReminderScheduler.Kind.DUE_SOON), nextBatch());
+
+        // Con el mismo vencimiento un cambio de titulo no repite el aviso
+        moved.setTitle("movida y renombrada");
+        scheduler.taskUpdated(moved);
+        assertNothingDelivered(scheduler);
+        assertEquals("movida y renombrada", scheduler.getActiveReminders().join().get(0).getTitle());
+    }
+
+    @Test
+    void remindersGivenBeforeClosingAreNotRepeated() throws Exception {
+        File state = new File(directory, ReminderScheduler.FILE_NAME);
+        Task late = task("atrasada", START.minusDays(5));
+        Task today = task("hoy", START);
+
+        ReminderScheduler first = open(state);
+        first.seed(List.of(late, today));
+        first.seedingFinished();
+        assertEquals(Map.of(late.getId(), ReminderScheduler.Kind.OVERDUE,
+                today.getId(), ReminderScheduler.Kind.DUE_SOON), nextBatch());
+        first.close();
+
+        // Mismo dia: la carga y el mes leido no repiten nada, pero los avisos siguen activos
+        ReminderScheduler second = open(state);
+        second.monthLoaded(YearMonth.from(START), List.of(late, today));
+        second.seed(List.of(late, today));
+        assertNothingDelivered(second);
+        assertEquals(2, second.getActiveReminders().join().size());
+        second.close();
+
+        // Al dia siguiente solo llega el aviso nuevo
+        clock.set(START.plusDays(1));
+        ReminderScheduler third = open(state);
+        third.seed(List.of(late, today));
+        assertEquals(Map.of(today.getId(), ReminderScheduler.Kind.OVERDUE), nextBatch());
+
+        // Una tarea nueva ya vencida si avisa
+        Task added = task("nueva atrasada", START.minusDays(2));
+        third.taskAdded(added);
+        assertEquals(Map.of(added.getId(), ReminderScheduler.Kind.OVERDUE), nextBatch());
+    }
+}
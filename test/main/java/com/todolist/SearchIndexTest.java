@@ -0,0 +1,100 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+    @TempDir
+    File directory;
+
+    @Test
+    void savesAndLoadsTextsLongerThan64KB() {
+        File file = new File(directory, "search.idx");
+        SearchIndex index = new SearchIndex(file, Runnable::run);
+        String title = "informe " + "ñ".repeat(70_000);
+        Task task = new Task(title, "presupuesto anual", LocalDate.of(2025, 3, 4), "Trabajo");
+        index.index(task);
+        index.save();
+        assertFalse(index.isDirty());
+
+        SearchIndex loaded = new SearchIndex(file, Runnable::run);
+        assertTrue(loaded.load());
+        List<SearchIndex.Result> results = loaded.search("presu", 10);
+        assertEquals(1, results.size());
+        assertEquals(task.getId(), results.get(0).getId());
+        assertEquals(title, results.get(0).getTitle());
+    }
+
+    @Test
+    void rejectsCorruptTextLength() throws IOException {
+        File file = new File(directory, "search.idx");
+        SearchIndex index = new SearchIndex(file, Runnable::run);
+        index.index(new Task("uno", "", LocalDate.of(2025, 3, 4), "Trabajo"));
+        index.save();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        // Largo del titulo: magic, version, cantidad e ID
+        int position = 4 + 1 + 4 + 16;
+        bytes[position] = 0x7f;
+        Files.write(file.toPath(), bytes);
+
+        assertFalse(new SearchIndex(file, Runnable::run).load());
+    }
+
+    @Test
+    void readsStoredDescriptionsOffTheCallingThread() throws IOException {
+        YearMonth month = YearMonth.of(2025, 4);
+        File blob = new File(directory, "descriptions.blob");
+        DescriptionStore store = new DescriptionStore(m -> blob, 1024 * 1024);
+        String description = "x".repeat(DescriptionStore.PREVIEW_CHARS) + " zanahoria";
+        byte[] body = description.getBytes(StandardCharsets.UTF_8);
+        Files.write(blob.toPath(), body);
+
+        Task task = new Task("compras", null, LocalDate.of(2025, 4, 9), "Hogar");
+        task.setDescriptionReference(store.reference(month, 0, body.length, DescriptionStore.preview(description)));
+        List<Runnable> queued = new ArrayList<>();
+        SearchIndex index = new SearchIndex(new File(directory, "search.idx"), queued::add);
+
+        index.taskAdded(task);
+        assertEquals(1, queued.size());
+        assertEquals(1, index.search("compras", 10).size());
+        assertTrue(index.search("zanahoria", 10).isEmpty());
+
+        queued.get(0).run();
+        assertEquals(1, index.search("zanahoria", 10).size());
+    }
+
+    @Test
+    void staleDescriptionReadsAreDiscarded() throws IOException {
+        YearMonth month = YearMonth.of(2025, 4);
+        File blob = new File(directory, "descriptions.blob");
+        DescriptionStore store = new DescriptionStore(m -> blob, 1024 * 1024);
+        String description = "x".repeat(DescriptionStore.PREVIEW_CHARS) + " zanahoria";
+        byte[] body = description.getBytes(StandardCharsets.UTF_8);
+        Files.write(blob.toPath(), body);
+
+        Task task = new Task("compras", null, LocalDate.of(2025, 4, 9), "Hogar");
+        task.setDescriptionReference(store.reference(month, 0, body.length, DescriptionStore.preview(description)));
+        List<Runnable> queued = new ArrayList<>();
+        SearchIndex index = new SearchIndex(new File(directory, "search.idx"), queued::add);
+        index.taskAdded(task);
+
+        // Una edicion posterior ya trae la descripcion: la lectura encolada no la pisa
+        Task edited = new Task("compras", "solo pan", LocalDate.of(2025, 4, 9), "Hogar");
+        edited.setId(task.getId());
+        index.taskUpdated(edited);
+        queued.get(0).run();
+        assertTrue(index.search("zanahoria", 10).isEmpty());
+        assertEquals(1, index.search("pan", 10).size());
+    }
+}
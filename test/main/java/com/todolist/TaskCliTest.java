@@ -0,0 +1,179 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCliTest {
+    @TempDir
+    File directory;
+
+    private static List<Map<String, String>> read(TaskCli.RecordReader reader) throws IOException {
+        List<Map<String, String>> records = new ArrayList<>();
+        Map<String, String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static List<Map<String, String>> readCsv(String text) throws IOException {
+        return read(new TaskCli.CsvReader(new BufferedReader(new StringReader(text))));
+    }
+
+    private static List<Map<String, String>> readJsonLines(String text) throws IOException {
+        return read(new TaskCli.JsonLinesReader(new BufferedReader(new StringReader(text))));
+    }
+
+    @Test
+    void csvFieldsKeepQuotedCommasNewlinesAndQuotes() throws IOException {
+        List<Map<String, String>> records = readCsv(
+                "title,description,category\r\n"
+                        + "\"uno, dos\",\"linea 1\nlinea 2\n\",Trabajo\n"
+                        + "\n"
+                        + "\"dice \"\"hola\"\"\",\"\"\"\",\n"
+                        + "sin comillas,a\"b,\n");
+        assertEquals(3, records.size());
+        assertEquals("uno, dos", records.get(0).get("title"));
+        assertEquals("linea 1\nlinea 2\n", records.get(0).get("description"));
+        assertEquals("Trabajo", records.get(0).get("category"));
+        assertEquals("dice \"hola\"", records.get(1).get("title"));
+        assertEquals("\"", records.get(1).get("description"));
+        assertEquals("", records.get(1).get("category"));
+        // Una comilla en medio de un campo sin comillas es texto
+        assertEquals("a\"b", records.get(2).get("description"));
+    }
+
+    @Test
+    void headerIsDetectedByTheColumnNames() throws IOException {
+        // Sin cabecera, una fila cuyo titulo es "title" sigue siendo una tarea
+        List<Map<String, String>> records = readCsv(",title,description,Trabajo\n");
+        assertEquals(1, records.size());
+        assertEquals("title", records.get(0).get("title"));
+        assertEquals("description", records.get(0).get("description"));
+
+        records = readCsv("category,title\nHogar,barrer\n");
+        assertEquals(1, records.size());
+        assertEquals("barrer", records.get(0).get("title"));
+        assertEquals("Hogar", records.get(0).get("category"));
+
+        assertTrue(TaskCli.CsvReader.isHeader(List.of(TaskRecord.FIELDS)));
+        assertFalse(TaskCli.CsvReader.isHeader(List.of("title", "title")));
+        assertFalse(TaskCli.CsvReader.isHeader(List.of("description", "category")));
+        assertFalse(TaskCli.CsvReader.isHeader(List.of("title", "notas")));
+    }
+
+    @Test
+    void unterminatedQuoteTakesTheRestOfTheInput() throws IOException {
+        List<Map<String, String>> records = readCsv("title,description\nbien,\"sin cerrar\notra,linea\n");
+        assertEquals(1, records.size());
+        assertEquals("sin cerrar\notra,linea", records.get(0).get("description"));
+    }
+
+    @Test
+    void malformedJsonLinesBecomeRecordsWithoutTitle() throws IOException {
+        TaskCli.JsonLinesReader reader = new TaskCli.JsonLinesReader(new BufferedReader(new StringReader(
+                "{\"title\":\"uno\"}\n\n   \n{\"title\": sin comillas}\n{\"title\":\"tres\"}\n")));
+        assertEquals("uno", reader.next().get("title"));
+        Map<String, String> invalid = reader.next();
+        assertEquals(2, reader.getRecordNumber());
+        assertNull(invalid.get("title"));
+        assertThrows(IllegalArgumentException.class, () -> TaskRecord.toTask(invalid));
+        assertEquals("tres", reader.next().get("title"));
+        assertEquals(3, reader.getRecordNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void malformedRecordsAreSkippedAndReported() throws IOException {
+        File input = new File(directory, "tareas.jsonl");
+        Files.writeString(input.toPath(), "{\"title\":\"buena\",\"dueDate\":\"2025-03-10\"}\n"
+                + "{\"title\":\"fecha mala\",\"dueDate\":\"2025-02-30\"}\n"
+                + "{\"title\":\n"
+                + "{\"description\":\"sin titulo\"}\n", StandardCharsets.UTF_8);
+        File data = new File(directory, "datos");
+
+        assertEquals(1, TaskCli.run(new String[]{"import", input.getPath(), "--data", data.getPath()}));
+        File output = new File(directory, "salida.jsonl");
+        assertEquals(0, TaskCli.run(new String[]{"export", output.getPath(), "--data", data.getPath()}));
+        List<Map<String, String>> exported = readJsonLines(Files.readString(output.toPath()));
+        assertEquals(1, exported.size());
+        assertEquals("buena", exported.get(0).get("title"));
+    }
+
+    @Test
+    void importThenExportKeepsEveryField() throws IOException {
+        String header = String.join(",", TaskRecord.FIELDS);
+        String csv = header + "\n"
+                + "11111111-1111-1111-1111-111111111111,\"informe, final\",\"linea 1\nlinea \"\"2\"\"\",Trabajo,2025-03-10,false,,2025-03-01\n"
+                + "22222222-2222-2222-2222-222222222222,café ñ,,,2025-04-02,true,2025-04-03,2025-03-20\n"
+                + "33333333-3333-3333-3333-333333333333,\"\\u00e9 sin escapar en CSV\",\"tab\there\",Hogar,,false,,2024-12-31\n";
+        File input = new File(directory, "tareas.csv");
+        Files.writeString(input.toPath(), csv, StandardCharsets.UTF_8);
+        File data = new File(directory, "datos");
+        assertEquals(0, TaskCli.run(new String[]{"import", input.getPath(), "--data", data.getPath()}));
+        Map<String, Map<String, String>> expected = byId(readCsv(csv));
+
+        File exportedCsv = new File(directory, "salida.csv");
+        assertEquals(0, TaskCli.run(new String[]{"export", exportedCsv.getPath(), "--data", data.getPath()}));
+        assertEquals(expected, byId(readCsv(Files.readString(exportedCsv.toPath()))));
+
+        File exportedJson = new File(directory, "salida.jsonl");
+        assertEquals(0, TaskCli.run(new String[]{"export", exportedJson.getPath(), "--data", data.getPath()}));
+        Map<String, Map<String, String>> json = byId(readJsonLines(Files.readString(exportedJson.toPath())));
+        assertEquals(expected.keySet(), json.keySet());
+        for (Map.Entry<String, Map<String, String>> entry : expected.entrySet()) {
+            for (String field : TaskRecord.FIELDS) {
+                // En JSON los campos vacios salen como null
+                String value = entry.getValue().get(field);
+                assertEquals(value.isEmpty() ? null : value, json.get(entry.getKey()).get(field), field);
+            }
+        }
+
+        // Volver a importar lo exportado en otra carpeta da la misma exportacion
+        File copy = new File(directory, "copia");
+        assertEquals(0, TaskCli.run(new String[]{"import", exportedJson.getPath(), "--data", copy.getPath()}));
+        File again = new File(directory, "otra.csv");
+        assertEquals(0, TaskCli.run(new String[]{"export", again.getPath(), "--data", copy.getPath()}));
+        assertEquals(expected, byId(readCsv(Files.readString(again.toPath()))));
+    }
+
+    @Test
+    void failedWritesEndWithAnErrorCode() throws IOException {
+        File input = new File(directory, "tareas.csv");
+        Files.writeString(input.toPath(), "title\nuno\n", StandardCharsets.UTF_8);
+        // La carpeta de datos queda debajo de un archivo comun: el lote falla al escribir
+        File blocker = new File(directory, "blocker");
+        Files.write(blocker.toPath(), new byte[0]);
+
+        assertEquals(1, TaskCli.run(new String[]{"import", input.getPath(), "--data", new File(blocker, "datos").getPath()}));
+    }
+
+    @Test
+    void unknownArgumentsAreUsageErrors() {
+        assertEquals(2, TaskCli.run(new String[]{"import"}));
+        assertEquals(2, TaskCli.run(new String[]{"export", "--format", "xml"}));
+        assertEquals(2, TaskCli.run(new String[]{"export", "--from", "2025-13"}));
+        assertEquals(2, TaskCli.run(new String[]{"export", "a.csv", "b.csv"}));
+    }
+
+    private static Map<String, Map<String, String>> byId(List<Map<String, String>> records) {
+        Map<String, Map<String, String>> byId = new HashMap<>();
+        for (Map<String, String> record : records) {
+            byId.put(record.get("id"), record);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,126 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCodecTest {
+    @TempDir
+    File directory;
+
+    private static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(expected.isCompleted(), actual.isCompleted());
+        assertEquals(expected.getCompletionDate(), actual.getCompletionDate());
+        assertEquals(expected.getCreationDate(), actual.getCreationDate());
+    }
+
+    @Test
+    void roundTripsAllFields() throws IOException {
+        Task task = new Task(UUID.randomUUID(), "Reunión con García", "Llevar el informe ✓", LocalDate.of(2025, 3, 4),
+                "Trabajo", true, LocalDate.of(2025, 3, 2), LocalDate.of(2025, 2, 1));
+        assertSameTask(task, TaskCodec.decode(TaskCodec.encode(task)));
+    }
+
+    @Test
+    void roundTripsOptionalFieldsAbsent() throws IOException {
+        Task task = new Task(UUID.randomUUID(), "Sin nada", null, null, null, false, null, LocalDate.of(2024, 12, 31));
+        Task decoded = TaskCodec.decode(TaskCodec.encode(task));
+        assertSameTask(task, decoded);
+        assertNull(decoded.getDueDate());
+        assertNull(decoded.getCategory());
+    }
+
+    @Test
+    void roundTripsLongTexts() throws IOException {
+        char[] title = new char[70_000];
+        Arrays.fill(title, 'ñ');
+        Task task = new Task(new String(title), new String(title), LocalDate.of(2025, 1, 1), "Otros");
+        // Longitudes que necesitan varios bytes de varint
+        assertSameTask(task, TaskCodec.decode(TaskCodec.encode(task)));
+    }
+
+    @Test
+    void decodesFromPositionAndLeavesBufferAfterRecord() throws IOException {
+        Task first = new Task("uno", "", LocalDate.of(2025, 5, 1), "Salud");
+        Task second = new Task("dos", "", LocalDate.of(2025, 5, 2), "Salud");
+        byte[] a = TaskCodec.encode(first);
+        byte[] b = TaskCodec.encode(second);
+        ByteBuffer buffer = ByteBuffer.allocate(a.length + b.length).put(a).put(b).flip();
+
+        assertEquals(first.getId(), TaskCodec.peekId(buffer));
+        assertSameTask(first, TaskCodec.decode(buffer.slice(0, a.length)));
+        buffer.position(a.length);
+        assertEquals(second.getId(), TaskCodec.peekId(buffer));
+        assertSameTask(second, TaskCodec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void decodesJavaSerializedTasks() throws IOException {
+        Task task = new Task("serializada", "desc", LocalDate.of(2025, 3, 4), "Trabajo");
+        task.markAsCompleted();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(task);
+        }
+        assertNull(TaskCodec.peekId(ByteBuffer.wrap(bytes.toByteArray())));
+        assertSameTask(task, TaskCodec.decode(bytes.toByteArray()));
+    }
+
+    @Test
+    void resolvesDescriptionReferences() throws IOException {
+        YearMonth month = YearMonth.of(2025, 4);
+        File blob = new File(directory, "descriptions.blob");
+        DescriptionStore store = new DescriptionStore(m -> blob, 1024 * 1024);
+        String description = "x".repeat(DescriptionStore.PREVIEW_CHARS * 3);
+        byte[] body = ("basura" + description).getBytes(StandardCharsets.UTF_8);
+        Files.write(blob.toPath(), body);
+
+        Task task = new Task("larga", description, LocalDate.of(2025, 4, 9), "Estudio");
+        DescriptionStore.Reference reference = store.reference(month, 6, body.length - 6, DescriptionStore.preview(description));
+        byte[] encoded = TaskCodec.encode(task, reference);
+        assertEquals(TaskCodec.FORMAT_VERSION, encoded[0]);
+        assertTrue(encoded.length < description.length(), "el registro solo lleva el comienzo");
+
+        Task decoded = TaskCodec.decode(encoded, store);
+        assertFalse(decoded.isDescriptionLoaded());
+        assertEquals(DescriptionStore.preview(description), decoded.getDescriptionPreview());
+        assertEquals(description, decoded.getDescription());
+        // Sin almacen no se puede leer
+        assertThrows(IOException.class, () -> TaskCodec.decode(encoded));
+    }
+
+    @Test
+    void rejectsTruncatedRecords() {
+        byte[] encoded = TaskCodec.encode(new Task("truncada", "descripcion", LocalDate.of(2025, 6, 1), "Otros"));
+        for (int length = 0; length < encoded.length; length++) {
+            int cut = length;
+            assertThrows(IOException.class, () -> TaskCodec.decode(encoded, 0, cut), "longitud " + cut);
+        }
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] encoded = TaskCodec.encode(new Task("version", "", null, null));
+        encoded[0] = 99;
+        assertThrows(IOException.class, () -> TaskCodec.decode(encoded));
+    }
+}
\ No newline at end of file
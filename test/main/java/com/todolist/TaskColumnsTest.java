@@ -0,0 +1,95 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskColumnsTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void tasksComeBackWithTheSameFields() {
+        DescriptionStore store = new DescriptionStore(m -> new File("descriptions.blob"), 1024);
+        Task referenced = new Task("informe", null, DAY, "Trabajo");
+        referenced.setDescriptionReference(store.reference(YearMonth.of(2025, 3), 128, 400, "comienzo del texto"));
+        Task completed = new Task("reunión con ñandú", "sala 2", null, null);
+        completed.markAsCompleted();
+        List<Task> tasks = List.of(new Task("", "", DAY.plusDays(1), "Personal"), referenced, completed,
+                new Task("sin descripcion", null, DAY, "Estudio"));
+
+        List<Task> copies = new TaskColumns(tasks).toList();
+        assertEquals(tasks.size(), copies.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertArrayEquals(TaskCodec.encode(tasks.get(i)), TaskCodec.encode(copies.get(i)));
+            assertEquals(tasks.get(i).getDescriptionPreview(), copies.get(i).getDescriptionPreview());
+        }
+        assertEquals(referenced.getDescriptionReference(), copies.get(1).getDescriptionReference());
+        assertSame(CategoryDictionary.intern("Trabajo"), copies.get(1).getCategory());
+    }
+
+    @Test
+    void updatesAndRemovalsKeepTheOrderAndTheLookups() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new Task("tarea " + i, "detalle " + i, DAY, "Otros"));
+        }
+        TaskColumns columns = new TaskColumns(tasks);
+
+        Task edited = new Task("editada", "otro texto", DAY.plusDays(3), "Salud");
+        edited.setId(tasks.get(5).getId());
+        assertTrue(columns.update(edited));
+        assertEquals("editada", columns.find(edited.getId()).getTitle());
+        assertFalse(columns.update(new Task("nueva", "", DAY, "Otros")));
+
+        // Mas de la mitad borradas: las filas se vuelven a armar sin las borradas
+        for (int i = 10; i < 80; i++) {
+            assertTrue(columns.remove(tasks.get(i).getId()));
+        }
+        assertFalse(columns.remove(tasks.get(10).getId()));
+        assertNull(columns.find(tasks.get(10).getId()));
+        assertEquals(30, columns.size());
+
+        Task again = new Task("de vuelta", "", DAY, "Otros");
+        again.setId(tasks.get(10).getId());
+        columns.add(again);
+        List<Task> remaining = columns.toList();
+        assertEquals(31, remaining.size());
+        assertEquals("editada", remaining.get(5).getTitle());
+        assertEquals("tarea 80", remaining.get(10).getTitle());
+        assertEquals(again.getId(), remaining.get(30).getId());
+        for (Task task : remaining) {
+            assertEquals(task.getTitle(), columns.find(task.getId()).getTitle());
+        }
+        assertNull(columns.find(UUID.randomUUID()));
+    }
+
+    @Test
+    void selectsByDueDayAndStatus() {
+        Task early = new Task("antes", "", DAY.minusDays(1), "Otros");
+        Task first = new Task("primera", "", DAY, "Otros");
+        Task done = new Task("hecha", "", DAY.plusDays(2), "Otros");
+        done.markAsCompleted();
+        Task undated = new Task("sin fecha", "", null, "Otros");
+        TaskColumns columns = new TaskColumns(List.of(early, first, done, undated));
+
+        List<Task> all = columns.selectDue(DAY.toEpochDay(), DAY.plusDays(5).toEpochDay(), false);
+        assertEquals(List.of(first.getId(), done.getId()), ids(all));
+        List<Task> pending = columns.selectDue(LocalDate.MIN.toEpochDay(), DAY.plusDays(5).toEpochDay(), true);
+        assertEquals(List.of(early.getId(), first.getId()), ids(pending));
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        List<UUID> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,205 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskHttpServerTest {
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    @TempDir
+    File directory;
+
+    private TaskManager manager;
+    private TaskHttpServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void start() throws IOException {
+        manager = new TaskManager(directory);
+        server = new TaskHttpServer(manager, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+        manager.close();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String... headers)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String... headers) throws IOException, InterruptedException {
+        return send("GET", path, null, headers);
+    }
+
+    // Las listas tienen una tarea por linea
+    private static List<Map<String, String>> tasks(String body) {
+        List<Map<String, String>> tasks = new ArrayList<>();
+        String items = body.substring(body.indexOf('[') + 1, body.lastIndexOf(']')).trim();
+        if (items.isEmpty()) return tasks;
+        for (String line : items.split(",\n")) {
+            tasks.add(TaskRecord.parseJson(line));
+        }
+        return tasks;
+    }
+
+    @Test
+    void createsReadsUpdatesTogglesAndDeletes() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/tasks",
+                "{\"title\":\"informe\",\"description\":\"con \\\"comillas\\\"\",\"dueDate\":\"2025-03-10\",\"category\":\"Trabajo\"}");
+        assertEquals(201, created.statusCode());
+        Map<String, String> task = TaskRecord.parseJson(created.body());
+        String path = "/api/tasks/" + task.get("id");
+        assertEquals(path, created.headers().firstValue("Location").orElseThrow());
+        assertEquals("con \"comillas\"", task.get("description"));
+
+        HttpResponse<String> read = get(path);
+        assertEquals(200, read.statusCode());
+        assertEquals("informe", TaskRecord.parseJson(read.body()).get("title"));
+
+        HttpResponse<String> updated = send("PUT", path, "{\"title\":\"informe final\",\"dueDate\":\"2025-03-12\"}");
+        assertEquals(200, updated.statusCode());
+        Map<String, String> replaced = TaskRecord.parseJson(updated.body());
+        assertEquals(task.get("id"), replaced.get("id"));
+        assertEquals(task.get("creationDate"), replaced.get("creationDate"));
+        assertEquals("informe final", manager.findTaskById(java.util.UUID.fromString(task.get("id"))).getTitle());
+
+        HttpResponse<String> toggled = send("POST", path + "/toggle", null);
+        assertEquals("true", TaskRecord.parseJson(toggled.body()).get("completed"));
+        toggled = send("POST", path + "/toggle", null);
+        assertEquals("false", TaskRecord.parseJson(toggled.body()).get("completed"));
+
+        assertEquals(204, send("DELETE", path, null).statusCode());
+        assertEquals(404, get(path).statusCode());
+        assertEquals(404, send("DELETE", path, null).statusCode());
+    }
+
+    @Test
+    void errorsMapToStatusCodes() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/tasks", "{\"title\":\"unica\",\"dueDate\":\"2025-03-10\"}");
+        String id = TaskRecord.parseJson(created.body()).get("id");
+
+        HttpResponse<String> duplicate = send("POST", "/api/tasks", "{\"id\":\"" + id + "\",\"title\":\"otra\"}");
+        assertEquals(409, duplicate.statusCode());
+        assertTrue(TaskRecord.parseJson(duplicate.body()).get("error").contains(id));
+
+        assertEquals(404, get("/api/nada").statusCode());
+        assertEquals(404, get("/api/tasks/no-es-un-id").statusCode());
+        assertEquals(404, get("/api/tasks/" + id + "/otra-cosa").statusCode());
+        assertEquals(404, get("/api/months/2025-13/tasks").statusCode());
+        assertEquals(404, send("PATCH", "/api/tasks", "{}").statusCode());
+        assertEquals(404, send("POST", "/api/months", "{}").statusCode());
+
+        assertEquals(400, send("POST", "/api/tasks", "").statusCode());
+        assertEquals(400, send("POST", "/api/tasks", "{\"title\":").statusCode());
+        assertEquals(400, send("POST", "/api/tasks", "{\"description\":\"sin titulo\"}").statusCode());
+        assertEquals(400, send("POST", "/api/tasks", "{\"title\":\"x\",\"dueDate\":\"mañana\"}").statusCode());
+        assertEquals(400, get("/api/tasks?from=2025-03-01").statusCode());
+        assertEquals(400, get("/api/tasks?from=2025-03-10&to=2025-03-01").statusCode());
+        assertEquals(400, get("/api/months/2025-03/tasks?status=todas").statusCode());
+        assertEquals("application/json; charset=utf-8", duplicate.headers().firstValue("Content-Type").orElseThrow());
+    }
+
+    @Test
+    void unchangedListsAnswerNotModified() throws Exception {
+        manager.addTask(new Task("uno", "", MONTH.atDay(5), "Trabajo"));
+        String path = "/api/months/" + MONTH + "/tasks";
+
+        HttpResponse<String> first = get(path);
+        assertEquals(200, first.statusCode());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertEquals(1, tasks(first.body()).size());
+
+        HttpResponse<String> again = get(path, "If-None-Match", etag);
+        assertEquals(304, again.statusCode());
+        assertEquals(etag, again.headers().firstValue("ETag").orElseThrow());
+        assertEquals("", again.body());
+        assertEquals(304, get(path, "If-None-Match", "\"otro\", W/" + etag).statusCode());
+
+        // Un cambio en el mes cambia el ETag del mes y el del rango que lo incluye
+        String range = "/api/tasks?from=2025-03-01&to=2025-04-30";
+        String rangeEtag = get(range).headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, get(range, "If-None-Match", rangeEtag).statusCode());
+        send("POST", "/api/tasks", "{\"title\":\"dos\",\"dueDate\":\"2025-03-20\"}");
+
+        HttpResponse<String> changed = get(path, "If-None-Match", etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertEquals(2, tasks(changed.body()).size());
+        HttpResponse<String> changedRange = get(range, "If-None-Match", rangeEtag);
+        assertEquals(200, changedRange.statusCode());
+        assertEquals(2, tasks(changedRange.body()).size());
+    }
+
+    @Test
+    void listsAreStreamedInChunks() throws Exception {
+        int count = 2000;
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("tarea " + i, "descripcion con, comas " + i, MONTH.atDay(1 + i % 28), "Trabajo");
+            if (i % 2 == 0) task.markAsCompleted();
+            manager.addTask(task);
+        }
+
+        HttpResponse<String> all = get("/api/months/" + MONTH + "/tasks");
+        assertEquals(200, all.statusCode());
+        assertEquals("chunked", all.headers().firstValue("Transfer-Encoding").orElseThrow());
+        assertTrue(all.headers().firstValue("Content-Length").isEmpty());
+        assertEquals(count, tasks(all.body()).size());
+
+        List<Map<String, String>> pending = tasks(get("/api/months/" + MONTH + "/tasks?status=pending").body());
+        assertEquals(count / 2, pending.size());
+        for (Map<String, String> task : pending) {
+            assertEquals("false", task.get("completed"));
+        }
+
+        List<Map<String, String>> due = tasks(get("/api/tasks?from=2025-03-01&to=2025-03-01").body());
+        assertFalse(due.isEmpty());
+        for (Map<String, String> task : due) {
+            assertEquals("2025-03-01", task.get("dueDate"));
+        }
+
+        HttpResponse<String> months = get("/api/months");
+        assertTrue(months.body().contains("\"month\":\"" + MONTH + "\""));
+        // Una sola tarea va con su largo
+        String id = tasks(all.body()).get(0).get("id");
+        assertTrue(get("/api/tasks/" + id).headers().firstValue("Content-Length").isPresent());
+    }
+
+    @Test
+    void overdueListsOnlyPendingPastTasks() throws Exception {
+        Task late = new Task("vencida", "", LocalDate.now().minusDays(3), "Trabajo");
+        Task done = new Task("hecha", "", LocalDate.now().minusDays(3), "Trabajo");
+        done.markAsCompleted();
+        manager.addTask(late);
+        manager.addTask(done);
+        manager.addTask(new Task("futura", "", LocalDate.now().plusDays(3), "Trabajo"));
+
+        List<Map<String, String>> overdue = tasks(get("/api/tasks/overdue").body());
+        assertEquals(1, overdue.size());
+        assertEquals(late.getId().toString(), overdue.get(0).get("id"));
+    }
+}
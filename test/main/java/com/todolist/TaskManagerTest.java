@@ -0,0 +1,83 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskManagerTest {
+    @TempDir
+    File directory;
+
+    @Test
+    void statusChangesPublishACopy() {
+        TaskManager manager = new TaskManager(directory);
+        Task task = new Task("informe", "", LocalDate.now(), "Trabajo");
+        manager.addTask(task);
+        List<Task> before = manager.getTasks();
+
+        Task completed = manager.markTaskAsCompleted(task);
+        assertNotSame(task, completed);
+        assertFalse(task.isCompleted());
+        assertTrue(completed.isCompleted());
+        assertNotNull(completed.getCompletionDate());
+        assertSame(completed, manager.getTaskById(task.getId()));
+        assertEquals(List.of(completed), manager.getCompletedTasks());
+        assertTrue(manager.getPendingTasks().isEmpty());
+        // Las listas ya entregadas no cambian
+        assertSame(task, before.get(0));
+
+        Task pending = manager.markTaskAsPending(completed);
+        assertFalse(pending.isCompleted());
+        assertNull(pending.getCompletionDate());
+        assertEquals(List.of(pending), manager.getPendingTasks());
+        manager.close();
+    }
+
+    @Test
+    void viewKeepsOrderAndIndexesAcrossWrites() {
+        TaskManager manager = new TaskManager(directory);
+        Task first = new Task("uno", "", LocalDate.now(), "Trabajo");
+        Task second = new Task("dos", "", LocalDate.now(), "Hogar");
+        Task third = new Task("tres", "", LocalDate.now(), "Trabajo");
+        manager.addTask(first);
+        manager.addTask(second);
+        manager.addTask(third);
+
+        Task edited = new Task("dos editada", "", LocalDate.now(), "Trabajo");
+        manager.updateTask(second, edited);
+        assertEquals(List.of(first, edited, third), manager.getTasks());
+        assertEquals(3, manager.getTasksByCategory("Trabajo").size());
+        assertTrue(manager.getTasksByCategory("Hogar").isEmpty());
+
+        manager.deleteTask(first);
+        assertEquals(List.of(edited, third), manager.getTasks());
+        assertNull(manager.getTaskById(first.getId()));
+
+        // Una tarea que pasa a otro mes sale de la vista
+        Task moved = new Task("tres", "", LocalDate.now().plusMonths(2), "Trabajo");
+        manager.updateTask(third, moved);
+        assertEquals(List.of(edited), manager.getTasks());
+        assertEquals(List.of(edited), manager.getTasksDueBetween(LocalDate.now().minusDays(1), LocalDate.now().plusDays(1)));
+        manager.close();
+    }
+
+    @Test
+    void closeSavesTheViewSnapshot() {
+        TaskManager manager = new TaskManager(directory, 3, 64L << 20, true);
+        manager.getReadyFuture().join();
+        Task task = new Task("informe", "", LocalDate.now(), "Trabajo");
+        manager.addTask(task);
+        manager.close();
+        assertTrue(new File(directory, ViewSnapshot.FILE_NAME).exists());
+
+        // La copia se muestra antes de terminar la carga
+        TaskManager reopened = new TaskManager(directory, 3, 64L << 20, true);
+        assertEquals(task.getId(), reopened.getTasks().get(0).getId());
+        reopened.close();
+    }
+}
@@ -0,0 +1,70 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRecordTest {
+    @Test
+    void readsUnicodeAndEscapedQuotes() {
+        Map<String, String> record = TaskRecord.parseJson(
+                "{ \"title\" : \"caf\\u00e9 \\\"doble\\\" \\ud83d\\ude00\", \"description\":\"a\\\\b\\nc\\t\\/d\","
+                        + " \"completed\": true, \"dueDate\": null, \"priority\": -1.5e3 }");
+        assertEquals("café \"doble\" \uD83D\uDE00", record.get("title"));
+        assertEquals("a\\b\nc\t/d", record.get("description"));
+        assertEquals("true", record.get("completed"));
+        assertTrue(record.containsKey("dueDate"));
+        assertNull(record.get("dueDate"));
+        assertEquals("-1.5e3", record.get("priority"));
+        assertTrue(TaskRecord.parseJson(" {} ").isEmpty());
+    }
+
+    @Test
+    void rejectsMalformedObjects() {
+        String[] malformed = {
+                "",
+                "[]",
+                "{\"title\":\"sin cerrar\"",
+                "{\"title\":\"sin comillas de cierre}",
+                "{\"title\" \"falta los dos puntos\"}",
+                "{\"title\":sin_comillas}",
+                "{\"title\":\"a\" \"b\":\"c\"}",
+                "{\"title\":\"\\u12\"}",
+                "{\"title\":\"\\u12zz\"}",
+                "{title:\"a\"}"
+        };
+        for (String line : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> TaskRecord.parseJson(line), line);
+        }
+    }
+
+    @Test
+    void writtenJsonParsesBackToTheSameValues() throws IOException {
+        Task task = new Task("\"comillas\", barra \\ y\ttab", "linea 1\r\nlinea 2 \u0001 ñ \uD83D\uDE00",
+                LocalDate.of(2025, 3, 10), "Trabajo");
+        task.markAsCompleted();
+        StringWriter out = new StringWriter();
+        TaskRecord.writeJson(out, task);
+        assertEquals(-1, out.toString().indexOf('\n'));
+
+        Map<String, String> record = TaskRecord.parseJson(out.toString());
+        String[] values = TaskRecord.values(task);
+        for (int i = 0; i < TaskRecord.FIELDS.length; i++) {
+            assertEquals(values[i], record.get(TaskRecord.FIELDS[i]), TaskRecord.FIELDS[i]);
+        }
+        Task copy = TaskRecord.toTask(record);
+        assertArrayEquals(TaskCodec.encode(task), TaskCodec.encode(copy));
+    }
+
+    @Test
+    void recordsWithoutTitleOrWithBadValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TaskRecord.toTask(Map.of("description", "x")));
+        assertThrows(IllegalArgumentException.class, () -> TaskRecord.toTask(Map.of("title", "x", "id", "no-es-uuid")));
+        assertThrows(RuntimeException.class, () -> TaskRecord.toTask(Map.of("title", "x", "dueDate", "2025-13-01")));
+    }
+}
@@ -0,0 +1,65 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewSnapshotTest {
+    private static final YearMonth MONTH = YearMonth.of(2025, 6);
+    // Posicion de la cantidad de tareas y del largo del primer registro
+    private static final int COUNT_POSITION = 4 + 1 + 1 + 4 + 1;
+    private static final int FIRST_LENGTH_POSITION = COUNT_POSITION + 4;
+
+    @TempDir
+    File directory;
+
+    private ViewSnapshot snapshot() {
+        return new ViewSnapshot(new File(directory, ViewSnapshot.FILE_NAME), DescriptionStore.forDirectory(directory));
+    }
+
+    private void saveTwoTasks() {
+        snapshot().save(MONTH, List.of(new Task("uno", "a", MONTH.atDay(1), "Trabajo"),
+                new Task("dos", "b", MONTH.atDay(2), "Hogar")));
+    }
+
+    private void overwriteInt(int position, int value) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, ViewSnapshot.FILE_NAME), "rw")) {
+            file.seek(position);
+            file.writeInt(value);
+        }
+    }
+
+    @Test
+    void roundTrips() {
+        saveTwoTasks();
+        ViewSnapshot.Contents contents = snapshot().load();
+        assertEquals(MONTH, contents.getMonth());
+        assertEquals(2, contents.getTasks().size());
+        assertEquals("dos", contents.getTasks().get(1).getTitle());
+    }
+
+    @Test
+    void rejectsCountLargerThanTheFile() throws IOException {
+        saveTwoTasks();
+        overwriteInt(COUNT_POSITION, Integer.MAX_VALUE);
+        assertNull(snapshot().load());
+        overwriteInt(COUNT_POSITION, -1);
+        assertNull(snapshot().load());
+    }
+
+    @Test
+    void rejectsRecordLongerThanTheFile() throws IOException {
+        saveTwoTasks();
+        overwriteInt(FIRST_LENGTH_POSITION, Integer.MAX_VALUE - 8);
+        assertNull(snapshot().load());
+        overwriteInt(FIRST_LENGTH_POSITION, 0);
+        assertNull(snapshot().load());
+    }
+}
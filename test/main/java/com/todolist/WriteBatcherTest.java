@@ -0,0 +1,144 @@
+package main.java.com.todolist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBatcherTest {
+    @TempDir
+    File directory;
+
+    @Test
+    void reservesConsecutiveOffsetsAndWritesInOrder() throws IOException {
+        WriteBatcher batcher = new WriteBatcher(1000, 60_000, WriteBatcher.Durability.FSYNC_BATCH);
+        File file = new File(directory, "a/tasks.log");
+        assertEquals(0, batcher.submit(file, new byte[]{1, 2, 3}));
+        assertEquals(3, batcher.submit(file, new byte[]{4}));
+        assertTrue(batcher.hasPending());
+        batcher.flush().join();
+
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, Files.readAllBytes(file.toPath()));
+        assertTrue(batcher.whenDurable().isDone());
+        assertEquals(4, batcher.submit(file, new byte[]{5}));
+    }
+
+    private static void awaitWritten(WriteBatcher batcher) throws InterruptedException {
+        while (batcher.hasPending()) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void failedBatchIsReportedOnce() throws IOException {
+        WriteBatcher batcher = new WriteBatcher(1000, 60_000, WriteBatcher.Durability.FSYNC_BATCH);
+        // El directorio del archivo es un archivo comun: no se puede escribir
+        File blocker = new File(directory, "blocker");
+        Files.write(blocker.toPath(), new byte[0]);
+        File file = new File(blocker, "tasks.log");
+
+        assertEquals(0, batcher.submit(file, new byte[10]));
+        assertThrows(CompletionException.class, () -> batcher.flush().join());
+        // Ya informado: la proxima espera solo cubre lo encolado despues
+        batcher.whenDurable().join();
+
+        // Las posiciones se vuelven a tomar del disco: la reserva del lote fallido no cuenta
+        Files.delete(blocker.toPath());
+        assertTrue(blocker.mkdir());
+        assertEquals(0, batcher.submit(file, new byte[5]));
+        batcher.flush().join();
+        assertEquals(5, file.length());
+        assertTrue(batcher.whenDurable().isDone());
+        assertFalse(batcher.whenDurable().isCompletedExceptionally());
+    }
+
+    @Test
+    void writesQueuedAfterAFailureBecomeDurable() throws IOException {
+        WriteBatcher batcher = new WriteBatcher(1000, 60_000, WriteBatcher.Durability.NONE);
+        File blocker = new File(directory, "blocker");
+        Files.write(blocker.toPath(), new byte[0]);
+        batcher.submit(new File(blocker, "tasks.log"), new byte[1]);
+        File good = new File(directory, "good.log");
+        batcher.submit(good, new byte[1]);
+
+        // El lote entero falla: el archivo bueno iba despues del que no se pudo abrir
+        assertThrows(CompletionException.class, () -> batcher.flush().join());
+        batcher.submit(good, new byte[1]);
+        batcher.flush().join();
+        assertTrue(batcher.whenDurable().isDone());
+        assertFalse(batcher.whenDurable().isCompletedExceptionally());
+    }
+
+    @Test
+    void failureWithoutWaitersGoesToTheNextWaitThatCoversIt() throws Exception {
+        // Lotes de una escritura: cada submit se escribe enseguida, sin nadie esperando
+        WriteBatcher batcher = new WriteBatcher(1, 60_000, WriteBatcher.Durability.NONE);
+        File good = new File(directory, "good.log");
+        batcher.submit(good, new byte[1]);
+        awaitWritten(batcher);
+
+        File blocker = new File(directory, "blocker");
+        Files.write(blocker.toPath(), new byte[0]);
+        batcher.submit(new File(blocker, "tasks.log"), new byte[1]);
+        awaitWritten(batcher);
+
+        // Lo escrito antes del lote fallido sigue siendo durable
+        assertFalse(batcher.whenDurable(1).isCompletedExceptionally());
+        assertTrue(batcher.whenDurable(2).isCompletedExceptionally());
+        // Informado una vez, se olvida
+        assertFalse(batcher.whenDurable(2).isCompletedExceptionally());
+        assertFalse(batcher.whenDurable().isCompletedExceptionally());
+    }
+
+    @Test
+    void fileChangedSinceTheReservationFailsTheBatch() throws IOException {
+        WriteBatcher batcher = new WriteBatcher(1000, 60_000, WriteBatcher.Durability.NONE);
+        File file = new File(directory, "tasks.log");
+        Files.write(file.toPath(), new byte[]{9});
+        assertEquals(1, batcher.submit(file, new byte[]{1, 2}));
+        // Otro proceso agrega bytes despues de la reserva: la posicion entregada ya no es la real
+        Files.write(file.toPath(), new byte[]{9, 8});
+
+        assertThrows(CompletionException.class, () -> batcher.flush().join());
+        assertArrayEquals(new byte[]{9, 8}, Files.readAllBytes(file.toPath()));
+        // La proxima reserva se toma del tamaño real
+        assertEquals(2, batcher.submit(file, new byte[]{3}));
+        batcher.flush().join();
+        assertArrayEquals(new byte[]{9, 8, 3}, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    void appendsGoWhereverTheFileEndsWhenWritten() throws IOException {
+        WriteBatcher batcher = new WriteBatcher(1000, 60_000, WriteBatcher.Durability.NONE);
+        File journal = new File(directory, "journal.log");
+        batcher.append(journal, new byte[]{1});
+        batcher.flush().join();
+        // Rotado con una anotacion encolada: va al diario nuevo
+        batcher.append(journal, new byte[]{2});
+        Files.move(journal.toPath(), new File(directory, "journal-1.log").toPath());
+
+        batcher.flush().join();
+        assertArrayEquals(new byte[]{2}, Files.readAllBytes(journal.toPath()));
+    }
+
+    @Test
+    void closeWritesWhatIsQueuedAndRejectsNewWrites() throws IOException {
+        WriteBatcher batcher = new WriteBatcher(1000, 60_000, WriteBatcher.Durability.NONE);
+        File file = new File(directory, "tasks.log");
+        batcher.submit(file, new byte[]{1, 2});
+        CompletableFuture<Void> durable = batcher.whenDurable();
+
+        batcher.close();
+        assertTrue(durable.isDone());
+        assertFalse(durable.isCompletedExceptionally());
+        assertArrayEquals(new byte[]{1, 2}, Files.readAllBytes(file.toPath()));
+        assertThrows(IllegalStateException.class, () -> batcher.submit(file, new byte[1]));
+        assertTrue(batcher.flush().isDone());
+    }
+}